@@ -0,0 +1,183 @@
+package com.studentms.student.management.system.benchmarks;
+
+import com.studentms.student.management.system.DataGenerator;
+import com.studentms.student.management.system.DatabaseManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared setup for benchmarks: synthetic databases per scale tier and
+ * deterministic samples of keys to drive lookups with
+ */
+public final class BenchmarkDatabases {
+
+    // Generated tiers are cached here between runs; override with -Dbench.dataDir=...
+    private static final Path DATA_DIR = Paths.get(System.getProperty("bench.dataDir", "target/bench-data"));
+
+    private BenchmarkDatabases() {
+    }
+
+    /**
+     * Returns the read-only reference database for a tier, generating it on first use
+     */
+    public static synchronized Path pristine(DataGenerator.ScaleTier tier) {
+        Path db = DATA_DIR.resolve("studentdb-" + tier.getLabel() + "-" + DataGenerator.DEFAULT_SEED + ".db");
+        if (Files.exists(db)) {
+            return db;
+        }
+        try {
+            Files.createDirectories(DATA_DIR);
+            // Generate under a temporary name so an interrupted run never leaves a partial database behind
+            Path partial = DATA_DIR.resolve(db.getFileName() + ".partial");
+            tier.generator(DataGenerator.DEFAULT_SEED).generate(partial.toString());
+            Files.move(partial, db, StandardCopyOption.ATOMIC_MOVE);
+            return db;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies the reference database of a tier so a benchmark can write to it freely
+     */
+    public static Path workingCopy(DataGenerator.ScaleTier tier) {
+        Path source = pristine(tier);
+        try {
+            Path copy = Files.createTempFile(DATA_DIR, "work-" + tier.getLabel() + "-", ".db");
+            Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+            copy.toFile().deleteOnExit();
+            return copy;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Points DatabaseManager at a database with the given PRAGMA profile
+     */
+    public static void use(Path db, DatabaseManager.PragmaProfile profile) {
+        DatabaseManager.setDatabasePath(db.toString());
+        DatabaseManager.setPragmaProfile(profile);
+    }
+
+    /**
+     * Removes a working copy together with any WAL and shared-memory files
+     */
+    public static void delete(Path db) {
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            try {
+                Files.deleteIfExists(Paths.get(db + suffix));
+            } catch (IOException e) {
+                System.err.println("Could not delete " + db + suffix + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads every row of a ResultSet returned by DatabaseManager and closes it
+     * together with its statement and connection, which those methods leave open
+     */
+    public static int drain(ResultSet rs) throws SQLException {
+        Statement stmt = rs.getStatement();
+        Connection conn = stmt.getConnection();
+        try {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            return rows;
+        } finally {
+            rs.close();
+            stmt.close();
+            conn.close();
+        }
+    }
+
+    /**
+     * Deterministic sample of existing keys from the current database
+     */
+    public static final class Sample {
+        public final int[] studentIds;
+        public final int[] enrollmentIds;
+        public final int[] subjectIds;
+        public final String[] emails;
+        public final String[] studentCodes;
+        public final String[] nameFragments;
+
+        private Sample(int[] studentIds, int[] enrollmentIds, int[] subjectIds,
+                       String[] emails, String[] studentCodes, String[] nameFragments) {
+            this.studentIds = studentIds;
+            this.enrollmentIds = enrollmentIds;
+            this.subjectIds = subjectIds;
+            this.emails = emails;
+            this.studentCodes = studentCodes;
+            this.nameFragments = nameFragments;
+        }
+
+        public int size() {
+            return studentIds.length;
+        }
+    }
+
+    /**
+     * Picks size random students (with their credentials and one enrollment each)
+     * from the database DatabaseManager currently points at
+     */
+    public static Sample sample(int size, long seed) {
+        Random random = new Random(seed);
+        int[] studentIds = new int[size];
+        int[] enrollmentIds = new int[size];
+        int[] subjectIds = new int[size];
+        String[] emails = new String[size];
+        String[] codes = new String[size];
+        List<String> fragments = new ArrayList<>(size);
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            int maxStudent;
+            int maxEnrollment;
+            int maxSubject;
+            try (ResultSet rs = stmt.executeQuery("""
+                    SELECT (SELECT MAX(student_id) FROM students),
+                           (SELECT MAX(enrollment_id) FROM enrollments),
+                           (SELECT MAX(subject_id) FROM subjects)
+                    """)) {
+                rs.next();
+                maxStudent = rs.getInt(1);
+                maxEnrollment = rs.getInt(2);
+                maxSubject = rs.getInt(3);
+            }
+
+            for (int i = 0; i < size; i++) {
+                int id = 1 + random.nextInt(maxStudent);
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT email, student_code, full_name FROM students WHERE student_id = " + id)) {
+                    rs.next();
+                    studentIds[i] = id;
+                    emails[i] = rs.getString(1);
+                    codes[i] = rs.getString(2);
+                    fragments.add(rs.getString(3).split(" ")[0]);
+                }
+                enrollmentIds[i] = 1 + random.nextInt(maxEnrollment);
+                subjectIds[i] = 1 + random.nextInt(maxSubject);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not sample benchmark database", e);
+        }
+
+        return new Sample(studentIds, enrollmentIds, subjectIds, emails, codes,
+                          fragments.toArray(new String[0]));
+    }
+}
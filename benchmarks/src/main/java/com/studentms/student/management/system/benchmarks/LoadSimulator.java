@@ -0,0 +1,420 @@
+package com.studentms.student.management.system.benchmarks;
+
+import com.studentms.student.management.system.DataGenerator;
+import com.studentms.student.management.system.DatabaseManager;
+import com.studentms.student.management.system.ReportGenerator;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless multi-client load simulator for the data layer
+ * Each virtual user is a thread playing a coordinator workstation or student:
+ * it picks a workload from the configured mix, runs it through DatabaseManager /
+ * ReportGenerator exactly like the UI would, then "thinks" before the next action.
+ *
+ * Usage (all options optional):
+ *   java -cp benchmarks.jar ...LoadSimulator --tier=100k --users=32 --ramp-up=10 --duration=60
+ *        --think-ms=200 --mix=enroll:20,grade:30,search:25,login:20,report:5
+ *        --profile=TUNED --db=path/to/copy.db --json=load-results.json
+ *
+ * Without --db the simulator works on a fresh copy of the generated tier database.
+ * SQL error details go to load-simulator-errors.log instead of the console.
+ */
+public class LoadSimulator {
+
+    /**
+     * The actions a virtual user can take
+     */
+    enum Workload {
+        ENROLL, GRADE, SEARCH, LOGIN, REPORT
+    }
+
+    private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F"};
+
+    private final Map<Workload, Integer> mix;
+    private final int users;
+    private final long rampUpMillis;
+    private final long durationMillis;
+    private final long thinkMillis;
+    private final BenchmarkDatabases.Sample sample;
+    private final Path reportDir;
+
+    private final AtomicInteger enrollSequence = new AtomicInteger();
+    private final List<UserStats> allStats = new ArrayList<>();
+    private volatile long steadyStateStart;
+    private volatile boolean running = true;
+
+    LoadSimulator(Map<Workload, Integer> mix, int users, long rampUpMillis, long durationMillis,
+                  long thinkMillis, BenchmarkDatabases.Sample sample, Path reportDir) {
+        this.mix = mix;
+        this.users = users;
+        this.rampUpMillis = rampUpMillis;
+        this.durationMillis = durationMillis;
+        this.thinkMillis = thinkMillis;
+        this.sample = sample;
+        this.reportDir = reportDir;
+    }
+
+    // ==================== PER-USER MEASUREMENTS ====================
+
+    /**
+     * Latencies and outcomes recorded by one virtual user, merged after the run
+     */
+    static final class UserStats {
+        final EnumMap<Workload, long[]> latencies = new EnumMap<>(Workload.class);
+        final EnumMap<Workload, Integer> counts = new EnumMap<>(Workload.class);
+        final EnumMap<Workload, Integer> errors = new EnumMap<>(Workload.class);
+        final EnumMap<Workload, Integer> busy = new EnumMap<>(Workload.class);
+
+        void record(Workload workload, long nanos, boolean ok, boolean busyError) {
+            int n = counts.merge(workload, 1, Integer::sum);
+            long[] values = latencies.computeIfAbsent(workload, w -> new long[1024]);
+            if (n > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+                latencies.put(workload, values);
+            }
+            values[n - 1] = nanos;
+            if (!ok) {
+                errors.merge(workload, 1, Integer::sum);
+            }
+            if (busyError) {
+                busy.merge(workload, 1, Integer::sum);
+            }
+        }
+    }
+
+    // ==================== VIRTUAL USER ====================
+
+    private void runUser(int userIndex, long startAt, CountDownLatch done) {
+        SplittableRandom random = new SplittableRandom(DataGenerator.DEFAULT_SEED + userIndex);
+        UserStats stats = new UserStats();
+        synchronized (allStats) {
+            allStats.add(stats);
+        }
+
+        try {
+            sleepUntil(startAt);
+            while (running) {
+                Workload workload = pickWorkload(random);
+                DatabaseManager.clearLastError();
+
+                long begin = System.nanoTime();
+                boolean ok;
+                SQLException failure = null;
+                try {
+                    ok = execute(workload, random);
+                } catch (SQLException e) {
+                    ok = false;
+                    failure = e;
+                }
+                long elapsed = System.nanoTime() - begin;
+
+                if (!ok && failure == null) {
+                    failure = DatabaseManager.getLastError();
+                }
+                // Only steady-state samples count; ramp-up traffic just warms things up
+                if (System.currentTimeMillis() >= steadyStateStart && running) {
+                    stats.record(workload, elapsed, ok, isBusy(failure));
+                }
+                think(random);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+        }
+    }
+
+    private Workload pickWorkload(SplittableRandom random) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (Map.Entry<Workload, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty workload mix");
+    }
+
+    /**
+     * Runs one action the same way the corresponding screen does
+     */
+    private boolean execute(Workload workload, SplittableRandom random) throws SQLException {
+        int i = random.nextInt(sample.size());
+        switch (workload) {
+            case ENROLL: {
+                // Coordinator assigns a subject: duplicate check, then insert
+                int n = enrollSequence.getAndIncrement();
+                String semester = "Semester " + (n % 1000);
+                int year = 3000 + n / 1000;
+                if (DatabaseManager.isStudentEnrolledInSubject(sample.studentIds[i], sample.subjectIds[i], semester, year)) {
+                    return true;
+                }
+                return DatabaseManager.enrollStudentInSubject(sample.studentIds[i], sample.subjectIds[i],
+                                                              semester, year) > 0;
+            }
+            case GRADE:
+                return DatabaseManager.updateGrade(sample.enrollmentIds[i], GRADES[random.nextInt(GRADES.length)]);
+            case SEARCH:
+                BenchmarkDatabases.drain(DatabaseManager.searchStudentsByName(sample.nameFragments[i]));
+                return true;
+            case LOGIN:
+                // Student portal: authenticate, then load all grades
+                if (BenchmarkDatabases.drain(DatabaseManager.authenticateStudent(sample.emails[i], sample.studentCodes[i])) == 0) {
+                    return false;
+                }
+                BenchmarkDatabases.drain(DatabaseManager.getStudentEnrollments(sample.studentIds[i]));
+                return true;
+            case REPORT:
+                return ReportGenerator.exportToCSV(
+                        reportDir.resolve("export-" + Thread.currentThread().threadId() + ".csv").toString());
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+
+    private static boolean isBusy(SQLException e) {
+        if (e == null) {
+            return false;
+        }
+        String message = String.valueOf(e.getMessage());
+        return message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED")
+                || message.contains("database is locked");
+    }
+
+    private void think(SplittableRandom random) throws InterruptedException {
+        if (thinkMillis > 0) {
+            // Exponentially distributed think times around the configured mean
+            long pause = (long) (-thinkMillis * Math.log(1.0 - random.nextDouble()));
+            Thread.sleep(Math.min(pause, thinkMillis * 10));
+        }
+    }
+
+    private static void sleepUntil(long epochMillis) throws InterruptedException {
+        long wait = epochMillis - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    // ==================== RUN AND REPORT ====================
+
+    /**
+     * Runs the simulation and returns the merged results per workload
+     */
+    Map<Workload, Result> run() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(users);
+        long start = System.currentTimeMillis();
+        steadyStateStart = start + rampUpMillis;
+
+        for (int u = 0; u < users; u++) {
+            // Users join evenly spread over the ramp-up period
+            long startAt = start + (users == 1 ? 0 : rampUpMillis * u / (users - 1));
+            int index = u;
+            Thread thread = new Thread(() -> runUser(index, startAt, done), "virtual-user-" + u);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Thread.sleep(rampUpMillis + durationMillis);
+        running = false;
+        done.await();
+
+        Map<Workload, Result> results = new EnumMap<>(Workload.class);
+        for (Workload workload : mix.keySet()) {
+            results.put(workload, Result.merge(workload, allStats, durationMillis));
+        }
+        return results;
+    }
+
+    /**
+     * Aggregated numbers for one workload over the steady-state window
+     */
+    static final class Result {
+        final int count;
+        final int errors;
+        final int busy;
+        final double throughput;
+        final double p50;
+        final double p95;
+        final double p99;
+        final double max;
+
+        private Result(int count, int errors, int busy, double throughput,
+                       double p50, double p95, double p99, double max) {
+            this.count = count;
+            this.errors = errors;
+            this.busy = busy;
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        static Result merge(Workload workload, List<UserStats> stats, long durationMillis) {
+            int count = 0;
+            int errors = 0;
+            int busy = 0;
+            for (UserStats s : stats) {
+                count += s.counts.getOrDefault(workload, 0);
+                errors += s.errors.getOrDefault(workload, 0);
+                busy += s.busy.getOrDefault(workload, 0);
+            }
+
+            long[] all = new long[count];
+            int offset = 0;
+            for (UserStats s : stats) {
+                int n = s.counts.getOrDefault(workload, 0);
+                if (n > 0) {
+                    System.arraycopy(s.latencies.get(workload), 0, all, offset, n);
+                    offset += n;
+                }
+            }
+            Arrays.sort(all);
+
+            return new Result(count, errors, busy, count * 1000.0 / durationMillis,
+                    percentileMillis(all, 0.50), percentileMillis(all, 0.95),
+                    percentileMillis(all, 0.99), count == 0 ? 0 : all[count - 1] / 1e6);
+        }
+
+        private static double percentileMillis(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private static void printResults(Map<Workload, Result> results, PrintStream out) {
+        out.printf("%-8s %9s %10s %9s %9s %9s %9s %8s %8s%n",
+                "Workload", "Ops", "Ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "Error %", "Busy %");
+        for (Map.Entry<Workload, Result> entry : results.entrySet()) {
+            Result r = entry.getValue();
+            out.printf(Locale.ROOT, "%-8s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f %8.2f%n",
+                    entry.getKey(), r.count, r.throughput, r.p50, r.p95, r.p99, r.max,
+                    r.count == 0 ? 0 : r.errors * 100.0 / r.count,
+                    r.count == 0 ? 0 : r.busy * 100.0 / r.count);
+        }
+    }
+
+    private static void writeJson(Map<Workload, Result> results, Map<String, String> options, Path file)
+            throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("{");
+            out.print("  \"options\": {");
+            int k = 0;
+            for (Map.Entry<String, String> option : options.entrySet()) {
+                out.printf("%s\"%s\": \"%s\"", k++ == 0 ? "" : ", ", option.getKey(), option.getValue());
+            }
+            out.println("},");
+            out.println("  \"workloads\": {");
+            k = 0;
+            for (Map.Entry<Workload, Result> entry : results.entrySet()) {
+                Result r = entry.getValue();
+                out.printf(Locale.ROOT,
+                        "    \"%s\": {\"ops\": %d, \"opsPerSecond\": %.3f, \"p50Ms\": %.3f, \"p95Ms\": %.3f, "
+                        + "\"p99Ms\": %.3f, \"maxMs\": %.3f, \"errors\": %d, \"busy\": %d}%s%n",
+                        entry.getKey().name().toLowerCase(Locale.ROOT), r.count, r.throughput, r.p50, r.p95,
+                        r.p99, r.max, r.errors, r.busy, ++k < results.size() ? "," : "");
+            }
+            out.println("  }");
+            out.println("}");
+        }
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    static Map<Workload, Integer> parseMix(String spec) {
+        Map<Workload, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(Workload.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix has no positive weights: " + spec);
+        }
+        return mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("tier", "1k");
+        options.put("users", "16");
+        options.put("ramp-up", "5");
+        options.put("duration", "30");
+        options.put("think-ms", "100");
+        options.put("mix", "enroll:20,grade:30,search:25,login:20,report:5");
+        options.put("profile", "DEFAULT");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Path db = options.containsKey("db")
+                ? Paths.get(options.get("db"))
+                : BenchmarkDatabases.workingCopy(DataGenerator.ScaleTier.fromLabel(options.get("tier")));
+        BenchmarkDatabases.use(db, DatabaseManager.PragmaProfile.valueOf(options.get("profile")));
+        BenchmarkDatabases.Sample sample = BenchmarkDatabases.sample(1024, DataGenerator.DEFAULT_SEED);
+        Path reportDir = Files.createTempDirectory("load-sim-");
+
+        // DatabaseManager prints every failure; keep the console readable under contention
+        PrintStream console = System.err;
+        try (PrintStream errorLog = new PrintStream(new FileOutputStream("load-simulator-errors.log"), true)) {
+            System.setErr(errorLog);
+
+            LoadSimulator simulator = new LoadSimulator(parseMix(options.get("mix")),
+                    Integer.parseInt(options.get("users")),
+                    Long.parseLong(options.get("ramp-up")) * 1000,
+                    Long.parseLong(options.get("duration")) * 1000,
+                    Long.parseLong(options.get("think-ms")),
+                    sample, reportDir);
+
+            System.out.println("Running " + options);
+            Map<Workload, Result> results = simulator.run();
+            printResults(results, System.out);
+
+            if (options.containsKey("json")) {
+                writeJson(results, options, Paths.get(options.get("json")));
+            }
+        } finally {
+            System.setErr(console);
+            if (!options.containsKey("db")) {
+                BenchmarkDatabases.delete(db);
+            }
+            try (var files = Files.list(reportDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(reportDir);
+        }
+    }
+}
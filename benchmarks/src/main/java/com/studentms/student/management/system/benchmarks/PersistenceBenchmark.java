@@ -0,0 +1,234 @@
+package com.studentms.student.management.system.benchmarks;
+
+import com.studentms.student.management.system.DataGenerator;
+import com.studentms.student.management.system.DatabaseManager;
+import com.studentms.student.management.system.EnrollmentRow;
+import com.studentms.student.management.system.StudentRow;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks every DatabaseManager operation against synthetic databases
+ * Throughput gives ops/ms, SampleTime gives the latency distribution (p50..p99.99)
+ *
+ * Each trial works on a fresh copy of the tier database, so write benchmarks
+ * never affect the reference data. Full listings on the 1m tier take seconds
+ * per call; include it explicitly with -p tier=1m
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int BATCH_ROWS = 500;
+
+    @Param({"1k", "100k"})
+    public String tier;
+
+    @Param({"DEFAULT", "TUNED"})
+    public DatabaseManager.PragmaProfile profile;
+
+    private Path database;
+    private BenchmarkDatabases.Sample sample;
+
+    // Drives key selection and keeps inserted codes, emails and terms unique
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabases.workingCopy(DataGenerator.ScaleTier.fromLabel(tier));
+        BenchmarkDatabases.use(database, profile);
+        sample = BenchmarkDatabases.sample(SAMPLE_SIZE, DataGenerator.DEFAULT_SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabases.delete(database);
+    }
+
+    private int next() {
+        return counter.getAndIncrement();
+    }
+
+    private int pick(int n) {
+        return n & (SAMPLE_SIZE - 1);
+    }
+
+    // ==================== SINGLE ROW CRUD ====================
+
+    @Benchmark
+    public int createStudent() {
+        int n = next();
+        return DatabaseManager.createStudent("BX" + n, "Bench Student " + n, "bench." + n + "@bench.test",
+                "+60120000000", "2004-01-01", "Female", "Benchmark Lane", "2024-09-01");
+    }
+
+    @Benchmark
+    public boolean createAndDeleteStudent() {
+        int n = next();
+        int id = DatabaseManager.createStudent("BD" + n, "Bench Student " + n, "bench.d" + n + "@bench.test",
+                "+60120000000", "2004-01-01", "Male", "Benchmark Lane", "2024-09-01");
+        return DatabaseManager.deleteStudent(id);
+    }
+
+    @Benchmark
+    public boolean updateStudent() {
+        int i = pick(next());
+        return DatabaseManager.updateStudent(sample.studentIds[i], "Updated Name", sample.emails[i],
+                "+60121111111", "2004-02-02", "Female", "Updated Address", "Active");
+    }
+
+    @Benchmark
+    public boolean updateStudentWithCourse() {
+        int i = pick(next());
+        return DatabaseManager.updateStudentWithCourse(sample.studentIds[i], "Updated Name", sample.emails[i],
+                "+60121111111", "2004-02-02", "Male", "Updated Address", "Active", 1);
+    }
+
+    @Benchmark
+    public boolean courseCreateUpdateDelete() {
+        int n = next();
+        int id = DatabaseManager.createCourse("BC" + n, "Bench Course", 120, "Benchmark");
+        DatabaseManager.updateCourse(id, "BC" + n, "Bench Course Renamed", 130, "Benchmark");
+        return DatabaseManager.deleteCourse(id);
+    }
+
+    @Benchmark
+    public boolean subjectCreateUpdateDelete() {
+        int n = next();
+        int id = DatabaseManager.createSubject("BS" + n, "Bench Subject", "A", 3, "Benchmark", 1);
+        DatabaseManager.updateSubject(id, "BS" + n, "Bench Subject Renamed", "A", 4, "Benchmark", 1);
+        return DatabaseManager.deleteSubject(id);
+    }
+
+    @Benchmark
+    public boolean updateGrade() {
+        int n = next();
+        return DatabaseManager.updateGrade(sample.enrollmentIds[pick(n)], (n & 1) == 0 ? "A" : "B+");
+    }
+
+    @Benchmark
+    public int enrollStudentInSubject() {
+        int n = next();
+        int i = pick(n);
+        // Year 3000+ never collides with generated terms, so every insert succeeds
+        return DatabaseManager.enrollStudentInSubject(sample.studentIds[i], sample.subjectIds[i],
+                "Semester " + (n % 1000), 3000 + n / 1000);
+    }
+
+    @Benchmark
+    public boolean enrollAndDeleteEnrollment() {
+        int n = next();
+        int i = pick(n);
+        int id = DatabaseManager.enrollStudentInSubject(sample.studentIds[i], sample.subjectIds[i],
+                "Semester " + (n % 1000), 4000 + n / 1000);
+        return DatabaseManager.deleteEnrollment(id);
+    }
+
+    @Benchmark
+    public boolean isStudentEnrolledInSubject() {
+        int i = pick(next());
+        return DatabaseManager.isStudentEnrolledInSubject(sample.studentIds[i], sample.subjectIds[i],
+                "Semester 1", 2022);
+    }
+
+    @Benchmark
+    public String generateNextStudentCode() {
+        return DatabaseManager.generateNextStudentCode();
+    }
+
+    // ==================== BATCH WRITES ====================
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int createStudentsBatch() {
+        int n = next();
+        List<StudentRow> students = new ArrayList<>(BATCH_ROWS);
+        for (int k = 0; k < BATCH_ROWS; k++) {
+            String key = n + "-" + k;
+            students.add(new StudentRow(0, "BB" + key, "Batch Student " + key, "batch." + key + "@bench.test",
+                    "+60120000000", "2004-01-01", "Other", "Batch Lane", "2024-09-01", "Active", 1));
+        }
+        return DatabaseManager.createStudentsBatch(students);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int enrollStudentsBatch() {
+        int n = next();
+        List<EnrollmentRow> enrollments = new ArrayList<>(BATCH_ROWS);
+        for (int k = 0; k < BATCH_ROWS; k++) {
+            int i = pick(n + k);
+            enrollments.add(EnrollmentRow.of(sample.studentIds[i], sample.subjectIds[i],
+                    "Semester " + k, 5000 + n, "B"));
+        }
+        return DatabaseManager.enrollStudentsBatch(enrollments);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    @Benchmark
+    public int getStudentEnrollments() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getStudentEnrollments(sample.studentIds[pick(next())]));
+    }
+
+    @Benchmark
+    public int searchStudentsByName() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.searchStudentsByName(sample.nameFragments[pick(next())]));
+    }
+
+    @Benchmark
+    public int authenticateStudent() throws SQLException {
+        int i = pick(next());
+        return BenchmarkDatabases.drain(DatabaseManager.authenticateStudent(sample.emails[i], sample.studentCodes[i]));
+    }
+
+    @Benchmark
+    public int getStudentByCode() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getStudentByCode(sample.studentCodes[pick(next())]));
+    }
+
+    @Benchmark
+    public int getCourseById() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getCourseById(1 + (next() & 3)));
+    }
+
+    // ==================== FULL LISTINGS ====================
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int getAllStudents() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getAllStudents());
+    }
+
+    @Benchmark
+    public int getAllSubjects() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getAllSubjects());
+    }
+
+    @Benchmark
+    public int getAllCourses() throws SQLException {
+        return BenchmarkDatabases.drain(DatabaseManager.getAllCourses());
+    }
+}
@@ -0,0 +1,214 @@
+package com.studentms.student.management.system.benchmarks;
+
+import com.studentms.student.management.system.DataGenerator;
+import com.studentms.student.management.system.DatabaseManager;
+import com.studentms.student.management.system.EnrollmentRow;
+import com.studentms.student.management.system.ReportGenerator;
+import com.studentms.student.management.system.Student;
+import com.studentms.student.management.system.StudentPortalViewController.GradeRecord;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks every ReportGenerator report and export over synthetic databases
+ * Besides ops/s, each benchmark reports rows/s and MB/s through auxiliary counters;
+ * run through main() (or add -prof gc) to get allocation rates as well
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final int TRANSCRIPT_SAMPLE = 256;
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    @Param({"1k", "100k"})
+    public String tier;
+
+    private Path outputDir;
+    private int studentCount;
+    private List<Student> students;
+    private List<List<GradeRecord>> transcripts;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Rows and megabytes written, reported per second next to the ops/s score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output {
+        public long rows;
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            megabytes = 0;
+        }
+
+        void add(long rowCount, Path file) {
+            rows += rowCount;
+            try {
+                megabytes += Files.size(file) / MEGABYTE;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        // Reports only read, so the shared reference database is safe to use directly
+        BenchmarkDatabases.use(BenchmarkDatabases.pristine(DataGenerator.ScaleTier.fromLabel(tier)),
+                               DatabaseManager.PragmaProfile.DEFAULT);
+        outputDir = Files.createTempDirectory("report-bench-");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM students")) {
+            rs.next();
+            studentCount = rs.getInt(1);
+        }
+        loadTranscripts();
+    }
+
+    /**
+     * Loads a deterministic sample of students with their grades, the same
+     * inputs the student portal hands to the grade report methods
+     */
+    private void loadTranscripts() throws SQLException {
+        BenchmarkDatabases.Sample sample = BenchmarkDatabases.sample(TRANSCRIPT_SAMPLE, DataGenerator.DEFAULT_SEED);
+        students = new ArrayList<>(TRANSCRIPT_SAMPLE);
+        transcripts = new ArrayList<>(TRANSCRIPT_SAMPLE);
+
+        for (int i = 0; i < sample.size(); i++) {
+            String email = sample.emails[i];
+            students.add(new Student(DatabaseManager.getStudentRowByEmail(email)));
+
+            List<GradeRecord> grades = new ArrayList<>();
+            for (EnrollmentRow row : DatabaseManager.getStudentEnrollmentRows(sample.studentIds[i])) {
+                grades.add(new GradeRecord(row.subjectCode(), row.subjectName(), row.subjectSection(),
+                        row.credits(), row.semester(), row.enrollmentYear(), row.grade()));
+            }
+            transcripts.add(grades);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(outputDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(outputDir);
+    }
+
+    // ==================== FULL TABLE REPORTS ====================
+
+    @Benchmark
+    public boolean generateStudentReport(Output output) {
+        Path file = outputDir.resolve("Student_Report.txt");
+        boolean ok = ReportGenerator.generateStudentReport(file.toString());
+        output.add(studentCount, file);
+        return ok;
+    }
+
+    @Benchmark
+    public boolean exportToCSV(Output output) {
+        Path file = outputDir.resolve("Student_Export.csv");
+        boolean ok = ReportGenerator.exportToCSV(file.toString());
+        output.add(studentCount, file);
+        return ok;
+    }
+
+    // ==================== STATISTICS ====================
+
+    @Benchmark
+    public String generateGenderStatistics(Output output) {
+        output.rows += studentCount;
+        return ReportGenerator.generateGenderStatistics();
+    }
+
+    @Benchmark
+    public String generateStatusStatistics(Output output) {
+        output.rows += studentCount;
+        return ReportGenerator.generateStatusStatistics();
+    }
+
+    // ==================== GRADE REPORTS ====================
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean generateStudentGradeReport(Output output) {
+        int i = counter.getAndIncrement() % TRANSCRIPT_SAMPLE;
+        List<GradeRecord> grades = transcripts.get(i);
+        Path file = outputDir.resolve("Grade_Report_All.txt");
+        boolean ok = ReportGenerator.generateStudentGradeReport(file.toString(), students.get(i), grades, 3.0);
+        output.add(grades.size(), file);
+        return ok;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean generateSemesterGradeReport(Output output) {
+        int i = counter.getAndIncrement() % TRANSCRIPT_SAMPLE;
+        List<GradeRecord> semester = new ArrayList<>();
+        for (GradeRecord grade : transcripts.get(i)) {
+            if ("Semester 1".equals(grade.getSemester())) {
+                semester.add(grade);
+            }
+        }
+        Path file = outputDir.resolve("Grade_Report_Semester.txt");
+        boolean ok = ReportGenerator.generateSemesterGradeReport(file.toString(), students.get(i),
+                                                                  semester, "Semester 1", 3.0);
+        output.add(semester.size(), file);
+        return ok;
+    }
+
+    /**
+     * Runs the report benchmarks with the GC profiler and writes JSON results
+     * Usage: java -cp benchmarks.jar ...ReportBenchmark [results.json]
+     */
+    public static void main(String[] args) throws RunnerException {
+        String results = args.length > 0 ? args[0] : "jmh-report-results.json";
+        new Runner(new OptionsBuilder()
+                .include(ReportBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results)
+                .build()).run();
+    }
+}
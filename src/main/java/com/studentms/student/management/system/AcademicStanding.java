@@ -0,0 +1,479 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Term-end academic standing: dean's list, good standing, probation and suspension
+ *
+ * Each term is read in one streaming pass: its enrollments come in student
+ * order from idx_enrollments_student_term, merged with every student's latest
+ * earlier standing from academic_standing, which is in the same order by its
+ * primary key. A student's term GPA is summed on their course's scale as the
+ * rows go by, so no term is held in memory. The standings of a term are
+ * replaced in one transaction, and portal and report reads are then a lookup.
+ *
+ * A term below the probation GPA puts a student on probation; that many
+ * consecutive assessed terms on probation give suspension instead. Standing
+ * depends on the terms before, so a run covers the given term and every later
+ * one, in order. Rules are read from academic-standing.properties in the
+ * working directory:
+ *   deans.gpa=3.5          deans.minCredits=12
+ *   probation.gpa=2.0      suspension.terms=3
+ *
+ * Without a term, a run starts at the earliest term with no stored standings
+ * and ends at the latest term whose enrollments are all graded, so skipped
+ * terms are caught up and a term still being graded is left alone.
+ *
+ * Usage: java ... AcademicStanding [--year=2024 --semester=3 | --all] [--out=file.csv] [--db=path]
+ */
+public class AcademicStanding {
+
+    public static final String CONFIG_FILE = "academic-standing.properties";
+
+    /**
+     * Standing of a student in one term, as stored in academic_standing.standing
+     */
+    public enum Standing {
+        DEANS_LIST("Dean's List"),
+        GOOD("Good Standing"),
+        PROBATION("Probation"),
+        SUSPENSION("Suspension");
+
+        private final String label;
+
+        Standing(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Thresholds of the standings; a term needs deansListCredits graded credits for the dean's list
+     */
+    public record Rules(double deansListGpa, int deansListCredits, double probationGpa, int suspensionTerms) {
+
+        public static Rules defaults() {
+            return new Rules(3.5, 12, 2.0, 3);
+        }
+
+        /**
+         * Reads a rules file; a missing file or value gives the default
+         */
+        static Rules load(Path file) {
+            Properties config = new Properties();
+            if (Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    config.load(reader);
+                } catch (IOException e) {
+                    System.err.println("Error reading " + file + ": " + e.getMessage());
+                }
+            }
+            Rules defaults = defaults();
+            try {
+                return new Rules(
+                    Double.parseDouble(config.getProperty("deans.gpa", String.valueOf(defaults.deansListGpa()))),
+                    Integer.parseInt(config.getProperty("deans.minCredits", String.valueOf(defaults.deansListCredits()))),
+                    Double.parseDouble(config.getProperty("probation.gpa", String.valueOf(defaults.probationGpa()))),
+                    Math.max(1, Integer.parseInt(config.getProperty("suspension.terms",
+                                                                    String.valueOf(defaults.suspensionTerms())))));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid academic standing rules in " + file + ", using the defaults: " + e.getMessage());
+                return defaults;
+            }
+        }
+
+        /**
+         * Standing for a term GPA after probationStreak earlier consecutive terms on probation
+         */
+        Standing classify(double gpa, int gradedCredits, int probationStreak) {
+            // Same tolerance as elsewhere, so a GPA of exactly a threshold meets it
+            if (gpa < probationGpa - 1e-9) {
+                return probationStreak + 1 >= suspensionTerms ? Standing.SUSPENSION : Standing.PROBATION;
+            }
+            if (gpa >= deansListGpa - 1e-9 && gradedCredits >= deansListCredits) {
+                return Standing.DEANS_LIST;
+            }
+            return Standing.GOOD;
+        }
+    }
+
+    /**
+     * Counts of one term's standings
+     */
+    public record TermResult(int termKey, int students, int deansList, int probation, int suspension) {
+    }
+
+    /**
+     * Receives each term's counts once it is written
+     */
+    @FunctionalInterface
+    public interface TermListener {
+        void onTerm(TermResult result);
+    }
+
+    /**
+     * One student on a term's list, read back from academic_standing
+     */
+    public record StandingRow(int studentId, String studentCode, String fullName, String courseCode,
+                              int termKey, Standing standing, double termGpa, int gradedCredits,
+                              int probationStreak) {
+    }
+
+    /**
+     * Enrollments of one term in student order; a deleted subject has a NULL credits and is skipped
+     */
+    private static final String TERM_SQL = """
+        SELECT e.student_id, st.course_id, e.grade, sub.credits
+        FROM enrollments e
+        JOIN students st ON st.student_id = e.student_id
+        LEFT JOIN subjects sub ON sub.subject_id = e.subject_id
+        WHERE e.term_key = ?
+        ORDER BY e.student_id
+    """;
+
+    /**
+     * Probation streak of every student's latest standing before a term, in student order
+     * SQLite takes the bare probation_streak from the row with the MAX term_key
+     */
+    private static final String PREVIOUS_SQL = """
+        SELECT student_id, MAX(term_key), probation_streak
+        FROM academic_standing
+        WHERE term_key < ?
+        GROUP BY student_id
+        ORDER BY student_id
+    """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO academic_standing (student_id, term_key, standing, term_gpa, graded_credits, probation_streak)
+        VALUES (?, ?, ?, ?, ?, ?)
+    """;
+
+    private final Rules rules;
+    private TermListener listener = term -> { };
+
+    /**
+     * Creates a job with the rules of academic-standing.properties
+     */
+    public AcademicStanding() {
+        this(Rules.load(Paths.get(CONFIG_FILE)));
+    }
+
+    public AcademicStanding(Rules rules) {
+        this.rules = rules;
+    }
+
+    public AcademicStanding setListener(TermListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    // ==================== RUN ====================
+
+    /**
+     * Terms with enrollments from fromTermKey to toTermKey, oldest first
+     */
+    public static List<Integer> getTermKeys(int fromTermKey, int toTermKey) throws SQLException {
+        List<Integer> terms = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT DISTINCT term_key FROM enrollments WHERE term_key BETWEEN ? AND ? ORDER BY term_key")) {
+            pstmt.setInt(1, fromTermKey);
+            pstmt.setInt(2, toTermKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    terms.add(rs.getInt(1));
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Latest term whose enrollments all have a grade, or 0 if there is none
+     */
+    public static int getLatestGradedTermKey() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("""
+                 SELECT term_key FROM enrollments
+                 GROUP BY term_key
+                 HAVING COUNT(grade) = COUNT(*)
+                 ORDER BY term_key DESC
+                 LIMIT 1
+                 """);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Earliest graded term up to toTermKey with no stored standings, or 0 if every one has them
+     */
+    public static int getFirstUnstoredTermKey(int toTermKey) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("""
+                 SELECT MIN(t.term_key)
+                 FROM (SELECT DISTINCT term_key FROM enrollments
+                       WHERE grade IS NOT NULL AND term_key <= ?) t
+                 WHERE NOT EXISTS (SELECT 1 FROM academic_standing a WHERE a.term_key = t.term_key)
+                 """)) {
+            pstmt.setInt(1, toTermKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Computes and stores the standings of a term and of every later term
+     */
+    public List<TermResult> run(int fromTermKey) throws SQLException {
+        return run(fromTermKey, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes and stores the standings of the terms from fromTermKey to toTermKey
+     */
+    public List<TermResult> run(int fromTermKey, int toTermKey) throws SQLException {
+        List<TermResult> results = new ArrayList<>();
+        for (int termKey : getTermKeys(fromTermKey, toTermKey)) {
+            TermResult result = runTerm(termKey);
+            results.add(result);
+            listener.onTerm(result);
+        }
+        return results;
+    }
+
+    /**
+     * One streaming pass over a term, replacing its standings in one transaction
+     */
+    private TermResult runTerm(int termKey) throws SQLException {
+        int students = 0;
+        int deansList = 0;
+        int probation = 0;
+        int suspension = 0;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement termStmt = conn.prepareStatement(TERM_SQL);
+                 PreparedStatement previousStmt = conn.prepareStatement(PREVIOUS_SQL);
+                 PreparedStatement deleteStmt = conn.prepareStatement("DELETE FROM academic_standing WHERE term_key = ?");
+                 PreparedStatement insertStmt = conn.prepareStatement(INSERT_SQL)) {
+
+                // Read both cursors before the delete, which would otherwise change what they see
+                termStmt.setInt(1, termKey);
+                previousStmt.setInt(1, termKey);
+                try (ResultSet rows = termStmt.executeQuery();
+                     ResultSet previous = previousStmt.executeQuery()) {
+
+                    boolean hasPrevious = previous.next();
+                    boolean hasRow = rows.next();
+                    while (hasRow) {
+                        int studentId = rows.getInt(1);
+                        GradeScale.Accumulator gpa = new GradeScale.Accumulator(GradingSchemes.forCourse(rows.getInt(2)));
+                        do {
+                            int credits = rows.getInt(4);
+                            if (!rows.wasNull()) {
+                                gpa.add(rows.getString(3), credits);
+                            }
+                            hasRow = rows.next();
+                        } while (hasRow && rows.getInt(1) == studentId);
+
+                        // Students not assessed in this term keep no standing for it
+                        if (!gpa.hasGrades()) {
+                            continue;
+                        }
+                        while (hasPrevious && previous.getInt(1) < studentId) {
+                            hasPrevious = previous.next();
+                        }
+                        int streak = hasPrevious && previous.getInt(1) == studentId ? previous.getInt(3) : 0;
+
+                        Standing standing = rules.classify(gpa.gpa(), gpa.getGradedCredits(), streak);
+                        boolean onProbation = standing == Standing.PROBATION || standing == Standing.SUSPENSION;
+                        insertStmt.setInt(1, studentId);
+                        insertStmt.setInt(2, termKey);
+                        insertStmt.setString(3, standing.name());
+                        insertStmt.setDouble(4, gpa.gpa());
+                        insertStmt.setInt(5, gpa.getGradedCredits());
+                        insertStmt.setInt(6, onProbation ? streak + 1 : 0);
+                        insertStmt.addBatch();
+
+                        students++;
+                        switch (standing) {
+                            case DEANS_LIST -> deansList++;
+                            case PROBATION -> probation++;
+                            case SUSPENSION -> suspension++;
+                            default -> { }
+                        }
+                    }
+                }
+
+                deleteStmt.setInt(1, termKey);
+                deleteStmt.executeUpdate();
+                insertStmt.executeBatch();
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return new TermResult(termKey, students, deansList, probation, suspension);
+    }
+
+    // ==================== LISTS ====================
+
+    /**
+     * Students of a term with the given standings, by course and student code
+     */
+    public static List<StandingRow> getStandings(int termKey, Standing... standings) throws SQLException {
+        String sql = """
+            SELECT a.student_id, st.student_code, st.full_name, c.course_code, a.term_key,
+                   a.standing, a.term_gpa, a.graded_credits, a.probation_streak
+            FROM academic_standing a
+            JOIN students st ON st.student_id = a.student_id
+            LEFT JOIN courses c ON c.course_id = st.course_id
+            WHERE a.term_key = ? AND a.standing IN (%s)
+            ORDER BY a.standing, c.course_code, st.student_code
+        """.formatted(String.join(", ", Collections.nCopies(standings.length, "?")));
+
+        List<StandingRow> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, termKey);
+            for (int i = 0; i < standings.length; i++) {
+                pstmt.setString(i + 2, standings[i].name());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new StandingRow(
+                        rs.getInt("student_id"),
+                        rs.getString("student_code"),
+                        rs.getString("full_name"),
+                        rs.getString("course_code"),
+                        rs.getInt("term_key"),
+                        Standing.valueOf(rs.getString("standing")),
+                        rs.getDouble("term_gpa"),
+                        rs.getInt("graded_credits"),
+                        rs.getInt("probation_streak")
+                    ));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the dean's list, probation and suspension lists of a term as CSV; returns false on failure
+     */
+    public static boolean exportLists(String filename, int termKey) {
+        List<StandingRow> rows;
+        try {
+            rows = getStandings(termKey, Standing.DEANS_LIST, Standing.PROBATION, Standing.SUSPENSION);
+        } catch (SQLException e) {
+            System.err.println("Error loading academic standings: " + e.getMessage());
+            return false;
+        }
+
+        try (ReportWriter writer = ReportWriter.open(filename)) {
+
+            writer.line("Term,Standing,Course,Student Code,Full Name,Term GPA,Graded Credits,Terms on Probation");
+            String termLabel = AcademicTerm.fromKey(termKey).label();
+            for (StandingRow row : rows) {
+                writer.csvQuoted(termLabel).append(',')
+                      .csvQuoted(row.standing().toString()).append(',')
+                      .csvQuoted(row.courseCode()).append(',')
+                      .csvQuoted(row.studentCode()).append(',')
+                      .csvQuoted(row.fullName()).append(',')
+                      .appendFixed(row.termGpa(), 2).append(',')
+                      .append(row.gradedCredits()).append(',')
+                      .append(row.probationStreak())
+                      .newLine();
+            }
+
+            writer.commit();
+            return true;
+
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing academic standing report: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    /**
+     * Computes the standings of one term and later terms, or of every term with --all; by default
+     * brings the stored standings up to the latest fully graded term
+     */
+    public static void main(String[] args) throws SQLException {
+        int year = 0;
+        int semester = 0;
+        boolean all = false;
+        String out = null;
+        for (String arg : args) {
+            if (arg.startsWith("--year=")) {
+                year = Integer.parseInt(arg.substring("--year=".length()));
+            } else if (arg.startsWith("--semester=")) {
+                semester = Integer.parseInt(arg.substring("--semester=".length()));
+            } else if (arg.equals("--all")) {
+                all = true;
+            } else if (arg.startsWith("--out=")) {
+                out = arg.substring("--out=".length());
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            }
+        }
+        DatabaseManager.initializeDatabase();
+
+        int from = all ? 0 : year > 0 ? new AcademicTerm(year, semester).key() : -1;
+        int to = Integer.MAX_VALUE;
+        if (from < 0) {
+            to = getLatestGradedTermKey();
+            int unstored = getFirstUnstoredTermKey(to);
+            from = unstored > 0 ? unstored : to;
+        }
+        long start = System.nanoTime();
+        AcademicStanding job = new AcademicStanding().setListener(result -> System.out.printf(
+                "%-18s %,7d students  %,6d dean's list  %,6d probation  %,6d suspension%n",
+                AcademicTerm.fromKey(result.termKey()).label(), result.students(), result.deansList(),
+                result.probation(), result.suspension()));
+        List<TermResult> results = to > 0 ? job.run(from, to) : List.of();
+        System.out.printf("%d term(s) in %d ms%n", results.size(), (System.nanoTime() - start) / 1_000_000);
+
+        if (out != null && !results.isEmpty()) {
+            int term = results.get(results.size() - 1).termKey();
+            if (!exportLists(out, term)) {
+                System.exit(1);
+            }
+            System.out.println("Lists of " + AcademicTerm.fromKey(term).label() + " written to " + out);
+        }
+    }
+}
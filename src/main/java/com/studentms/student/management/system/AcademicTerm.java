@@ -0,0 +1,93 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * An academic term: the enrollment year and the semester ordinal within it
+ *
+ * Terms are compared through a compact int key, year * 100 + ordinal, so
+ * "Semester 2 2024" sorts before "Semester 10 2024" and grouping needs no
+ * string handling. The same key is stored in enrollments.term_key, computed
+ * by SQLite from enrollment_year and semester with the same rule as key()
+ */
+public record AcademicTerm(int year, int ordinal) implements Comparable<AcademicTerm> {
+
+    private static final String SEMESTER_PREFIX = "Semester";
+
+    /**
+     * SQL expression for the term key of an enrollments row, matching key()
+     */
+    static final String TERM_KEY_SQL =
+        "enrollment_year * 100 + CAST(trim(replace(semester, 'Semester', '')) AS INTEGER)";
+
+    public static AcademicTerm of(int year, String semester) {
+        return new AcademicTerm(year, ordinal(semester));
+    }
+
+    public static AcademicTerm fromKey(int key) {
+        return new AcademicTerm(yearOf(key), ordinalOf(key));
+    }
+
+    /**
+     * Term key of a year and semester label such as "Semester 3"
+     */
+    public static int key(int year, String semester) {
+        return year * 100 + ordinal(semester);
+    }
+
+    public static int yearOf(int key) {
+        return key / 100;
+    }
+
+    public static int ordinalOf(int key) {
+        return key % 100;
+    }
+
+    /**
+     * Semester number from a label such as "Semester 3", or 0 if it has none
+     * Reads the digits in place, so no strings are created
+     */
+    public static int ordinal(String semester) {
+        if (semester == null) {
+            return 0;
+        }
+        int i = semester.startsWith(SEMESTER_PREFIX) ? SEMESTER_PREFIX.length() : 0;
+        while (i < semester.length() && semester.charAt(i) == ' ') {
+            i++;
+        }
+        int value = 0;
+        for (; i < semester.length(); i++) {
+            char c = semester.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public int key() {
+        return year * 100 + ordinal;
+    }
+
+    /**
+     * Label used in reports and the portal, e.g. "Semester 3 2024"
+     */
+    public String label() {
+        return semesterLabel() + " " + year;
+    }
+
+    /**
+     * The semester as stored in enrollments.semester, e.g. "Semester 3"
+     */
+    public String semesterLabel() {
+        return SEMESTER_PREFIX + " " + ordinal;
+    }
+
+    @Override
+    public int compareTo(AcademicTerm other) {
+        return Integer.compare(key(), other.key());
+    }
+}
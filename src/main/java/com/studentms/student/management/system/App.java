@@ -1,6 +1,7 @@
 package com.studentms.student.management.system;
 
 import javafx.application.Application;
+import javafx.application.HostServices;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -12,6 +13,9 @@ import java.io.IOException;
  * This class extends Application, which is the base class for all JavaFX applications
  */
 public class App extends Application {
+    
+    // Lets controllers open report files with the desktop's default application
+    private static HostServices hostServices;
 
     /**
      * The start method is the main entry point for JavaFX applications
@@ -21,6 +25,8 @@ public class App extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        hostServices = getHostServices();
+        
         try {
             // Initialize the database before loading the UI
             // This creates tables if they don't exist
@@ -70,8 +76,18 @@ public class App extends Application {
     @Override
     public void stop() {
         System.out.println("Application is closing...");
-        // Add any cleanup code here if needed
-        // For example, closing database connections, saving user preferences, etc.
+        // Cancel report jobs still running; their unfinished files are discarded
+        ReportJobScheduler.shutdown();
+        ReportCache.clear();
+    }
+    
+    /**
+     * Opens a file with the application the desktop associates with it
+     */
+    public static void openDocument(String path) {
+        if (hostServices != null) {
+            hostServices.showDocument(java.nio.file.Paths.get(path).toUri().toString());
+        }
     }
     
     /**
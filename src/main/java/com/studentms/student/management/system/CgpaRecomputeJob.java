@@ -0,0 +1,470 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes term GPAs and CGPAs of many students at once, after the grade
+ * scale or a subject's credits changed
+ *
+ * Students are read in chunks of consecutive IDs, each with one query that
+ * streams their enrollments ordered by student and term. The chunk is split
+ * across a fork-join pool by student, every student is summed with
+ * GradeScale.Accumulator on the grading scheme of their course, and the results
+ * are written to student_term_gpa and student_gpa_summary in one transaction per chunk.
+ *
+ * The same transaction records the last student written in job_checkpoints, so
+ * a run that failed or was cancelled can be resumed after that student. The
+ * checkpoint is removed once a run completes.
+ *
+ * Given subject IDs, only students enrolled in one of those subjects are
+ * recomputed; given a course, only its students; without either, every student is
+ *
+ * Usage: java ... CgpaRecomputeJob [--subjects=1,2,3 | --course=ID] [--resume] [--parallelism=N] [--db=path]
+ */
+public class CgpaRecomputeJob {
+
+    public static final String JOB_NAME = "cgpa-recompute";
+
+    // Students per chunk, i.e. per read query and per write transaction
+    private static final int CHUNK_SIZE = 2000;
+    // Students below which a fork-join task stops splitting
+    private static final int LEAF_SIZE = 64;
+
+    // Students of the chunk with their enrollments, in student and term order;
+    // students without enrollments come with one row of NULLs. Both joins are
+    // LEFT so SQLite walks idx_enrollments_student_term per student, rows of a
+    // deleted subject have a NULL subject_id and are skipped like the inner join elsewhere
+    private static final String CHUNK_SQL = """
+        SELECT st.student_id, st.course_id, e.term_key, e.grade, s.credits, s.subject_id
+        FROM (SELECT student_id, course_id FROM students
+              WHERE student_id > ? %s
+              ORDER BY student_id LIMIT ?) st
+        LEFT JOIN enrollments e ON e.student_id = st.student_id
+        LEFT JOIN subjects s ON s.subject_id = e.subject_id
+        ORDER BY st.student_id, e.term_key
+    """;
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM students WHERE student_id > ? %s";
+
+    private static final String SUBJECT_FILTER =
+        "AND student_id IN (SELECT student_id FROM enrollments WHERE subject_id IN (%s))";
+
+    private static final String COURSE_FILTER = "AND course_id = ?";
+
+    /**
+     * Snapshot of how far the job is
+     */
+    public record Progress(int total, int done) {
+
+        public double fraction() {
+            return total > 0 ? (double) done / total : 1.0;
+        }
+    }
+
+    /**
+     * Receives progress updates after every chunk
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    /**
+     * Outcome of a run; resumedAfter is the student ID a resumed run started after, or 0
+     */
+    public record Result(int students, int terms, int resumedAfter, boolean cancelled, long elapsedMillis) {
+    }
+
+    // Condition on the students query and the IDs bound into it
+    private final String filter;
+    private final int[] filterIds;
+    private final String scope;
+    private boolean resume;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private ProgressListener listener = progress -> { };
+
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a job for the students enrolled in the given subjects, or for every student if subjectIds is null
+     */
+    public CgpaRecomputeJob(int[] subjectIds) {
+        this(subjectIds == null ? "" : SUBJECT_FILTER.formatted(
+                 String.join(", ", Collections.nCopies(subjectIds.length, "?"))),
+             subjectIds == null ? new int[0] : subjectIds.clone(),
+             subjectIds == null ? "all"
+                 : "subjects:" + Arrays.stream(subjectIds).sorted()
+                                       .mapToObj(Integer::toString).collect(Collectors.joining(",")));
+    }
+
+    private CgpaRecomputeJob(String filter, int[] filterIds, String scope) {
+        this.filter = filter;
+        this.filterIds = filterIds;
+        this.scope = scope;
+    }
+
+    /**
+     * Creates a job for the students of one course, e.g. after its grading scheme changed
+     */
+    public static CgpaRecomputeJob forCourse(int courseId) {
+        return new CgpaRecomputeJob(COURSE_FILTER, new int[] {courseId}, "course:" + courseId);
+    }
+
+    /**
+     * Continues after the checkpoint of an unfinished run with the same subjects
+     */
+    public CgpaRecomputeJob setResume(boolean resume) {
+        this.resume = resume;
+        return this;
+    }
+
+    public CgpaRecomputeJob setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public CgpaRecomputeJob setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Asks a running job to stop after the chunk being written
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // ==================== RUN ====================
+
+    /**
+     * Runs the job on the calling thread until every student is written or it is cancelled
+     * Throws SQLException if a chunk cannot be read or written; rerun with resume to continue
+     */
+    public Result run() throws SQLException {
+        long start = System.nanoTime();
+        int resumedAfter = resume ? readCheckpoint() : 0;
+        int after = resumedAfter;
+        int total = countStudents(after);
+        int done = 0;
+        int terms = 0;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            while (!cancelled) {
+                Chunk chunk = readChunk(conn, after);
+                if (chunk.students == 0) {
+                    clearCheckpoint(conn);
+                    break;
+                }
+
+                StudentGpa[] results = new StudentGpa[chunk.students];
+                pool.invoke(new Compute(chunk, results, 0, chunk.students));
+                terms += write(conn, results);
+
+                after = chunk.studentIds[chunk.students - 1];
+                done += chunk.students;
+                listener.onProgress(new Progress(total, done));
+            }
+        }
+        return new Result(done, terms, resumedAfter, cancelled, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Enrollments of one chunk of students in columns; the rows of student i
+     * are firstRow[i] up to firstRow[i + 1]
+     */
+    private static final class Chunk {
+        int[] studentIds = new int[CHUNK_SIZE];
+        int[] courseIds = new int[CHUNK_SIZE];
+        int[] firstRow = new int[CHUNK_SIZE + 1];
+        int students;
+
+        int[] termKeys = new int[CHUNK_SIZE * 8];
+        String[] grades = new String[CHUNK_SIZE * 8];
+        int[] credits = new int[CHUNK_SIZE * 8];
+        int rows;
+
+        void addRow(int termKey, String grade, int credit) {
+            if (rows == termKeys.length) {
+                termKeys = Arrays.copyOf(termKeys, rows * 2);
+                grades = Arrays.copyOf(grades, rows * 2);
+                credits = Arrays.copyOf(credits, rows * 2);
+            }
+            termKeys[rows] = termKey;
+            grades[rows] = grade;
+            credits[rows] = credit;
+            rows++;
+        }
+    }
+
+    private Chunk readChunk(Connection conn, int after) throws SQLException {
+        Chunk chunk = new Chunk();
+        try (PreparedStatement pstmt = conn.prepareStatement(CHUNK_SQL.formatted(filter))) {
+            int index = bindScope(pstmt, after);
+            pstmt.setInt(index, CHUNK_SIZE);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int current = 0;
+                while (rs.next()) {
+                    int studentId = rs.getInt(1);
+                    if (chunk.students == 0 || studentId != current) {
+                        chunk.firstRow[chunk.students] = chunk.rows;
+                        chunk.courseIds[chunk.students] = rs.getInt(2);
+                        chunk.studentIds[chunk.students++] = studentId;
+                        current = studentId;
+                    }
+                    rs.getInt(6);
+                    if (!rs.wasNull()) {
+                        chunk.addRow(rs.getInt(3), rs.getString(4), rs.getInt(5));
+                    }
+                }
+            }
+        }
+        chunk.firstRow[chunk.students] = chunk.rows;
+        return chunk;
+    }
+
+    private record TermGpa(int termKey, GradeScale.Accumulator gpa) {
+    }
+
+    private record StudentGpa(int studentId, GradeScale.Accumulator total, List<TermGpa> terms) {
+    }
+
+    /**
+     * Sums a range of the chunk's students, splitting it while it is larger than LEAF_SIZE
+     */
+    private static final class Compute extends RecursiveAction {
+
+        // Tasks only live inside one run and are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final transient Chunk chunk;
+        private final transient StudentGpa[] results;
+        private final int from;
+        private final int to;
+
+        Compute(Chunk chunk, StudentGpa[] results, int from, int to) {
+            this.chunk = chunk;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Compute(chunk, results, from, middle),
+                          new Compute(chunk, results, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                results[i] = computeStudent(i);
+            }
+        }
+
+        private StudentGpa computeStudent(int student) {
+            // Compiled once per scheme, so this is a map read
+            GradeScale scale = GradingSchemes.forCourse(chunk.courseIds[student]);
+            GradeScale.Accumulator total = new GradeScale.Accumulator(scale);
+            List<TermGpa> terms = new ArrayList<>();
+            GradeScale.Accumulator term = null;
+            int termKey = 0;
+
+            // Rows are in term order, so each term is one run of equal keys
+            for (int row = chunk.firstRow[student]; row < chunk.firstRow[student + 1]; row++) {
+                if (term == null || chunk.termKeys[row] != termKey) {
+                    termKey = chunk.termKeys[row];
+                    term = new GradeScale.Accumulator(scale);
+                    terms.add(new TermGpa(termKey, term));
+                }
+                int ordinal = scale.ordinal(chunk.grades[row]);
+                term.add(ordinal, chunk.credits[row]);
+                total.add(ordinal, chunk.credits[row]);
+            }
+            return new StudentGpa(chunk.studentIds[student], total, terms);
+        }
+    }
+
+    /**
+     * Replaces the term GPAs and summaries of a chunk's students and moves the
+     * checkpoint past them, all in one transaction; returns the term rows written
+     */
+    private int write(Connection conn, StudentGpa[] results) throws SQLException {
+        String insertTerm = """
+            INSERT INTO student_term_gpa (student_id, term_key, quality_points, graded_credits,
+                                          total_credits, subjects, gpa)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        int terms = 0;
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement deleteTerms = conn.prepareStatement("DELETE FROM student_term_gpa WHERE student_id = ?");
+             PreparedStatement termStmt = conn.prepareStatement(insertTerm);
+             PreparedStatement summaryStmt = conn.prepareStatement(DatabaseManager.UPSERT_GPA_SUMMARY_SQL)) {
+
+            for (StudentGpa result : results) {
+                deleteTerms.setInt(1, result.studentId());
+                deleteTerms.addBatch();
+
+                for (TermGpa term : result.terms()) {
+                    termStmt.setInt(1, result.studentId());
+                    termStmt.setInt(2, term.termKey());
+                    DatabaseManager.bindGpaTotals(termStmt, 3, term.gpa());
+                    termStmt.addBatch();
+                    terms++;
+                }
+
+                summaryStmt.setInt(1, result.studentId());
+                DatabaseManager.bindGpaTotals(summaryStmt, 2, result.total());
+                summaryStmt.addBatch();
+            }
+            deleteTerms.executeBatch();
+            termStmt.executeBatch();
+            summaryStmt.executeBatch();
+            saveCheckpoint(conn, results[results.length - 1].studentId());
+            conn.commit();
+            return terms;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ==================== SCOPE AND CHECKPOINT ====================
+
+    /**
+     * Binds the student ID to start after and the subject or course IDs; returns the next parameter index
+     */
+    private int bindScope(PreparedStatement pstmt, int after) throws SQLException {
+        int index = 1;
+        pstmt.setInt(index++, after);
+        for (int id : filterIds) {
+            pstmt.setInt(index++, id);
+        }
+        return index;
+    }
+
+    private int countStudents(int after) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNT_SQL.formatted(filter))) {
+            bindScope(pstmt, after);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Last student written by an unfinished run over the same scope, or 0 to start from the beginning
+     */
+    private int readCheckpoint() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT last_student_id FROM job_checkpoints WHERE job_name = ? AND scope = ?")) {
+            pstmt.setString(1, JOB_NAME);
+            pstmt.setString(2, scope);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void saveCheckpoint(Connection conn, int lastStudentId) throws SQLException {
+        String sql = """
+            INSERT INTO job_checkpoints (job_name, scope, last_student_id, updated_at)
+            VALUES (?, ?, ?, datetime('now', 'localtime'))
+            ON CONFLICT(job_name, scope) DO UPDATE SET
+                last_student_id = excluded.last_student_id,
+                updated_at = excluded.updated_at
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, JOB_NAME);
+            pstmt.setString(2, scope);
+            pstmt.setInt(3, lastStudentId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private void clearCheckpoint(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "DELETE FROM job_checkpoints WHERE job_name = ? AND scope = ?")) {
+            pstmt.setString(1, JOB_NAME);
+            pstmt.setString(2, scope);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Command line entry point, e.g. after editing grade-scale.properties
+     */
+    public static void main(String[] args) throws Exception {
+        int[] subjectIds = null;
+        int courseId = 0;
+        boolean resume = false;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.equals("--resume")) {
+                resume = true;
+            } else if (arg.startsWith("--subjects=")) {
+                subjectIds = Arrays.stream(arg.substring("--subjects=".length()).split(","))
+                                   .map(String::trim).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--course=")) {
+                courseId = Integer.parseInt(arg.substring("--course=".length()));
+            } else if (arg.startsWith("--parallelism=")) {
+                parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            }
+        }
+        DatabaseManager.initializeDatabase();
+
+        CgpaRecomputeJob job = (courseId > 0 ? forCourse(courseId) : new CgpaRecomputeJob(subjectIds)).setResume(resume);
+        job.setProgressListener(progress -> System.out.printf("  %3d%%  %,d / %,d%n",
+                (int) (progress.fraction() * 100), progress.done(), progress.total()));
+
+        // Ctrl+C stops after the chunk in flight, which leaves a checkpoint to resume from
+        Thread main = Thread.currentThread();
+        Thread hook = new Thread(() -> {
+            job.cancel();
+            try {
+                main.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(hook);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Result result;
+        try {
+            result = job.setPool(pool).run();
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("Recomputed %,d students (%,d term GPAs) in %.1f s%n",
+                result.students(), result.terms(), result.elapsedMillis() / 1000.0);
+        if (result.cancelled()) {
+            System.out.println("Cancelled, run again with --resume to finish");
+        } else {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar binary snapshot of courses, subjects, students and enrollments
+ *
+ * Each column is stored as one contiguous block, so a reader only touches the
+ * columns it needs. Integer columns are delta or run-length encoded, string
+ * columns are dictionary encoded with the codes stored plainly or run-length
+ * encoded; for every column the smaller of the two encodings is kept.
+ * Enrollments are sorted by term and subject so their low-cardinality columns
+ * form long runs. Read the file with ColumnarSnapshotReader.
+ *
+ * Layout (all integers are unsigned LEB128 varints unless noted):
+ *   "SMSC" version:u8
+ *   column blocks
+ *   footer: tableCount, then per table: name, rowCount, columnCount and per
+ *           column: name, type:u8, encoding:u8, offset, length
+ *   footerLength:int32 little-endian "SMSC"
+ * Strings are a varint byte length followed by UTF-8 bytes.
+ * INT blocks: DELTA = zigzag differences to the previous value, RLE = pairs of
+ * (run length, zigzag value). STRING blocks start with the dictionary (count,
+ * strings); code 0 is null and code i is dictionary entry i - 1. DICT then holds
+ * one code per row, DICT_RLE pairs of (run length, code). SQL NULL in INT
+ * columns is stored as 0, as in the row records
+ *
+ * Usage: java ... ColumnarSnapshot [output file]
+ */
+public class ColumnarSnapshot {
+
+    static final byte[] MAGIC = {'S', 'M', 'S', 'C'};
+    static final int VERSION = 1;
+
+    static final int TYPE_INT = 1;
+    static final int TYPE_STRING = 2;
+
+    static final int ENCODING_DELTA = 1;
+    static final int ENCODING_RLE = 2;
+    static final int ENCODING_DICT = 3;
+    static final int ENCODING_DICT_RLE = 4;
+
+    /**
+     * A table to export: its query and the type of each selected column, in order
+     */
+    private record TableSpec(String name, String sql, int... types) {
+    }
+
+    private static final int I = TYPE_INT;
+    private static final int S = TYPE_STRING;
+
+    private static final TableSpec[] TABLES = {
+        new TableSpec("courses", """
+            SELECT course_id, course_code, course_name, credits, description
+            FROM courses ORDER BY course_id
+        """, I, S, S, I, S),
+        new TableSpec("subjects", """
+            SELECT subject_id, subject_code, subject_name, subject_section, credits, description, course_id
+            FROM subjects ORDER BY subject_id
+        """, I, S, S, S, I, S, I),
+        new TableSpec("students", """
+            SELECT student_id, student_code, full_name, email, phone, date_of_birth, gender, address,
+                   enrollment_date, status, course_id
+            FROM students ORDER BY student_id
+        """, I, S, S, S, S, S, S, S, S, S, I),
+        new TableSpec("enrollments", """
+            SELECT enrollment_id, student_id, subject_id, semester, enrollment_year, grade
+            FROM enrollments ORDER BY enrollment_year, semester, subject_id, student_id
+        """, I, I, I, S, I, S)
+    };
+
+    /**
+     * Size of one exported column, for reporting
+     */
+    public record ColumnStats(String table, String column, int encoding, long bytes) {
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Writes a snapshot of all four tables to filename
+     * The tables are read in one transaction, so every enrollment's student and subject are in it
+     * Returns the per-column sizes, or null if the export failed
+     */
+    public static List<ColumnStats> export(String filename) {
+        // ReportWriter would gzip the file, but the footer holds offsets into the
+        // uncompressed bytes and readers seek to them, so the result could not be read
+        if (filename.endsWith(".gz")) {
+            System.err.println("Snapshots cannot be gzip-compressed: " + filename);
+            return null;
+        }
+        List<ColumnStats> stats = new ArrayList<>();
+        ColumnBuffer footer = new ColumnBuffer();
+        footer.writeVarint(TABLES.length);
+
+        try (ReportWriter writer = ReportWriter.open(filename);
+             Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            writer.appendBytes(MAGIC, 0, MAGIC.length);
+            writer.appendBytes(new byte[] {VERSION}, 0, 1);
+            conn.setAutoCommit(false);
+
+            for (TableSpec table : TABLES) {
+                ColumnEncoder[] encoders = new ColumnEncoder[table.types().length];
+                for (int i = 0; i < encoders.length; i++) {
+                    encoders[i] = table.types()[i] == TYPE_INT ? new IntEncoder() : new StringEncoder();
+                }
+
+                String[] names = new String[encoders.length];
+                int rows = 0;
+                try (ResultSet rs = stmt.executeQuery(table.sql())) {
+                    for (int i = 0; i < names.length; i++) {
+                        names[i] = rs.getMetaData().getColumnLabel(i + 1);
+                    }
+                    while (rs.next()) {
+                        for (int i = 0; i < encoders.length; i++) {
+                            encoders[i].add(rs, i + 1);
+                        }
+                        rows++;
+                    }
+                }
+
+                footer.writeString(table.name());
+                footer.writeVarint(rows);
+                footer.writeVarint(encoders.length);
+                for (int i = 0; i < encoders.length; i++) {
+                    long offset = writer.bytesWritten();
+                    int encoding = encoders[i].writeTo(writer);
+                    long length = writer.bytesWritten() - offset;
+
+                    footer.writeString(names[i]);
+                    footer.writeByte(table.types()[i]);
+                    footer.writeByte(encoding);
+                    footer.writeVarint(offset);
+                    footer.writeVarint(length);
+                    stats.add(new ColumnStats(table.name(), names[i], encoding, length));
+                }
+            }
+            // Read-only, ends the transaction
+            conn.commit();
+
+            footer.writeTo(writer);
+            int footerLength = footer.size();
+            writer.appendBytes(new byte[] {
+                (byte) footerLength, (byte) (footerLength >> 8), (byte) (footerLength >> 16), (byte) (footerLength >> 24)
+            }, 0, 4);
+            writer.appendBytes(MAGIC, 0, MAGIC.length);
+            writer.commit();
+            return stats;
+
+        } catch (SQLException e) {
+            System.err.println("Error reading data for snapshot: " + e.getMessage());
+            return null;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing snapshot file: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== ENCODERS ====================
+
+    private interface ColumnEncoder {
+
+        void add(ResultSet rs, int column) throws SQLException;
+
+        /**
+         * Writes the column block and returns the encoding used
+         */
+        int writeTo(ReportWriter writer);
+    }
+
+    /**
+     * Encodes integers both ways while reading and keeps the smaller result
+     */
+    private static final class IntEncoder implements ColumnEncoder {
+
+        private final ColumnBuffer delta = new ColumnBuffer();
+        private final RunEncoder runs = new RunEncoder(true);
+        private long previous;
+
+        @Override
+        public void add(ResultSet rs, int column) throws SQLException {
+            long value = rs.getLong(column);
+            delta.writeZigzag(value - previous);
+            previous = value;
+            runs.add(value);
+        }
+
+        @Override
+        public int writeTo(ReportWriter writer) {
+            ColumnBuffer rle = runs.finish();
+            if (rle.size() < delta.size()) {
+                rle.writeTo(writer);
+                return ENCODING_RLE;
+            }
+            delta.writeTo(writer);
+            return ENCODING_DELTA;
+        }
+    }
+
+    /**
+     * Dictionary-encodes strings, storing the codes plainly or as runs
+     */
+    private static final class StringEncoder implements ColumnEncoder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final ColumnBuffer plain = new ColumnBuffer();
+        private final RunEncoder runs = new RunEncoder(false);
+
+        @Override
+        public void add(ResultSet rs, int column) throws SQLException {
+            String value = rs.getString(column);
+            int code = 0;
+            if (value != null) {
+                code = codes.computeIfAbsent(value, v -> {
+                    dictionary.add(v);
+                    return dictionary.size();
+                });
+            }
+            plain.writeVarint(code);
+            runs.add(code);
+        }
+
+        @Override
+        public int writeTo(ReportWriter writer) {
+            ColumnBuffer header = new ColumnBuffer();
+            header.writeVarint(dictionary.size());
+            for (String value : dictionary) {
+                header.writeString(value);
+            }
+            header.writeTo(writer);
+
+            ColumnBuffer rle = runs.finish();
+            if (rle.size() < plain.size()) {
+                rle.writeTo(writer);
+                return ENCODING_DICT_RLE;
+            }
+            plain.writeTo(writer);
+            return ENCODING_DICT;
+        }
+    }
+
+    /**
+     * Collects (run length, value) pairs
+     */
+    private static final class RunEncoder {
+
+        private final ColumnBuffer out = new ColumnBuffer();
+        private final boolean zigzag;
+        private long value;
+        private long length;
+
+        RunEncoder(boolean zigzag) {
+            this.zigzag = zigzag;
+        }
+
+        void add(long next) {
+            if (length > 0 && next == value) {
+                length++;
+                return;
+            }
+            flush();
+            value = next;
+            length = 1;
+        }
+
+        private void flush() {
+            if (length > 0) {
+                out.writeVarint(length);
+                if (zigzag) {
+                    out.writeZigzag(value);
+                } else {
+                    out.writeVarint(value);
+                }
+            }
+        }
+
+        ColumnBuffer finish() {
+            flush();
+            length = 0;
+            return out;
+        }
+    }
+
+    /**
+     * Growable byte array with the varint and string encodings of the format
+     */
+    private static final class ColumnBuffer {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void writeByte(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            if (size + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + utf8.length));
+            }
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ReportWriter writer) {
+            writer.appendBytes(bytes, 0, size);
+        }
+    }
+
+    /**
+     * Command line entry point; prints the size of every column
+     */
+    public static void main(String[] args) {
+        String filename = "studentdb.smsc";
+        for (String arg : args) {
+            if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                filename = arg;
+            }
+        }
+
+        long start = System.nanoTime();
+        List<ColumnStats> stats = export(filename);
+        if (stats == null) {
+            System.exit(1);
+        }
+        long total = 0;
+        for (ColumnStats column : stats) {
+            System.out.printf("  %-12s %-16s %-9s %,12d bytes%n", column.table(), column.column(),
+                    encodingName(column.encoding()), column.bytes());
+            total += column.bytes();
+        }
+        System.out.printf("Snapshot: %,d bytes of column data in %d ms -> %s%n",
+                total, (System.nanoTime() - start) / 1_000_000, filename);
+    }
+
+    static String encodingName(int encoding) {
+        return switch (encoding) {
+            case ENCODING_DELTA -> "DELTA";
+            case ENCODING_RLE -> "RLE";
+            case ENCODING_DICT -> "DICT";
+            case ENCODING_DICT_RLE -> "DICT_RLE";
+            default -> "UNKNOWN";
+        };
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads files written by ColumnarSnapshot
+ *
+ * Opening a snapshot only reads its footer; each column is then read on demand
+ * from its own byte range, so a scan over a few columns reads only those
+ */
+public class ColumnarSnapshotReader implements Closeable {
+
+    private record ColumnInfo(String name, int type, int encoding, long offset, long length) {
+    }
+
+    private record TableInfo(String name, int rowCount, Map<String, ColumnInfo> columns) {
+    }
+
+    /**
+     * A decoded string column: row i holds dictionary[codes[i]], entry 0 being null
+     * Scans that group or filter can work on the codes without touching the strings
+     */
+    public record StringColumn(String[] dictionary, int[] codes) {
+
+        public String get(int row) {
+            return dictionary[codes[row]];
+        }
+
+        public int size() {
+            return codes.length;
+        }
+
+        /**
+         * Code of value in this column, or -1 if it never occurs
+         */
+        public int codeOf(String value) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (value == null ? dictionary[i] == null : value.equals(dictionary[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final FileChannel channel;
+    private final Map<String, TableInfo> tables = new LinkedHashMap<>();
+    private long bytesRead;
+
+    private ColumnarSnapshotReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        readFooter();
+    }
+
+    public static ColumnarSnapshotReader open(String filename) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        try {
+            return new ColumnarSnapshotReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readFooter() throws IOException {
+        long size = channel.size();
+        int headerLength = ColumnarSnapshot.MAGIC.length + 1;
+        int trailerLength = 4 + ColumnarSnapshot.MAGIC.length;
+        if (size < headerLength + trailerLength) {
+            throw new IOException("Not a snapshot file: too short");
+        }
+
+        ByteBuffer header = read(0, headerLength);
+        checkMagic(header);
+        int version = header.get() & 0xFF;
+        if (version != ColumnarSnapshot.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        ByteBuffer trailer = read(size - trailerLength, trailerLength).order(ByteOrder.LITTLE_ENDIAN);
+        int footerLength = trailer.getInt();
+        checkMagic(trailer);
+
+        ByteBuffer footer = read(size - trailerLength - footerLength, footerLength);
+        int tableCount = (int) readVarint(footer);
+        for (int t = 0; t < tableCount; t++) {
+            String name = readString(footer);
+            int rowCount = (int) readVarint(footer);
+            int columnCount = (int) readVarint(footer);
+            Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                String column = readString(footer);
+                int type = footer.get();
+                int encoding = footer.get();
+                columns.put(column, new ColumnInfo(column, type, encoding, readVarint(footer), readVarint(footer)));
+            }
+            tables.put(name, new TableInfo(name, rowCount, columns));
+        }
+    }
+
+    private static void checkMagic(ByteBuffer buffer) throws IOException {
+        byte[] magic = new byte[ColumnarSnapshot.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, ColumnarSnapshot.MAGIC)) {
+            throw new IOException("Not a snapshot file: bad magic");
+        }
+    }
+
+    // ==================== METADATA ====================
+
+    public List<String> getTableNames() {
+        return List.copyOf(tables.keySet());
+    }
+
+    public int getRowCount(String table) {
+        return table(table).rowCount();
+    }
+
+    public List<String> getColumnNames(String table) {
+        return List.copyOf(table(table).columns().keySet());
+    }
+
+    /**
+     * Bytes read from the file so far, footer included
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private TableInfo table(String name) {
+        TableInfo table = tables.get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("No table " + name + " in snapshot");
+        }
+        return table;
+    }
+
+    private ColumnInfo column(String table, String column, int type) {
+        ColumnInfo info = table(table).columns().get(column);
+        if (info == null) {
+            throw new IllegalArgumentException("No column " + column + " in table " + table);
+        }
+        if (info.type() != type) {
+            throw new IllegalArgumentException("Column " + table + "." + column + " is not of the requested type");
+        }
+        return info;
+    }
+
+    // ==================== COLUMNS ====================
+
+    public int[] readIntColumn(String table, String column) throws IOException {
+        ColumnInfo info = column(table, column, ColumnarSnapshot.TYPE_INT);
+        ByteBuffer data = read(info.offset(), info.length());
+        int[] values = new int[table(table).rowCount()];
+
+        if (info.encoding() == ColumnarSnapshot.ENCODING_DELTA) {
+            long previous = 0;
+            for (int i = 0; i < values.length; i++) {
+                previous += readZigzag(data);
+                values[i] = (int) previous;
+            }
+        } else if (info.encoding() == ColumnarSnapshot.ENCODING_RLE) {
+            int row = 0;
+            while (row < values.length) {
+                int length = (int) readVarint(data);
+                int value = (int) readZigzag(data);
+                Arrays.fill(values, row, row + length, value);
+                row += length;
+            }
+        } else {
+            throw new IOException("Unknown encoding " + info.encoding() + " for " + table + "." + column);
+        }
+        return values;
+    }
+
+    public StringColumn readStringColumn(String table, String column) throws IOException {
+        ColumnInfo info = column(table, column, ColumnarSnapshot.TYPE_STRING);
+        ByteBuffer data = read(info.offset(), info.length());
+
+        String[] dictionary = new String[(int) readVarint(data) + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = readString(data);
+        }
+
+        int[] codes = new int[table(table).rowCount()];
+        if (info.encoding() == ColumnarSnapshot.ENCODING_DICT) {
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = (int) readVarint(data);
+            }
+        } else if (info.encoding() == ColumnarSnapshot.ENCODING_DICT_RLE) {
+            int row = 0;
+            while (row < codes.length) {
+                int length = (int) readVarint(data);
+                int code = (int) readVarint(data);
+                Arrays.fill(codes, row, row + length, code);
+                row += length;
+            }
+        } else {
+            throw new IOException("Unknown encoding " + info.encoding() + " for " + table + "." + column);
+        }
+        return new StringColumn(dictionary, codes);
+    }
+
+    // ==================== DECODING ====================
+
+    private ByteBuffer read(long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE || offset < 0 || offset + length > channel.size()) {
+            throw new IOException("Corrupt snapshot: block outside the file");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of snapshot file");
+            }
+        }
+        bytesRead += length;
+        return buffer.flip();
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long readZigzag(ByteBuffer buffer) {
+        long value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readVarint(buffer);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                                  StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -7,108 +7,159 @@ package com.studentms.student.management.system;
 import javafx.beans.property.*;
 
 /**
- * Course model class using JavaFX Property objects
- * Represents a course that students can enroll in
+ * Course view model, represents a course that students can enroll in
+ * JavaFX properties are created lazily, see Student
  */
 public class Course {
-    
-    private final IntegerProperty courseId;
-    private final StringProperty courseCode;
-    private final StringProperty courseName;
-    private final IntegerProperty credits;
-    private final StringProperty description;
-    
+
+    private int courseIdValue;
+    private String courseCodeValue;
+    private String courseNameValue;
+    private int creditsValue;
+    private String descriptionValue;
+
+    private IntegerProperty courseId;
+    private StringProperty courseCode;
+    private StringProperty courseName;
+    private IntegerProperty credits;
+    private StringProperty description;
+
+    /**
+     * Wraps a row loaded from the database
+     */
+    public Course(CourseRow row) {
+        this.courseIdValue = row.courseId();
+        this.courseCodeValue = row.courseCode();
+        this.courseNameValue = row.courseName();
+        this.creditsValue = row.credits();
+        this.descriptionValue = row.description();
+    }
+
     /**
      * Constructor for creating a complete Course object
      */
-    public Course(int courseId, String courseCode, String courseName, 
+    public Course(int courseId, String courseCode, String courseName,
                   int credits, String description) {
-        this.courseId = new SimpleIntegerProperty(courseId);
-        this.courseCode = new SimpleStringProperty(courseCode);
-        this.courseName = new SimpleStringProperty(courseName);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.description = new SimpleStringProperty(description);
+        this(new CourseRow(courseId, courseCode, courseName, credits, description));
     }
-    
+
     /**
      * Constructor for creating a new course (without ID)
      */
     public Course(String courseCode, String courseName, int credits, String description) {
-        this.courseId = new SimpleIntegerProperty(0);
-        this.courseCode = new SimpleStringProperty(courseCode);
-        this.courseName = new SimpleStringProperty(courseName);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.description = new SimpleStringProperty(description);
+        this(0, courseCode, courseName, credits, description);
     }
-    
+
+    /**
+     * Returns an immutable snapshot of the current values
+     */
+    public CourseRow toRow() {
+        return new CourseRow(getCourseId(), getCourseCode(), getCourseName(), getCredits(), getDescription());
+    }
+
     // ==================== PROPERTY GETTERS ====================
-    
+
     public IntegerProperty courseIdProperty() {
+        if (courseId == null) {
+            courseId = new SimpleIntegerProperty(this, "courseId", courseIdValue);
+        }
         return courseId;
     }
-    
+
     public StringProperty courseCodeProperty() {
+        if (courseCode == null) {
+            courseCode = new SimpleStringProperty(this, "courseCode", courseCodeValue);
+        }
         return courseCode;
     }
-    
+
     public StringProperty courseNameProperty() {
+        if (courseName == null) {
+            courseName = new SimpleStringProperty(this, "courseName", courseNameValue);
+        }
         return courseName;
     }
-    
+
     public IntegerProperty creditsProperty() {
+        if (credits == null) {
+            credits = new SimpleIntegerProperty(this, "credits", creditsValue);
+        }
         return credits;
     }
-    
+
     public StringProperty descriptionProperty() {
+        if (description == null) {
+            description = new SimpleStringProperty(this, "description", descriptionValue);
+        }
         return description;
     }
-    
+
     // ==================== VALUE GETTERS ====================
-    
+
     public int getCourseId() {
-        return courseId.get();
+        return courseId != null ? courseId.get() : courseIdValue;
     }
-    
+
     public String getCourseCode() {
-        return courseCode.get();
+        return courseCode != null ? courseCode.get() : courseCodeValue;
     }
-    
+
     public String getCourseName() {
-        return courseName.get();
+        return courseName != null ? courseName.get() : courseNameValue;
     }
-    
+
     public int getCredits() {
-        return credits.get();
+        return credits != null ? credits.get() : creditsValue;
     }
-    
+
     public String getDescription() {
-        return description.get();
+        return description != null ? description.get() : descriptionValue;
     }
-    
+
     // ==================== VALUE SETTERS ====================
-    
+
     public void setCourseId(int courseId) {
-        this.courseId.set(courseId);
+        if (this.courseId != null) {
+            this.courseId.set(courseId);
+        } else {
+            this.courseIdValue = courseId;
+        }
     }
-    
+
     public void setCourseCode(String courseCode) {
-        this.courseCode.set(courseCode);
+        if (this.courseCode != null) {
+            this.courseCode.set(courseCode);
+        } else {
+            this.courseCodeValue = courseCode;
+        }
     }
-    
+
     public void setCourseName(String courseName) {
-        this.courseName.set(courseName);
+        if (this.courseName != null) {
+            this.courseName.set(courseName);
+        } else {
+            this.courseNameValue = courseName;
+        }
     }
-    
+
     public void setCredits(int credits) {
-        this.credits.set(credits);
+        if (this.credits != null) {
+            this.credits.set(credits);
+        } else {
+            this.creditsValue = credits;
+        }
     }
-    
+
     public void setDescription(String description) {
-        this.description.set(description);
+        if (this.description != null) {
+            this.description.set(description);
+        } else {
+            this.descriptionValue = description;
+        }
     }
-    
+
     @Override
     public String toString() {
-        return courseCode.get() + " - " + courseName.get();
+        return getCourseCode() + " - " + getCourseName();
     }
-}
\ No newline at end of file
+}
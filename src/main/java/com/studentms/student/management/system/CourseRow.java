@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable course row as stored in the courses table
+ */
+public record CourseRow(int courseId, String courseCode, String courseName,
+                        int credits, String description) {
+}
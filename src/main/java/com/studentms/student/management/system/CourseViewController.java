@@ -6,6 +6,7 @@ package com.studentms.student.management.system;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,8 +15,10 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 /**
  * Controller for Course Management
@@ -33,6 +36,7 @@ public class CourseViewController {
     @FXML private TextField courseNameField;
     @FXML private Spinner<Integer> creditsSpinner;
     @FXML private TextArea descriptionArea;
+    @FXML private ComboBox<GradingSchemeRow> gradingSchemeComboBox;
     
     @FXML private Button addCourseButton;
     @FXML private Button updateCourseButton;
@@ -43,6 +47,12 @@ public class CourseViewController {
     
     private ObservableList<Course> courseList = FXCollections.observableArrayList();
     
+    // Stands for "no scheme": the course uses the default grade scale
+    private static final GradingSchemeRow DEFAULT_SCHEME =
+        new GradingSchemeRow(0, "Default Scale", null, null, new String[0], new double[0]);
+    // grading_scheme_id per course_id, for courses that have one
+    private Map<Integer, Integer> courseSchemes = Map.of();
+    
     @FXML
     public void initialize() {
         // Configure table columns
@@ -68,7 +78,8 @@ public class CourseViewController {
             new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 6, 3);
         creditsSpinner.setValueFactory(valueFactory);
         
-        // Load courses
+        // Load grading schemes and courses
+        loadGradingSchemes();
         loadCourseData();
         
         updateStatusLabel("Ready - " + courseList.size() + " courses loaded");
@@ -77,27 +88,83 @@ public class CourseViewController {
     private void loadCourseData() {
         courseList.clear();
         
-        try (ResultSet rs = DatabaseManager.getAllCourses()) {
-            while (rs.next()) {
-                Course course = new Course(
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getInt("credits"),
-                    rs.getString("description")
-                );
-                courseList.add(course);
+        try {
+            for (CourseRow row : DatabaseManager.getAllCourseRows()) {
+                courseList.add(new Course(row));
             }
         } catch (SQLException e) {
             showError("Database Error", "Failed to load courses: " + e.getMessage());
         }
     }
     
+    private void loadGradingSchemes() {
+        gradingSchemeComboBox.getItems().setAll(DEFAULT_SCHEME);
+        try {
+            gradingSchemeComboBox.getItems().addAll(DatabaseManager.getGradingSchemeRows());
+            courseSchemes = DatabaseManager.getCourseGradingSchemeIds();
+        } catch (SQLException e) {
+            showError("Database Error", "Failed to load grading schemes: " + e.getMessage());
+        }
+        gradingSchemeComboBox.setValue(DEFAULT_SCHEME);
+    }
+    
+    private int schemeIdOf(Course course) {
+        return courseSchemes.getOrDefault(course.getCourseId(), 0);
+    }
+    
+    private void selectScheme(int schemeId) {
+        gradingSchemeComboBox.setValue(DEFAULT_SCHEME);
+        for (GradingSchemeRow scheme : gradingSchemeComboBox.getItems()) {
+            if (scheme.schemeId() == schemeId) {
+                gradingSchemeComboBox.setValue(scheme);
+            }
+        }
+    }
+    
+    /**
+     * Saves the selected scheme of a course; returns true if it changed
+     */
+    private boolean saveScheme(int courseId, int previousSchemeId) {
+        GradingSchemeRow scheme = gradingSchemeComboBox.getValue();
+        int schemeId = scheme != null ? scheme.schemeId() : 0;
+        if (schemeId == previousSchemeId) {
+            return false;
+        }
+        if (!DatabaseManager.setCourseGradingScheme(courseId, schemeId)) {
+            showError("Error", "Failed to set the grading scheme.");
+            return false;
+        }
+        try {
+            courseSchemes = DatabaseManager.getCourseGradingSchemeIds();
+        } catch (SQLException e) {
+            System.err.println("Error reloading grading schemes: " + e.getMessage());
+        }
+        return true;
+    }
+    
+    /**
+     * Recomputes the stored GPAs of a course's students after its grading scheme changed
+     */
+    private void recomputeCGPAs(Course course) {
+        Task<CgpaRecomputeJob.Result> task = new Task<>() {
+            @Override
+            protected CgpaRecomputeJob.Result call() throws SQLException {
+                return CgpaRecomputeJob.forCourse(course.getCourseId()).run();
+            }
+        };
+        task.setOnSucceeded(event -> updateStatusLabel("Grading scheme changed - CGPA recomputed for "
+                + task.getValue().students() + " students"));
+        task.setOnFailed(event -> showError("Database Error",
+                "Failed to recompute CGPAs: " + task.getException().getMessage()));
+        ReportJobScheduler.getInstance().runInteractive(task);
+    }
+    
     private void populateFormWithCourse(Course course) {
         courseCodeField.setText(course.getCourseCode());
         courseNameField.setText(course.getCourseName());
         creditsSpinner.getValueFactory().setValue(course.getCredits());
         descriptionArea.setText(course.getDescription());
+        selectScheme(schemeIdOf(course));
     }
     
     @FXML
@@ -116,6 +183,7 @@ public class CourseViewController {
         if (newId > 0) {
             Course newCourse = new Course(newId, courseCode, courseName, credits, description);
             courseList.add(newCourse);
+            saveScheme(newId, 0);
             
             showSuccess("Success", "Course added successfully!");
             handleClearForm();
@@ -157,6 +225,11 @@ public class CourseViewController {
             
             showSuccess("Success", "Course updated successfully!");
             updateStatusLabel("Course updated");
+            
+            // Stored GPAs of the course's students were computed on the old scheme
+            if (saveScheme(selectedCourse.getCourseId(), schemeIdOf(selectedCourse))) {
+                recomputeCGPAs(selectedCourse);
+            }
         } else {
             showError("Error", "Failed to update course.");
         }
@@ -199,10 +272,30 @@ public class CourseViewController {
         courseNameField.clear();
         creditsSpinner.getValueFactory().setValue(3);
         descriptionArea.clear();
+        gradingSchemeComboBox.setValue(DEFAULT_SCHEME);
         courseTable.getSelectionModel().clearSelection();
         updateStatusLabel("Form cleared");
     }
     
+    /**
+     * Writes the graduation eligibility of every active student as a background report job
+     */
+    @FXML
+    private void handleGraduationReport() {
+        String filename = "Graduation_Eligibility_" +
+                         LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+        
+        ReportJob job = ReportJobScheduler.getInstance().submit(
+            ReportJob.Type.GRADUATION, "Graduation Eligibility", filename);
+        job.setOnSucceeded(event -> {
+            showSuccess("Report Generated",
+                "Graduation eligibility of all active students has been written!\n\nFile: " + job.getOutput());
+            updateStatusLabel("Graduation report written: " + job.getOutput());
+        });
+        job.setOnFailed(event -> showError("Report Error", "Failed to write graduation report. " + job.getMessage()));
+        updateStatusLabel("Graduation report queued: " + filename);
+    }
+    
     @FXML
     private void handleBackToStudents() {
         try {
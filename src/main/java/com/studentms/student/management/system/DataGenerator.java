@@ -0,0 +1,348 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * DataGenerator builds synthetic databases for scale testing
+ * The same seed and tier always produce exactly the same rows, so benchmarks
+ * and query-plan checks run against identical data on every machine
+ *
+ * Usage: java ... DataGenerator [tier] [output file] [seed]
+ *        e.g. DataGenerator 100k target/studentdb-100k.db 42
+ */
+public class DataGenerator {
+
+    // Rows handed to each DatabaseManager batch call (one transaction per chunk)
+    private static final int CHUNK_SIZE = 10_000;
+
+    public static final long DEFAULT_SEED = 42L;
+
+    /**
+     * Named scale tiers shared by benchmarks and query-plan tests
+     */
+    public enum ScaleTier {
+        TIER_1K("1k", 1_000, 5, 40, 3, 8),
+        TIER_100K("100k", 100_000, 20, 40, 4, 4),
+        TIER_1M("1m", 1_000_000, 50, 40, 6, 2);
+
+        private final String label;
+        private final int students;
+        private final int courses;
+        private final int subjectsPerCourse;
+        private final int sectionsPerSubject;
+        private final int termsPerStudent;
+
+        ScaleTier(String label, int students, int courses, int subjectsPerCourse,
+                  int sectionsPerSubject, int termsPerStudent) {
+            this.label = label;
+            this.students = students;
+            this.courses = courses;
+            this.subjectsPerCourse = subjectsPerCourse;
+            this.sectionsPerSubject = sectionsPerSubject;
+            this.termsPerStudent = termsPerStudent;
+        }
+
+        public String getLabel() { return label; }
+        public int getStudents() { return students; }
+
+        /**
+         * Looks up a tier by its label ("1k", "100k" or "1m")
+         */
+        public static ScaleTier fromLabel(String label) {
+            for (ScaleTier tier : values()) {
+                if (tier.label.equalsIgnoreCase(label)) {
+                    return tier;
+                }
+            }
+            throw new IllegalArgumentException("Unknown scale tier: " + label);
+        }
+
+        /**
+         * Returns the generator settings for this tier
+         */
+        public DataGenerator generator(long seed) {
+            return new DataGenerator(seed, students, courses, subjectsPerCourse,
+                                     sectionsPerSubject, termsPerStudent, SUBJECTS_PER_TERM);
+        }
+    }
+
+    private static final int SUBJECTS_PER_TERM = 5;
+    private static final int FIRST_INTAKE_YEAR = 2020;
+    private static final int INTAKE_YEARS = 6;
+
+    private static final String[] COURSE_PREFIXES = {
+        "CS", "IT", "SE", "DS", "IS", "CY", "AI", "MM", "BA", "AC",
+        "EE", "ME", "CE", "CH", "BI", "MA", "PH", "EC", "LW", "AR"
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "Ahmad", "Muhammad", "Nur", "Siti", "Aisyah", "Farah", "Hafiz", "Amir", "Nurul", "Faiz",
+        "Sarah", "Wei Ling", "Jia Hui", "Kai Wen", "Mei Ling", "Jun Jie", "Zhi Hao", "Hui Min",
+        "Priya", "Kavitha", "Arjun", "Ravi", "Deepa", "Suresh", "Anita", "Daniel", "Michelle",
+        "Jason", "Rachel", "Adam", "Iman", "Zara", "Haziq", "Irfan", "Aina", "Syafiq"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "bin Abdullah", "binti Ismail", "bin Rahman", "binti Hassan", "bin Yusof", "binti Omar",
+        "Lim", "Tan", "Wong", "Lee", "Chong", "Ng", "Ong", "Teoh",
+        "a/l Subramaniam", "a/p Krishnan", "a/l Muthu", "a/p Raj", "Fernandez", "D'Cruz"
+    };
+
+    private static final String[] STREETS = {
+        "Jalan Mawar", "Jalan Melati", "Jalan Cempaka", "Jalan Kenanga", "Jalan Teratai",
+        "Jalan Bukit Bintang", "Jalan Ampang", "Jalan Tun Razak", "Lorong Seri Indah", "Persiaran Wawasan"
+    };
+
+    private static final String[] CITIES = {
+        "47400 Petaling Jaya, Selangor", "53300 Kuala Lumpur", "40000 Shah Alam, Selangor",
+        "10450 George Town, Pulau Pinang", "80000 Johor Bahru, Johor", "30000 Ipoh, Perak",
+        "93000 Kuching, Sarawak", "88000 Kota Kinabalu, Sabah", "75000 Melaka", "25000 Kuantan, Pahang"
+    };
+
+    private static final String[] SUBJECT_WORDS = {
+        "Programming", "Databases", "Networks", "Statistics", "Algorithms", "Systems",
+        "Management", "Security", "Mathematics", "Design", "Analytics", "Engineering"
+    };
+
+    // Letter grades from best to worst, with the z-score each one starts at
+    private static final String[] GRADES = {
+        "A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F"
+    };
+    private static final double[] GRADE_CUTOFFS = {
+        1.5, 0.9, 0.5, 0.2, -0.1, -0.4, -0.7, -1.0, -1.3, -1.6, -1.9, Double.NEGATIVE_INFINITY
+    };
+
+    private final long seed;
+    private final int studentCount;
+    private final int courseCount;
+    private final int subjectsPerCourse;
+    private final int sectionsPerSubject;
+    private final int termsPerStudent;
+    private final int subjectsPerTerm;
+
+    /**
+     * Creates a generator with explicit sizes
+     * Enrollment rows = students x termsPerStudent x subjectsPerTerm
+     */
+    public DataGenerator(long seed, int studentCount, int courseCount, int subjectsPerCourse,
+                         int sectionsPerSubject, int termsPerStudent, int subjectsPerTerm) {
+        if (termsPerStudent * subjectsPerTerm > subjectsPerCourse) {
+            throw new IllegalArgumentException(
+                "Each student needs " + (termsPerStudent * subjectsPerTerm)
+                + " distinct subjects but a course only has " + subjectsPerCourse);
+        }
+        this.seed = seed;
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.subjectsPerCourse = subjectsPerCourse;
+        this.sectionsPerSubject = sectionsPerSubject;
+        this.termsPerStudent = termsPerStudent;
+        this.subjectsPerTerm = subjectsPerTerm;
+    }
+
+    /**
+     * Number of enrollment rows this generator will write
+     */
+    public long getEnrollmentCount() {
+        return (long) studentCount * termsPerStudent * subjectsPerTerm;
+    }
+
+    /**
+     * Generates a fresh database at the given path, replacing any existing file
+     * DatabaseManager is left pointing at the generated database
+     */
+    public void generate(String path) {
+        File file = new File(path);
+        if (file.exists() && !file.delete()) {
+            throw new IllegalStateException("Cannot replace existing database: " + path);
+        }
+
+        DatabaseManager.setDatabasePath(path);
+        DatabaseManager.initializeDatabase();
+
+        // One Random drives everything in a fixed order, which keeps the output deterministic
+        Random random = new Random(seed);
+        long start = System.nanoTime();
+
+        generateCourses();
+        generateSubjects(random);
+        generateStudents(random);
+        generateEnrollments(random);
+
+        System.out.printf("Generated %,d students and %,d enrollments in %.1f s -> %s%n",
+                studentCount, getEnrollmentCount(), (System.nanoTime() - start) / 1e9, path);
+    }
+
+    // ==================== ID LAYOUT ====================
+    // A fresh database hands out AUTOINCREMENT ids 1..n in insert order,
+    // so ids can be computed instead of read back after every batch
+
+    private int subjectId(int course, int subject, int section) {
+        return (course * subjectsPerCourse + subject) * sectionsPerSubject + section + 1;
+    }
+
+    private String coursePrefix(int course) {
+        String prefix = COURSE_PREFIXES[course % COURSE_PREFIXES.length];
+        int round = course / COURSE_PREFIXES.length;
+        return round == 0 ? prefix : prefix + round;
+    }
+
+    // ==================== TABLE GENERATORS ====================
+
+    private void generateCourses() {
+        List<CourseRow> courses = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            String prefix = coursePrefix(c);
+            courses.add(new CourseRow(0, "BS" + prefix, "Bachelor of Science (" + prefix + ")",
+                                      120, "Synthetic programme " + (c + 1)));
+        }
+        checkBatch(DatabaseManager.createCoursesBatch(courses), "courses");
+    }
+
+    private void generateSubjects(Random random) {
+        List<SubjectRow> subjects = new ArrayList<>(courseCount * subjectsPerCourse * sectionsPerSubject);
+
+        for (int c = 0; c < courseCount; c++) {
+            String prefix = coursePrefix(c);
+            for (int s = 0; s < subjectsPerCourse; s++) {
+                String code = prefix + (100 * (1 + s / 10) + s % 10 + 1);
+                String name = SUBJECT_WORDS[random.nextInt(SUBJECT_WORDS.length)] + " "
+                            + (s / 10 + 1) + (char) ('A' + s % 10);
+                int credits = 2 + random.nextInt(3);
+
+                for (int section = 0; section < sectionsPerSubject; section++) {
+                    subjects.add(new SubjectRow(0, code, name, String.valueOf((char) ('A' + section)),
+                                                credits, "Synthetic subject", c + 1));
+                }
+            }
+        }
+        checkBatch(DatabaseManager.createSubjectsBatch(subjects), "subjects");
+    }
+
+    private void generateStudents(Random random) {
+        List<StudentRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        for (int i = 1; i <= studentCount; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int intakeYear = intakeYear(i);
+            String gender = random.nextInt(100) < 48 ? "Male" : random.nextInt(100) < 97 ? "Female" : "Other";
+
+            StudentRow student = new StudentRow(
+                0,
+                String.format("ST%03d", i),
+                first + " " + last,
+                first.toLowerCase().replace(' ', '.') + "." + i + "@student.edu.my",
+                String.format("+6012%07d", random.nextInt(10_000_000)),
+                String.format("%d-%02d-%02d", intakeYear - 18 - random.nextInt(3),
+                              1 + random.nextInt(12), 1 + random.nextInt(28)),
+                gender,
+                "No. " + (1 + random.nextInt(200)) + ", " + STREETS[random.nextInt(STREETS.length)] + ", "
+                    + CITIES[random.nextInt(CITIES.length)],
+                intakeYear + "-09-01",
+                random.nextInt(100) < 8 ? "Inactive" : "Active",
+                courseOf(i) + 1
+            );
+            chunk.add(student);
+
+            if (chunk.size() == CHUNK_SIZE) {
+                checkBatch(DatabaseManager.createStudentsBatch(chunk), "students");
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            checkBatch(DatabaseManager.createStudentsBatch(chunk), "students");
+        }
+    }
+
+    private void generateEnrollments(Random random) {
+        List<EnrollmentRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int[] subjectOrder = new int[subjectsPerCourse];
+
+        for (int studentId = 1; studentId <= studentCount; studentId++) {
+            int course = courseOf(studentId);
+            int intakeYear = intakeYear(studentId);
+
+            // Student ability shifts all of their grades; per-subject noise spreads them out
+            double ability = random.nextGaussian();
+
+            // Partial Fisher-Yates shuffle picks distinct subjects across all terms
+            for (int s = 0; s < subjectsPerCourse; s++) {
+                subjectOrder[s] = s;
+            }
+            int picked = 0;
+
+            for (int term = 1; term <= termsPerStudent; term++) {
+                int year = intakeYear + (term - 1) / 2;
+                boolean currentTerm = term == termsPerStudent;
+
+                for (int k = 0; k < subjectsPerTerm; k++, picked++) {
+                    int swap = picked + random.nextInt(subjectsPerCourse - picked);
+                    int subject = subjectOrder[swap];
+                    subjectOrder[swap] = subjectOrder[picked];
+                    subjectOrder[picked] = subject;
+
+                    int section = random.nextInt(sectionsPerSubject);
+                    double z = 0.7 * ability + 0.7 * random.nextGaussian();
+                    // The latest term is still in progress for about a third of students
+                    String grade = currentTerm && random.nextInt(3) == 0 ? null : gradeFor(z);
+
+                    chunk.add(EnrollmentRow.of(studentId, subjectId(course, subject, section),
+                                               "Semester " + term, year, grade));
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        checkBatch(DatabaseManager.enrollStudentsBatch(chunk), "enrollments");
+                        chunk.clear();
+                    }
+                }
+            }
+
+            if (studentId % 100_000 == 0) {
+                System.out.printf("  ... %,d students enrolled%n", studentId);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            checkBatch(DatabaseManager.enrollStudentsBatch(chunk), "enrollments");
+        }
+    }
+
+    private int courseOf(int studentId) {
+        return (studentId - 1) % courseCount;
+    }
+
+    private int intakeYear(int studentId) {
+        return FIRST_INTAKE_YEAR + (studentId - 1) / courseCount % INTAKE_YEARS;
+    }
+
+    private static String gradeFor(double z) {
+        int i = 0;
+        while (z < GRADE_CUTOFFS[i]) {
+            i++;
+        }
+        return GRADES[i];
+    }
+
+    private static void checkBatch(int result, String table) {
+        if (result < 0) {
+            throw new IllegalStateException("Batch insert into " + table + " failed");
+        }
+    }
+
+    /**
+     * Command line entry point
+     */
+    public static void main(String[] args) {
+        ScaleTier tier = args.length > 0 ? ScaleTier.fromLabel(args[0]) : ScaleTier.TIER_1K;
+        String path = args.length > 1 ? args[1] : "studentdb-" + tier.getLabel() + ".db";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        tier.generator(seed).generate(path);
+    }
+}
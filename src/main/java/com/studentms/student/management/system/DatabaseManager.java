@@ -5,6 +5,14 @@
 package com.studentms.student.management.system;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
 
 /**
  * DatabaseManager handles all database operations for the Student Management System
@@ -16,6 +24,103 @@ public class DatabaseManager {
     // The jdbc:sqlite: prefix tells JDBC we're using SQLite
     private static final String DB_URL = "jdbc:sqlite:studentdb.db";
     
+    // Number of rows sent to SQLite per executeBatch() call in the batch methods
+    private static final int BATCH_SIZE = 5000;
+    
+    // URL actually used for connections - tools such as DataGenerator point this
+    // at a different database file, the application always uses DB_URL
+    private static volatile String databaseUrl = DB_URL;
+    
+    /**
+     * Connection-level SQLite settings applied to every new connection
+     * DEFAULT keeps SQLite's own settings, TUNED trades a little durability
+     * on power loss for much cheaper commits and a larger page cache
+     */
+    public enum PragmaProfile {
+        DEFAULT,
+        TUNED;
+        
+        Properties toProperties() {
+            Properties props = new Properties();
+            if (this == TUNED) {
+                props.setProperty("journal_mode", "WAL");
+                props.setProperty("synchronous", "NORMAL");
+                props.setProperty("cache_size", "-65536");       // 64 MB page cache
+                props.setProperty("temp_store", "MEMORY");
+                props.setProperty("mmap_size", "268435456");     // 256 MB memory map
+            }
+            return props;
+        }
+    }
+    
+    private static volatile PragmaProfile pragmaProfile = PragmaProfile.DEFAULT;
+    
+    // Grading schemes created with a new database: name, description, lowest passing letter, grades
+    private static final String[][] BUILT_IN_GRADING_SCHEMES = {
+        {"Pass/Fail", "Passed or failed, not counted in the GPA", "P", "P:-, F:-"},
+        {"5-Point", "A = 5 down to F = 0", "E", "A:5.0, B:4.0, C:3.0, D:2.0, E:1.0, F:0.0"},
+        {"Percentage Bands", "HD 85-100, D 75-84, C 65-74, P 50-64, N below 50", "P",
+         "HD:4.0, D:3.0, C:2.0, P:1.0, N:0.0"}
+    };
+    
+    // Most credits a student may take in one term when their course sets no limit
+    public static final int DEFAULT_MAX_TERM_CREDITS = 24;
+    
+    // Error message SQLite raises when an enrollment would go over the term credit limit
+    static final String CREDIT_LOAD_EXCEEDED = "credit load exceeded";
+    
+    // Term credit limit of a student, ? or NEW.student_id, taken from their course
+    private static final String MAX_TERM_CREDITS_SQL = """
+        IFNULL((SELECT c.max_term_credits FROM students st JOIN courses c ON c.course_id = st.course_id
+                WHERE st.student_id = %s), %d)
+    """;
+    
+    // Tables whose writes are counted in data_versions
+    private static final String[] VERSIONED_TABLES = {"courses", "students", "subjects", "enrollments"};
+    
+    // Most methods report failures through their return value only; the exception
+    // behind the most recent failure on each thread is kept here for callers that
+    // need to tell apart e.g. SQLITE_BUSY from a constraint violation
+    private static final ThreadLocal<SQLException> lastError = new ThreadLocal<>();
+    
+    /**
+     * Points all subsequent connections at a different SQLite database file
+     * Used by the data generator and benchmarks to work on synthetic databases
+     */
+    public static void setDatabasePath(String path) {
+        databaseUrl = "jdbc:sqlite:" + path;
+    }
+    
+    /**
+     * Returns the JDBC URL of the database currently in use
+     */
+    public static String getDatabaseUrl() {
+        return databaseUrl;
+    }
+    
+    /**
+     * Selects the PRAGMA profile used by connections opened from now on
+     */
+    public static void setPragmaProfile(PragmaProfile profile) {
+        pragmaProfile = profile;
+    }
+    
+    public static PragmaProfile getPragmaProfile() {
+        return pragmaProfile;
+    }
+    
+    /**
+     * Returns the exception behind the last failed operation on this thread,
+     * or null if nothing failed since clearLastError()
+     */
+    public static SQLException getLastError() {
+        return lastError.get();
+    }
+    
+    public static void clearLastError() {
+        lastError.remove();
+    }
+    
     /**
      * Establishes and returns a connection to the SQLite database
      * Each operation should get a fresh connection and close it when done
@@ -24,7 +129,7 @@ public class DatabaseManager {
         try {
             // Load the SQLite JDBC driver explicitly
             Class.forName("org.sqlite.JDBC");
-            return DriverManager.getConnection(DB_URL);
+            return DriverManager.getConnection(databaseUrl, pragmaProfile.toProperties());
         } catch (ClassNotFoundException e) {
             throw new SQLException("SQLite JDBC driver not found", e);
         }
@@ -90,24 +195,379 @@ public class DatabaseManager {
             )
         """;
         
+        String createStudentChangesTable = """
+            CREATE TABLE IF NOT EXISTS student_changes (
+                change_seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                student_id INTEGER NOT NULL,
+                operation TEXT NOT NULL
+            )
+        """;
+        
+        String createExportStateTable = """
+            CREATE TABLE IF NOT EXISTS export_state (
+                export_name TEXT PRIMARY KEY,
+                last_change_seq INTEGER NOT NULL,
+                last_export_at TEXT,
+                last_snapshot_at TEXT
+            )
+        """;
+        
+        // Files written by finished report jobs, listed in the Report Jobs window
+        String createReportOutputsTable = """
+            CREATE TABLE IF NOT EXISTS report_outputs (
+                output_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                job_name TEXT NOT NULL,
+                file_path TEXT NOT NULL,
+                size_bytes INTEGER,
+                created_at TEXT NOT NULL
+            )
+        """;
+        
+        // Updates are only logged when a column that exports contain actually changes
+        String[] studentChangeTriggers = {
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_students_insert_change AFTER INSERT ON students
+            BEGIN
+                INSERT INTO student_changes (student_id, operation) VALUES (NEW.student_id, 'INSERT');
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_students_update_change
+            AFTER UPDATE OF full_name, email, phone, date_of_birth, gender, address, enrollment_date, status
+            ON students
+            WHEN (OLD.full_name, OLD.email, OLD.phone, OLD.date_of_birth, OLD.gender, OLD.address,
+                  OLD.enrollment_date, OLD.status)
+              IS NOT (NEW.full_name, NEW.email, NEW.phone, NEW.date_of_birth, NEW.gender, NEW.address,
+                      NEW.enrollment_date, NEW.status)
+            BEGIN
+                INSERT INTO student_changes (student_id, operation) VALUES (NEW.student_id, 'UPDATE');
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_students_delete_change AFTER DELETE ON students
+            BEGIN
+                INSERT INTO student_changes (student_id, operation) VALUES (OLD.student_id, 'DELETE');
+            END
+            """
+        };
+        
+        // Credits each student has enrolled in per term, kept by the credit load triggers
+        // so the limit is checked without summing enrollments, see CREDIT LOAD below
+        String createTermCreditsTable = """
+            CREATE TABLE IF NOT EXISTS student_term_credits (
+                student_id INTEGER NOT NULL,
+                term_key INTEGER NOT NULL,
+                credits INTEGER NOT NULL,
+                PRIMARY KEY (student_id, term_key)
+            ) WITHOUT ROWID
+        """;
+        
+        // Adds an enrollment's credits to its term and aborts the statement, undoing
+        // the insert or update with it, when that takes the student over their limit
+        String addTermCredits = """
+                INSERT INTO student_term_credits (student_id, term_key, credits)
+                VALUES (NEW.student_id, IFNULL(NEW.term_key, 0),
+                        IFNULL((SELECT credits FROM subjects WHERE subject_id = NEW.subject_id), 0))
+                ON CONFLICT (student_id, term_key) DO UPDATE SET credits = credits + excluded.credits;
+                SELECT RAISE(ABORT, '%s')
+                WHERE (SELECT credits FROM student_term_credits
+                       WHERE student_id = NEW.student_id AND term_key = IFNULL(NEW.term_key, 0))
+                    > %s;
+            """.formatted(CREDIT_LOAD_EXCEEDED,
+                          MAX_TERM_CREDITS_SQL.formatted("NEW.student_id", DEFAULT_MAX_TERM_CREDITS).strip());
+        String removeTermCredits = """
+                UPDATE student_term_credits
+                SET credits = credits - IFNULL((SELECT credits FROM subjects WHERE subject_id = OLD.subject_id), 0)
+                WHERE student_id = OLD.student_id AND term_key = IFNULL(OLD.term_key, 0);
+            """;
+        // Name and body of each trigger; they are dropped and recreated on every start,
+        // so the limit built into them always matches DEFAULT_MAX_TERM_CREDITS
+        String[][] creditLoadTriggers = {
+            {"trg_enrollments_insert_credits", "AFTER INSERT ON enrollments\n"
+                + "BEGIN\n" + addTermCredits + "END"},
+            // Only a move to another student, subject or term is rechecked, so rewriting an
+            // enrollment with the same values cannot fail on a student already over the limit
+            {"trg_enrollments_update_credits",
+             "AFTER UPDATE OF student_id, subject_id, semester, enrollment_year ON enrollments\n"
+                + "WHEN OLD.student_id IS NOT NEW.student_id OR OLD.subject_id IS NOT NEW.subject_id\n"
+                + "  OR OLD.term_key IS NOT NEW.term_key\n"
+                + "BEGIN\n" + removeTermCredits + addTermCredits + "END"},
+            {"trg_enrollments_delete_credits", "AFTER DELETE ON enrollments\n"
+                + "BEGIN\n" + removeTermCredits + "END"},
+            // A subject's new credits count for everyone already enrolled in it, without a check
+            {"trg_subjects_update_credits", """
+            AFTER UPDATE OF credits ON subjects
+            BEGIN
+                UPDATE student_term_credits
+                SET credits = credits + IFNULL(NEW.credits, 0) - IFNULL(OLD.credits, 0)
+                WHERE (student_id, term_key) IN (SELECT student_id, IFNULL(term_key, 0)
+                                                 FROM enrollments WHERE subject_id = NEW.subject_id);
+            END
+            """},
+            {"trg_subjects_delete_credits", """
+            AFTER DELETE ON subjects
+            BEGIN
+                UPDATE student_term_credits
+                SET credits = credits - IFNULL(OLD.credits, 0)
+                WHERE (student_id, term_key) IN (SELECT student_id, IFNULL(term_key, 0)
+                                                 FROM enrollments WHERE subject_id = OLD.subject_id);
+            END
+            """},
+            {"trg_students_delete_credits", """
+            AFTER DELETE ON students
+            BEGIN
+                DELETE FROM student_term_credits WHERE student_id = OLD.student_id;
+            END
+            """}
+        };
+        
+        // Grading schemes courses can use instead of the default grade scale, see GradingSchemes
+        String createGradingSchemesTable = """
+            CREATE TABLE IF NOT EXISTS grading_schemes (
+                scheme_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                scheme_name TEXT UNIQUE NOT NULL,
+                description TEXT,
+                lowest_pass TEXT NOT NULL
+            )
+        """;
+        
+        // Letters of each scheme from best (ordinal 0) to worst; NULL points keep a letter out of GPAs
+        String createGradingSchemeGradesTable = """
+            CREATE TABLE IF NOT EXISTS grading_scheme_grades (
+                scheme_id INTEGER NOT NULL,
+                ordinal INTEGER NOT NULL,
+                letter TEXT NOT NULL,
+                points REAL,
+                PRIMARY KEY (scheme_id, ordinal),
+                UNIQUE (scheme_id, letter),
+                FOREIGN KEY (scheme_id) REFERENCES grading_schemes(scheme_id) ON DELETE CASCADE
+            ) WITHOUT ROWID
+        """;
+        
+        // Running CGPA totals per student, kept up to date by GradeScale.Accumulator deltas
+        String createGpaSummaryTable = """
+            CREATE TABLE IF NOT EXISTS student_gpa_summary (
+                student_id INTEGER PRIMARY KEY,
+                quality_points REAL NOT NULL,
+                graded_credits INTEGER NOT NULL,
+                total_credits INTEGER NOT NULL,
+                subjects INTEGER NOT NULL,
+                cgpa REAL,
+                updated_at TEXT NOT NULL,
+                FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE
+            )
+        """;
+        
+        // GPA of each student per term, written by CgpaRecomputeJob
+        String createTermGpaTable = """
+            CREATE TABLE IF NOT EXISTS student_term_gpa (
+                student_id INTEGER NOT NULL,
+                term_key INTEGER NOT NULL,
+                quality_points REAL NOT NULL,
+                graded_credits INTEGER NOT NULL,
+                total_credits INTEGER NOT NULL,
+                subjects INTEGER NOT NULL,
+                gpa REAL,
+                PRIMARY KEY (student_id, term_key)
+            ) WITHOUT ROWID
+        """;
+        
+        // Last student finished by a restartable batch job, cleared when a run completes;
+        // one per scope, so e.g. a course-wide run cannot overwrite a full run's resume point
+        String createJobCheckpointsTable = """
+            CREATE TABLE IF NOT EXISTS job_checkpoints (
+                job_name TEXT NOT NULL,
+                scope TEXT NOT NULL,
+                last_student_id INTEGER NOT NULL,
+                updated_at TEXT NOT NULL,
+                PRIMARY KEY (job_name, scope)
+            )
+        """;
+        
+        // Term-end standing of each student, written by AcademicStanding; probation_streak
+        // counts the consecutive assessed terms on probation up to this one
+        String createAcademicStandingTable = """
+            CREATE TABLE IF NOT EXISTS academic_standing (
+                student_id INTEGER NOT NULL,
+                term_key INTEGER NOT NULL,
+                standing TEXT NOT NULL,
+                term_gpa REAL NOT NULL,
+                graded_credits INTEGER NOT NULL,
+                probation_streak INTEGER NOT NULL,
+                PRIMARY KEY (student_id, term_key)
+            ) WITHOUT ROWID
+        """;
+        
+        // Every write to a tracked table bumps that table's version, so cached
+        // reports can tell whether the data they were built from has changed
+        String createDataVersionsTable = """
+            CREATE TABLE IF NOT EXISTS data_versions (
+                table_name TEXT PRIMARY KEY,
+                version INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
+        """;
+        
         // Try-with-resources ensures connection and statement are closed automatically
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             
             // Execute each CREATE TABLE statement
+            stmt.execute(createGradingSchemesTable);
+            stmt.execute(createGradingSchemeGradesTable);
             stmt.execute(createCoursesTable);
             stmt.execute(createStudentsTable);
             stmt.execute(createSubjectsTable);
             stmt.execute(createEnrollmentsTable);
             
+            // Courses without a grading scheme use the default grade scale
+            if (!hasColumn(stmt, "courses", "grading_scheme_id")) {
+                stmt.execute("ALTER TABLE courses ADD COLUMN grading_scheme_id INTEGER"
+                           + " REFERENCES grading_schemes(scheme_id)");
+            }
+            // Courses without a term credit limit use DEFAULT_MAX_TERM_CREDITS
+            if (!hasColumn(stmt, "courses", "max_term_credits")) {
+                stmt.execute("ALTER TABLE courses ADD COLUMN max_term_credits INTEGER");
+            }
+            int schemeCount;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM grading_schemes")) {
+                schemeCount = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (schemeCount == 0) {
+                for (String[] scheme : BUILT_IN_GRADING_SCHEMES) {
+                    insertGradingScheme(conn, scheme[0], scheme[1], scheme[2],
+                                        GradeScale.parse(scheme[3], scheme[2]));
+                }
+            }
+            
+            // Index for StudentStatistics: holds every value its GROUP BY needs,
+            // already in group order (the intake year is indexed as an expression)
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_students_stats
+                ON students(gender, status, course_id, substr(enrollment_date, 1, 4))
+            """);
+            
+            // Term key of each enrollment (see AcademicTerm), kept by SQLite as a
+            // generated column and indexed so queries can group and order by term
+            if (!hasColumn(stmt, "enrollments", "term_key")) {
+                stmt.execute("ALTER TABLE enrollments ADD COLUMN term_key INTEGER"
+                           + " GENERATED ALWAYS AS (" + AcademicTerm.TERM_KEY_SQL + ") VIRTUAL");
+            }
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_enrollments_student_term
+                ON enrollments(student_id, term_key)
+            """);
+            
+            // Covers SectionGradeDistribution: grades per subject, optionally for one term
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_enrollments_subject_grade
+                ON enrollments(subject_id, enrollment_year, semester, grade)
+            """);
+            
+            // Change log for incremental exports, see CHANGE TRACKING below
+            stmt.execute(createStudentChangesTable);
+            stmt.execute(createExportStateTable);
+            for (String trigger : studentChangeTriggers) {
+                stmt.execute(trigger);
+            }
+            
+            stmt.execute(createReportOutputsTable);
+            stmt.execute(createGpaSummaryTable);
+            stmt.execute(createTermGpaTable);
+            // Older databases keyed checkpoints by job_name alone
+            if (hasColumn(stmt, "job_checkpoints", "scope") && !isPrimaryKeyColumn(stmt, "job_checkpoints", "scope")) {
+                stmt.execute("ALTER TABLE job_checkpoints RENAME TO job_checkpoints_old");
+                stmt.execute(createJobCheckpointsTable);
+                stmt.execute("INSERT INTO job_checkpoints SELECT job_name, scope, last_student_id, updated_at"
+                           + " FROM job_checkpoints_old");
+                stmt.execute("DROP TABLE job_checkpoints_old");
+            }
+            stmt.execute(createJobCheckpointsTable);
+            stmt.execute(createAcademicStandingTable);
+            // A term's lists, and replacing a term, read by term and standing
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_academic_standing_term
+                ON academic_standing(term_key, standing)
+            """);
+            
+            // Credit load totals, filled once from the existing enrollments
+            stmt.execute(createTermCreditsTable);
+            boolean hasTermCredits;
+            try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM student_term_credits)")) {
+                hasTermCredits = rs.next() && rs.getBoolean(1);
+            }
+            if (!hasTermCredits) {
+                stmt.execute("""
+                    INSERT INTO student_term_credits (student_id, term_key, credits)
+                    SELECT e.student_id, IFNULL(e.term_key, 0), SUM(IFNULL(sub.credits, 0))
+                    FROM enrollments e
+                    LEFT JOIN subjects sub ON sub.subject_id = e.subject_id
+                    GROUP BY e.student_id, IFNULL(e.term_key, 0)
+                """);
+            }
+            // In one transaction, so no write slips in between a drop and its create
+            conn.setAutoCommit(false);
+            try {
+                for (String[] trigger : creditLoadTriggers) {
+                    stmt.execute("DROP TRIGGER IF EXISTS " + trigger[0]);
+                    stmt.execute("CREATE TRIGGER " + trigger[0] + " " + trigger[1]);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            
+            // Data versions for the report cache, see DATA VERSIONS below
+            stmt.execute(createDataVersionsTable);
+            for (String table : VERSIONED_TABLES) {
+                stmt.execute("INSERT OR IGNORE INTO data_versions (table_name) VALUES ('" + table + "')");
+                for (String operation : new String[] {"INSERT", "UPDATE", "DELETE"}) {
+                    stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_" + operation.toLowerCase()
+                               + "_version AFTER " + operation + " ON " + table
+                               + " BEGIN UPDATE data_versions SET version = version + 1"
+                               + " WHERE table_name = '" + table + "'; END");
+                }
+            }
+            
             System.out.println("Database initialized successfully!");
             
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
         }
     }
     
+    /**
+     * Checks whether a table has a column, generated columns included
+     */
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_xinfo(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether a column is part of its table's primary key
+     */
+    private static boolean isPrimaryKeyColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return rs.getInt("pk") > 0;
+                }
+            }
+        }
+        return false;
+    }
+    
     /**
      * Generates the next student code (ST001, ST002, etc.)
      */
@@ -129,6 +589,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error generating student code: " + e.getMessage());
+            lastError.set(e);
             return "ST001";
         }
     }
@@ -175,6 +636,7 @@ public class DatabaseManager {
             }
         } catch (SQLException e) {
             System.err.println("Error creating student: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
         }
         
@@ -223,6 +685,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error updating student: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -259,6 +722,7 @@ public class DatabaseManager {
 
         } catch (SQLException e) {
             System.err.println("Error updating student: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -280,6 +744,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error deleting student: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -328,6 +793,7 @@ public class DatabaseManager {
             }
         } catch (SQLException e) {
             System.err.println("Error creating course: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
         }
         
@@ -369,6 +835,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error updating course: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -389,6 +856,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error deleting course: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -438,6 +906,7 @@ public class DatabaseManager {
             }
         } catch (SQLException e) {
             System.err.println("Error creating subject: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
         }
 
@@ -489,6 +958,7 @@ public class DatabaseManager {
 
         } catch (SQLException e) {
             System.err.println("Error updating subject: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -517,6 +987,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error deleting subject: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -526,6 +997,8 @@ public class DatabaseManager {
     
     /**
      * Enrolls a student in a subject
+     * Returns -1 on failure, including when the subject would take the student over
+     * their term credit limit (see isCreditLoadExceeded); the check runs in the insert itself
      */
     public static int enrollStudentInSubject(int studentId, int subjectId, 
                                            String semester, int year) {
@@ -553,6 +1026,7 @@ public class DatabaseManager {
             }
         } catch (SQLException e) {
             System.err.println("Error enrolling student: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
         }
         
@@ -571,7 +1045,7 @@ public class DatabaseManager {
             FROM enrollments e
             JOIN subjects s ON e.subject_id = s.subject_id
             WHERE e.student_id = ?
-            ORDER BY e.enrollment_year DESC, e.semester
+            ORDER BY e.term_key DESC
         """;
         PreparedStatement pstmt = conn.prepareStatement(sql);
         pstmt.setInt(1, studentId);
@@ -602,6 +1076,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error checking enrollment: " + e.getMessage());
+            lastError.set(e);
         }
         
         return false;
@@ -624,6 +1099,7 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error updating grade: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
@@ -644,11 +1120,81 @@ public class DatabaseManager {
             
         } catch (SQLException e) {
             System.err.println("Error deleting enrollment: " + e.getMessage());
+            lastError.set(e);
             e.printStackTrace();
             return false;
         }
     }
     
+    // ==================== CREDIT LOAD ====================
+    
+    /**
+     * True when an enrollment failed because it would exceed the term credit limit
+     */
+    public static boolean isCreditLoadExceeded(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(CREDIT_LOAD_EXCEEDED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Credits a student is enrolled in for one term, read from the maintained totals
+     */
+    public static int getTermCredits(int studentId, int termKey) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT credits FROM student_term_credits WHERE student_id = ? AND term_key = ?")) {
+            
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, termKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * Most credits a student may take in one term, set by their course
+     */
+    public static int getMaxTermCredits(int studentId) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT " + MAX_TERM_CREDITS_SQL.formatted("?", DEFAULT_MAX_TERM_CREDITS).strip())) {
+            
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : DEFAULT_MAX_TERM_CREDITS;
+            }
+        }
+    }
+    
+    /**
+     * Sets a course's term credit limit; 0 returns it to DEFAULT_MAX_TERM_CREDITS
+     * Only later enrollments are checked against it
+     */
+    public static boolean setCourseMaxTermCredits(int courseId, int maxCredits) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "UPDATE courses SET max_term_credits = ? WHERE course_id = ?")) {
+            
+            if (maxCredits > 0) {
+                pstmt.setInt(1, maxCredits);
+            } else {
+                pstmt.setNull(1, Types.INTEGER);
+            }
+            pstmt.setInt(2, courseId);
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error setting term credit limit: " + e.getMessage());
+            lastError.set(e);
+            return false;
+        }
+    }
+    
     // ==================== AUTHENTICATION METHODS ====================
     
     /**
@@ -673,4 +1219,903 @@ public class DatabaseManager {
         pstmt.setString(1, studentCode);
         return pstmt.executeQuery();
     }
-}
+    
+    // ==================== ROW QUERIES ====================
+    // Unlike the ResultSet methods above, these read everything into immutable
+    // rows and close their connection before returning
+    
+    private static final String ENROLLMENT_ROW_SQL = """
+        SELECT e.enrollment_id, e.student_id, e.subject_id, s.subject_code, s.subject_name,
+               s.subject_section, s.credits, e.semester, e.enrollment_year, e.grade
+        FROM enrollments e
+        JOIN subjects s ON e.subject_id = s.subject_id
+    """;
+    
+    private static StudentRow toStudentRow(ResultSet rs) throws SQLException {
+        return new StudentRow(
+            rs.getInt("student_id"),
+            rs.getString("student_code"),
+            rs.getString("full_name"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("date_of_birth"),
+            rs.getString("gender"),
+            rs.getString("address"),
+            rs.getString("enrollment_date"),
+            rs.getString("status"),
+            rs.getInt("course_id")
+        );
+    }
+    
+    private static EnrollmentRow toEnrollmentRow(ResultSet rs) throws SQLException {
+        return new EnrollmentRow(
+            rs.getInt("enrollment_id"),
+            rs.getInt("student_id"),
+            rs.getInt("subject_id"),
+            rs.getString("subject_code"),
+            rs.getString("subject_name"),
+            rs.getString("subject_section"),
+            rs.getInt("credits"),
+            rs.getString("semester"),
+            rs.getInt("enrollment_year"),
+            rs.getString("grade")
+        );
+    }
+    
+    private static List<StudentRow> readStudentRows(PreparedStatement pstmt) throws SQLException {
+        List<StudentRow> rows = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(toStudentRow(rs));
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Retrieves all students ordered by name
+     */
+    public static List<StudentRow> getAllStudentRows() throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM students ORDER BY full_name")) {
+            return readStudentRows(pstmt);
+        }
+    }
+    
+    /**
+     * Streams all students ordered by name without keeping them in memory
+     * Returns the number of rows passed to the consumer
+     */
+    public static int forEachStudentRow(Consumer<StudentRow> consumer) throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM students ORDER BY full_name")) {
+            int count = 0;
+            while (rs.next()) {
+                consumer.accept(toStudentRow(rs));
+                count++;
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Returns the number of students
+     */
+    public static int countStudents() throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM students")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Searches students by name (partial match supported)
+     */
+    public static List<StudentRow> searchStudentRowsByName(String name) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT * FROM students WHERE full_name LIKE ? ORDER BY full_name")) {
+            pstmt.setString(1, "%" + name + "%");
+            return readStudentRows(pstmt);
+        }
+    }
+    
+    /**
+     * Gets a student by email, or null if there is none
+     */
+    public static StudentRow getStudentRowByEmail(String email) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM students WHERE email = ?")) {
+            pstmt.setString(1, email);
+            List<StudentRow> rows = readStudentRows(pstmt);
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+    }
+    
+    /**
+     * Retrieves all courses ordered by code
+     */
+    public static List<CourseRow> getAllCourseRows() throws SQLException {
+        List<CourseRow> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM courses ORDER BY course_code")) {
+            while (rs.next()) {
+                rows.add(new CourseRow(
+                    rs.getInt("course_id"),
+                    rs.getString("course_code"),
+                    rs.getString("course_name"),
+                    rs.getInt("credits"),
+                    rs.getString("description")
+                ));
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Retrieves all subjects ordered by code and section
+     */
+    public static List<SubjectRow> getAllSubjectRows() throws SQLException {
+        List<SubjectRow> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM subjects ORDER BY subject_code, subject_section")) {
+            while (rs.next()) {
+                rows.add(new SubjectRow(
+                    rs.getInt("subject_id"),
+                    rs.getString("subject_code"),
+                    rs.getString("subject_name"),
+                    rs.getString("subject_section"),
+                    rs.getInt("credits"),
+                    rs.getString("description"),
+                    rs.getInt("course_id")
+                ));
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Gets all enrollments of a student with their subjects, latest term first
+     */
+    public static List<EnrollmentRow> getStudentEnrollmentRows(int studentId) throws SQLException {
+        List<EnrollmentRow> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ENROLLMENT_ROW_SQL
+                 + " WHERE e.student_id = ? ORDER BY e.term_key DESC")) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(toEnrollmentRow(rs));
+                }
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Gets the stored academic standing of a student by term key, see AcademicStanding
+     * Reads the student's primary key range only
+     */
+    public static Map<Integer, AcademicStanding.Standing> getStudentStandings(int studentId) throws SQLException {
+        Map<Integer, AcademicStanding.Standing> standings = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT term_key, standing FROM academic_standing WHERE student_id = ?")) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    standings.put(rs.getInt(1), AcademicStanding.Standing.valueOf(rs.getString(2)));
+                }
+            }
+        }
+        return standings;
+    }
+    
+    // ==================== SET-BASED ROW QUERIES ====================
+    // Fetch rows for many students at once; keep id arrays to a few hundred
+    // entries per call, each id becomes one bound parameter
+    
+    /**
+     * Returns the IDs of all students in ascending order
+     */
+    public static int[] getAllStudentIds() throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT student_id FROM students ORDER BY student_id")) {
+            int[] ids = new int[1024];
+            int count = 0;
+            while (rs.next()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = rs.getInt(1);
+            }
+            return Arrays.copyOf(ids, count);
+        }
+    }
+    
+    /**
+     * Gets the given students ordered by ID; unknown IDs are skipped
+     */
+    public static List<StudentRow> getStudentRows(int[] studentIds) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM students WHERE student_id IN ("
+                 + placeholders(studentIds.length) + ") ORDER BY student_id")) {
+            bindIds(pstmt, studentIds);
+            return readStudentRows(pstmt);
+        }
+    }
+    
+    /**
+     * Gets the enrollments of all given students in one query, grouped by
+     * student ID and otherwise ordered like getStudentEnrollmentRows
+     */
+    public static List<EnrollmentRow> getEnrollmentRows(int[] studentIds) throws SQLException {
+        List<EnrollmentRow> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ENROLLMENT_ROW_SQL
+                 + " WHERE e.student_id IN (" + placeholders(studentIds.length) + ")"
+                 + " ORDER BY e.student_id, e.term_key DESC")) {
+            bindIds(pstmt, studentIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(toEnrollmentRow(rs));
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private static String placeholders(int count) {
+        return count == 0 ? "NULL" : "?" + ",?".repeat(count - 1);
+    }
+    
+    private static void bindIds(PreparedStatement pstmt, int[] ids) throws SQLException {
+        for (int i = 0; i < ids.length; i++) {
+            pstmt.setInt(i + 1, ids[i]);
+        }
+    }
+    
+    // ==================== CHANGE TRACKING ====================
+    // Triggers on students append every insert, update and delete to student_changes.
+    // Each export remembers the last change it wrote in export_state and later
+    // reads only the changes after it
+    
+    /**
+     * Position of a named export in the change log
+     * lastSnapshotAt is null until the export has written a full snapshot
+     */
+    public record ExportMark(long changeSeq, String lastExportAt, String lastSnapshotAt) {
+    }
+    
+    // Net effect per student: the first logged operation tells inserts from updates,
+    // the current row (if any) tells deletes from both
+    private static final String STUDENT_CHANGES_SQL = """
+        SELECT g.student_id AS changed_id, f.operation AS first_operation, s.*
+        FROM (SELECT student_id, MIN(change_seq) AS first_seq
+              FROM student_changes
+              WHERE change_seq > ? AND change_seq <= ?
+              GROUP BY student_id) g
+        JOIN student_changes f ON f.change_seq = g.first_seq
+        LEFT JOIN students s ON s.student_id = g.student_id
+        ORDER BY g.student_id
+    """;
+    
+    /**
+     * Returns the sequence number of the latest logged change, 0 if there was none
+     * Taken from sqlite_sequence so it stays correct after old changes are pruned
+     */
+    public static long getLatestStudentChange() throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT seq FROM sqlite_sequence WHERE name = 'student_changes'")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    /**
+     * Streams the net change of every student changed after afterSeq, up to and
+     * including uptoSeq, ordered by student ID
+     * A student inserted and deleted within the range is left out
+     * Returns the number of changes passed to the consumer
+     */
+    public static int forEachStudentChange(long afterSeq, long uptoSeq, Consumer<StudentChange> consumer)
+            throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(STUDENT_CHANGES_SQL)) {
+            pstmt.setLong(1, afterSeq);
+            pstmt.setLong(2, uptoSeq);
+            
+            int count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int studentId = rs.getInt("changed_id");
+                    boolean inserted = "INSERT".equals(rs.getString("first_operation"));
+                    // student_code is NOT NULL, so null means the row is gone
+                    boolean exists = rs.getString("student_code") != null;
+                    
+                    if (!exists && inserted) {
+                        continue;
+                    }
+                    if (!exists) {
+                        consumer.accept(new StudentChange("DELETE", studentId, null));
+                    } else {
+                        consumer.accept(new StudentChange(inserted ? "INSERT" : "UPDATE", studentId,
+                                                          toStudentRow(rs)));
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Gets the position of the named export, or null if it never ran
+     */
+    public static ExportMark getExportMark(String exportName) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT last_change_seq, last_export_at, last_snapshot_at FROM export_state WHERE export_name = ?")) {
+            pstmt.setString(1, exportName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new ExportMark(rs.getLong(1), rs.getString(2), rs.getString(3));
+            }
+        }
+    }
+    
+    /**
+     * Records that the named export has written everything up to changeSeq
+     * Changes that every export has passed are then deleted from the log
+     */
+    public static boolean saveExportMark(String exportName, long changeSeq, String exportedAt, boolean snapshot) {
+        String upsert = """
+            INSERT INTO export_state (export_name, last_change_seq, last_export_at, last_snapshot_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT(export_name) DO UPDATE SET
+                last_change_seq = excluded.last_change_seq,
+                last_export_at = excluded.last_export_at,
+                last_snapshot_at = COALESCE(excluded.last_snapshot_at, export_state.last_snapshot_at)
+        """;
+        String prune = """
+            DELETE FROM student_changes
+            WHERE change_seq <= (SELECT MIN(last_change_seq) FROM export_state)
+        """;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(upsert);
+                 Statement stmt = conn.createStatement()) {
+                pstmt.setString(1, exportName);
+                pstmt.setLong(2, changeSeq);
+                pstmt.setString(3, exportedAt);
+                pstmt.setString(4, snapshot ? exportedAt : null);
+                pstmt.executeUpdate();
+                stmt.executeUpdate(prune);
+                conn.commit();
+                return true;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving export state: " + e.getMessage());
+            lastError.set(e);
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    // ==================== REPORT OUTPUTS ====================
+    
+    /**
+     * Records a file written by a report job
+     * Returns the new output ID, or -1 on failure
+     */
+    public static int registerReportOutput(String jobName, String filePath, long sizeBytes) {
+        String sql = """
+            INSERT INTO report_outputs (job_name, file_path, size_bytes, created_at)
+            VALUES (?, ?, ?, datetime('now', 'localtime'))
+        """;
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            pstmt.setString(1, jobName);
+            pstmt.setString(2, filePath);
+            pstmt.setLong(3, sizeBytes);
+            pstmt.executeUpdate();
+            
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error registering report output: " + e.getMessage());
+            lastError.set(e);
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the most recent report outputs, newest first
+     */
+    public static List<ReportOutputRow> getReportOutputRows(int limit) throws SQLException {
+        List<ReportOutputRow> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT * FROM report_outputs ORDER BY output_id DESC LIMIT ?")) {
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new ReportOutputRow(
+                        rs.getInt("output_id"),
+                        rs.getString("job_name"),
+                        rs.getString("file_path"),
+                        rs.getLong("size_bytes"),
+                        rs.getString("created_at")
+                    ));
+                }
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Removes an output from the registry; the file itself is left alone
+     */
+    public static boolean deleteReportOutput(int outputId) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM report_outputs WHERE output_id = ?")) {
+            pstmt.setInt(1, outputId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting report output: " + e.getMessage());
+            lastError.set(e);
+            return false;
+        }
+    }
+    
+    // ==================== GPA SUMMARY ====================
+    
+    // Parameters: student_id, then the five totals as bound by bindGpaTotals
+    static final String UPSERT_GPA_SUMMARY_SQL = """
+        INSERT INTO student_gpa_summary (student_id, quality_points, graded_credits, total_credits,
+                                         subjects, cgpa, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, datetime('now', 'localtime'))
+        ON CONFLICT(student_id) DO UPDATE SET
+            quality_points = excluded.quality_points,
+            graded_credits = excluded.graded_credits,
+            total_credits = excluded.total_credits,
+            subjects = excluded.subjects,
+            cgpa = excluded.cgpa,
+            updated_at = excluded.updated_at
+    """;
+    
+    /**
+     * Stores a student's CGPA totals; cgpa is left NULL until a subject is graded
+     */
+    public static boolean saveGpaSummary(int studentId, GradeScale.Accumulator total) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_GPA_SUMMARY_SQL)) {
+            
+            pstmt.setInt(1, studentId);
+            bindGpaTotals(pstmt, 2, total);
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error saving GPA summary: " + e.getMessage());
+            lastError.set(e);
+            return false;
+        }
+    }
+    
+    /**
+     * Binds quality points, graded credits, total credits, subjects and GPA
+     * from index on; the GPA is NULL until a subject is graded
+     */
+    static void bindGpaTotals(PreparedStatement pstmt, int index, GradeScale.Accumulator total) throws SQLException {
+        pstmt.setDouble(index, total.getQualityPoints());
+        pstmt.setInt(index + 1, total.getGradedCredits());
+        pstmt.setInt(index + 2, total.getTotalCredits());
+        pstmt.setInt(index + 3, total.getSubjects());
+        if (total.hasGrades()) {
+            pstmt.setDouble(index + 4, total.gpa());
+        } else {
+            pstmt.setNull(index + 4, Types.REAL);
+        }
+    }
+    
+    // ==================== GRADING SCHEMES ====================
+    
+    /**
+     * Stores a grading scheme; returns the new scheme ID, or -1 if the scheme
+     * is invalid or the name is taken
+     */
+    public static int createGradingScheme(String name, String description, String lowestPass,
+                                          String[] letters, double[] points) {
+        try (Connection conn = getConnection()) {
+            GradeScale scale = GradeScale.compile(letters, points, lowestPass);
+            conn.setAutoCommit(false);
+            try {
+                int schemeId = insertGradingScheme(conn, name, description, lowestPass, scale);
+                conn.commit();
+                return schemeId;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid grading scheme " + name + ": " + e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Error creating grading scheme: " + e.getMessage());
+            lastError.set(e);
+        }
+        return -1;
+    }
+    
+    private static int insertGradingScheme(Connection conn, String name, String description,
+                                           String lowestPass, GradeScale scale) throws SQLException {
+        int schemeId;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO grading_schemes (scheme_name, description, lowest_pass) VALUES (?, ?, ?)",
+                 Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, description);
+            pstmt.setString(3, lowestPass);
+            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                rs.next();
+                schemeId = rs.getInt(1);
+            }
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO grading_scheme_grades (scheme_id, ordinal, letter, points) VALUES (?, ?, ?, ?)")) {
+            for (int ordinal = 0; ordinal < scale.size(); ordinal++) {
+                pstmt.setInt(1, schemeId);
+                pstmt.setInt(2, ordinal);
+                pstmt.setString(3, scale.letter(ordinal));
+                if (scale.countsInGpa(ordinal)) {
+                    pstmt.setDouble(4, scale.points(ordinal));
+                } else {
+                    pstmt.setNull(4, Types.REAL);
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        return schemeId;
+    }
+    
+    /**
+     * Retrieves every grading scheme with its letters, in one query
+     */
+    public static List<GradingSchemeRow> getGradingSchemeRows() throws SQLException {
+        String sql = """
+            SELECT s.scheme_id, s.scheme_name, s.description, s.lowest_pass, g.letter, g.points
+            FROM grading_schemes s
+            JOIN grading_scheme_grades g ON g.scheme_id = s.scheme_id
+            ORDER BY s.scheme_name, s.scheme_id, g.ordinal
+        """;
+        List<GradingSchemeRow> rows = new ArrayList<>();
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            int schemeId = 0;
+            String name = null;
+            String description = null;
+            String lowestPass = null;
+            List<String> letters = new ArrayList<>();
+            List<Double> points = new ArrayList<>();
+            
+            while (rs.next()) {
+                if (rs.getInt("scheme_id") != schemeId) {
+                    if (schemeId != 0) {
+                        rows.add(toGradingSchemeRow(schemeId, name, description, lowestPass, letters, points));
+                    }
+                    schemeId = rs.getInt("scheme_id");
+                    name = rs.getString("scheme_name");
+                    description = rs.getString("description");
+                    lowestPass = rs.getString("lowest_pass");
+                    letters.clear();
+                    points.clear();
+                }
+                letters.add(rs.getString("letter"));
+                double value = rs.getDouble("points");
+                points.add(rs.wasNull() ? Double.NaN : value);
+            }
+            if (schemeId != 0) {
+                rows.add(toGradingSchemeRow(schemeId, name, description, lowestPass, letters, points));
+            }
+        }
+        return rows;
+    }
+    
+    private static GradingSchemeRow toGradingSchemeRow(int schemeId, String name, String description,
+                                                       String lowestPass, List<String> letters,
+                                                       List<Double> points) {
+        double[] values = new double[points.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = points.get(i);
+        }
+        return new GradingSchemeRow(schemeId, name, description, lowestPass,
+                                    letters.toArray(new String[0]), values);
+    }
+    
+    /**
+     * Gets the scheme ID of every course that has one, keyed by course ID
+     */
+    public static Map<Integer, Integer> getCourseGradingSchemeIds() throws SQLException {
+        Map<Integer, Integer> schemes = new HashMap<>();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT course_id, grading_scheme_id FROM courses WHERE grading_scheme_id IS NOT NULL")) {
+            while (rs.next()) {
+                schemes.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return schemes;
+    }
+    
+    /**
+     * Attaches a grading scheme to a course; schemeId 0 returns it to the default scale
+     */
+    public static boolean setCourseGradingScheme(int courseId, int schemeId) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "UPDATE courses SET grading_scheme_id = ? WHERE course_id = ?")) {
+            
+            if (schemeId > 0) {
+                pstmt.setInt(1, schemeId);
+            } else {
+                pstmt.setNull(1, Types.INTEGER);
+            }
+            pstmt.setInt(2, courseId);
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("Error setting grading scheme: " + e.getMessage());
+            lastError.set(e);
+            return false;
+        } finally {
+            GradingSchemes.invalidate();
+        }
+    }
+    
+    // ==================== DATA VERSIONS ====================
+    
+    /**
+     * Returns a number that grows whenever any of the given tables is written
+     * Two equal results mean none of the tables changed in between
+     */
+    public static long getDataVersion(String... tables) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(version), 0) FROM data_versions WHERE table_name IN ("
+                   + String.join(", ", Collections.nCopies(tables.length, "?")) + ")";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < tables.length; i++) {
+                pstmt.setString(i + 1, tables[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
+    // ==================== BATCH METHODS ====================
+    // Each batch method inserts all rows on one connection inside a single
+    // transaction, sending them to SQLite in chunks of BATCH_SIZE.
+    // They return the number of rows inserted, or -1 if the batch was rolled back.
+    
+    /**
+     * Inserts many courses in one transaction
+     */
+    public static int createCoursesBatch(List<CourseRow> courses) {
+        String sql = """
+            INSERT INTO courses (course_code, course_name, credits, description)
+            VALUES (?, ?, ?, ?)
+        """;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                
+                for (CourseRow course : courses) {
+                    pstmt.setString(1, course.courseCode());
+                    pstmt.setString(2, course.courseName());
+                    pstmt.setInt(3, course.credits());
+                    pstmt.setString(4, course.description());
+                    pstmt.addBatch();
+                    
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                return courses.size();
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating courses in batch: " + e.getMessage());
+            lastError.set(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Inserts many subjects in one transaction, each linked to its row's course
+     */
+    public static int createSubjectsBatch(List<SubjectRow> subjects) {
+        String sql = """
+            INSERT INTO subjects (subject_code, subject_name, subject_section, credits, description, course_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                
+                for (SubjectRow subject : subjects) {
+                    pstmt.setString(1, subject.subjectCode());
+                    pstmt.setString(2, subject.subjectName());
+                    pstmt.setString(3, subject.subjectSection());
+                    pstmt.setInt(4, subject.credits());
+                    pstmt.setString(5, subject.description());
+                    pstmt.setInt(6, subject.courseId());
+                    pstmt.addBatch();
+                    
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                return subjects.size();
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating subjects in batch: " + e.getMessage());
+            lastError.set(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Inserts many students in one transaction, each registered in its row's course
+     */
+    public static int createStudentsBatch(List<StudentRow> students) {
+        String sql = """
+            INSERT INTO students (student_code, full_name, email, phone, date_of_birth,
+                                 gender, address, enrollment_date, status, course_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                
+                for (StudentRow student : students) {
+                    pstmt.setString(1, student.studentCode());
+                    pstmt.setString(2, student.fullName());
+                    pstmt.setString(3, student.email());
+                    pstmt.setString(4, student.phone());
+                    pstmt.setString(5, student.dateOfBirth());
+                    pstmt.setString(6, student.gender());
+                    pstmt.setString(7, student.address());
+                    pstmt.setString(8, student.enrollmentDate());
+                    pstmt.setString(9, student.status());
+                    pstmt.setInt(10, student.courseId());
+                    pstmt.addBatch();
+                    
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                return students.size();
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating students in batch: " + e.getMessage());
+            lastError.set(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Enrolls many students in subjects in one transaction, keeping any grade already set
+     * If any row would take a student over their term credit limit, nothing is enrolled
+     */
+    public static int enrollStudentsBatch(List<EnrollmentRow> enrollments) {
+        String sql = """
+            INSERT INTO enrollments (student_id, subject_id, semester, grade, enrollment_year)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                
+                for (EnrollmentRow enrollment : enrollments) {
+                    pstmt.setInt(1, enrollment.studentId());
+                    pstmt.setInt(2, enrollment.subjectId());
+                    pstmt.setString(3, enrollment.semester());
+                    pstmt.setString(4, enrollment.grade());
+                    pstmt.setInt(5, enrollment.enrollmentYear());
+                    pstmt.addBatch();
+                    
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                return enrollments.size();
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error enrolling students in batch: " + e.getMessage());
+            lastError.set(e);
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
\ No newline at end of file
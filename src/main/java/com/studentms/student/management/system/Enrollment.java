@@ -7,142 +7,200 @@ package com.studentms.student.management.system;
 import javafx.beans.property.*;
 
 /**
- * Enrollment model class
+ * Enrollment view model
  * Represents a student's enrollment in a course with grade information
+ * Values are plain fields; JavaFX properties are created lazily, see Student
  */
 public class Enrollment {
-    
-    private final IntegerProperty enrollmentId;
-    private final IntegerProperty studentId;
-    private final IntegerProperty courseId;
-    private final StringProperty courseCode;
-    private final StringProperty courseName;
-    private final IntegerProperty credits;
-    private final StringProperty semester;
-    private final IntegerProperty enrollmentYear;
-    private final StringProperty grade;
-    
+
+    private int enrollmentIdValue;
+    private final int studentIdValue;
+    private final int courseIdValue;
+    private final String courseCodeValue;
+    private final String courseNameValue;
+    private final int creditsValue;
+    private final String semesterValue;
+    private final int enrollmentYearValue;
+    private String gradeValue;
+
+    private IntegerProperty enrollmentId;
+    private IntegerProperty studentId;
+    private IntegerProperty courseId;
+    private StringProperty courseCode;
+    private StringProperty courseName;
+    private IntegerProperty credits;
+    private StringProperty semester;
+    private IntegerProperty enrollmentYear;
+    private StringProperty grade;
+
+    /**
+     * Wraps a row loaded from the database
+     * The subject of the row takes the place of the course
+     */
+    public Enrollment(EnrollmentRow row) {
+        this(row.enrollmentId(), row.studentId(), row.subjectId(), row.subjectCode(), row.subjectName(),
+             row.credits(), row.semester(), row.enrollmentYear(), row.grade());
+    }
+
     /**
      * Complete constructor with all fields
      */
     public Enrollment(int enrollmentId, int studentId, int courseId,
                      String courseCode, String courseName, int credits,
                      String semester, int enrollmentYear, String grade) {
-        this.enrollmentId = new SimpleIntegerProperty(enrollmentId);
-        this.studentId = new SimpleIntegerProperty(studentId);
-        this.courseId = new SimpleIntegerProperty(courseId);
-        this.courseCode = new SimpleStringProperty(courseCode);
-        this.courseName = new SimpleStringProperty(courseName);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.semester = new SimpleStringProperty(semester);
-        this.enrollmentYear = new SimpleIntegerProperty(enrollmentYear);
-        this.grade = new SimpleStringProperty(grade != null ? grade : "N/A");
-    }
-    
+        this.enrollmentIdValue = enrollmentId;
+        this.studentIdValue = studentId;
+        this.courseIdValue = courseId;
+        this.courseCodeValue = courseCode;
+        this.courseNameValue = courseName;
+        this.creditsValue = credits;
+        this.semesterValue = semester;
+        this.enrollmentYearValue = enrollmentYear;
+        this.gradeValue = grade != null ? grade : "N/A";
+    }
+
     /**
      * Constructor for new enrollment (without grade)
      */
-    public Enrollment(int studentId, int courseId, String courseCode, 
+    public Enrollment(int studentId, int courseId, String courseCode,
                      String courseName, int credits, String semester, int enrollmentYear) {
-        this.enrollmentId = new SimpleIntegerProperty(0);
-        this.studentId = new SimpleIntegerProperty(studentId);
-        this.courseId = new SimpleIntegerProperty(courseId);
-        this.courseCode = new SimpleStringProperty(courseCode);
-        this.courseName = new SimpleStringProperty(courseName);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.semester = new SimpleStringProperty(semester);
-        this.enrollmentYear = new SimpleIntegerProperty(enrollmentYear);
-        this.grade = new SimpleStringProperty("N/A");
-    }
-    
+        this(0, studentId, courseId, courseCode, courseName, credits, semester, enrollmentYear, null);
+    }
+
+    /**
+     * Returns an immutable snapshot, mapping the "N/A" placeholder back to a null grade
+     */
+    public EnrollmentRow toRow() {
+        String current = getGrade();
+        return new EnrollmentRow(getEnrollmentId(), getStudentId(), getCourseId(), getCourseCode(),
+                                 getCourseName(), null, getCredits(), getSemester(), getEnrollmentYear(),
+                                 "N/A".equals(current) ? null : current);
+    }
+
     // ==================== PROPERTY GETTERS ====================
-    
+
     public IntegerProperty enrollmentIdProperty() {
+        if (enrollmentId == null) {
+            enrollmentId = new SimpleIntegerProperty(this, "enrollmentId", enrollmentIdValue);
+        }
         return enrollmentId;
     }
-    
+
     public IntegerProperty studentIdProperty() {
+        if (studentId == null) {
+            studentId = new SimpleIntegerProperty(this, "studentId", studentIdValue);
+        }
         return studentId;
     }
-    
+
     public IntegerProperty courseIdProperty() {
+        if (courseId == null) {
+            courseId = new SimpleIntegerProperty(this, "courseId", courseIdValue);
+        }
         return courseId;
     }
-    
+
     public StringProperty courseCodeProperty() {
+        if (courseCode == null) {
+            courseCode = new SimpleStringProperty(this, "courseCode", courseCodeValue);
+        }
         return courseCode;
     }
-    
+
     public StringProperty courseNameProperty() {
+        if (courseName == null) {
+            courseName = new SimpleStringProperty(this, "courseName", courseNameValue);
+        }
         return courseName;
     }
-    
+
     public IntegerProperty creditsProperty() {
+        if (credits == null) {
+            credits = new SimpleIntegerProperty(this, "credits", creditsValue);
+        }
         return credits;
     }
-    
+
     public StringProperty semesterProperty() {
+        if (semester == null) {
+            semester = new SimpleStringProperty(this, "semester", semesterValue);
+        }
         return semester;
     }
-    
+
     public IntegerProperty enrollmentYearProperty() {
+        if (enrollmentYear == null) {
+            enrollmentYear = new SimpleIntegerProperty(this, "enrollmentYear", enrollmentYearValue);
+        }
         return enrollmentYear;
     }
-    
+
     public StringProperty gradeProperty() {
+        if (grade == null) {
+            grade = new SimpleStringProperty(this, "grade", gradeValue);
+        }
         return grade;
     }
-    
+
     // ==================== VALUE GETTERS ====================
-    
+
     public int getEnrollmentId() {
-        return enrollmentId.get();
+        return enrollmentId != null ? enrollmentId.get() : enrollmentIdValue;
     }
-    
+
     public int getStudentId() {
-        return studentId.get();
+        return studentId != null ? studentId.get() : studentIdValue;
     }
-    
+
     public int getCourseId() {
-        return courseId.get();
+        return courseId != null ? courseId.get() : courseIdValue;
     }
-    
+
     public String getCourseCode() {
-        return courseCode.get();
+        return courseCode != null ? courseCode.get() : courseCodeValue;
     }
-    
+
     public String getCourseName() {
-        return courseName.get();
+        return courseName != null ? courseName.get() : courseNameValue;
     }
-    
+
     public int getCredits() {
-        return credits.get();
+        return credits != null ? credits.get() : creditsValue;
     }
-    
+
     public String getSemester() {
-        return semester.get();
+        return semester != null ? semester.get() : semesterValue;
     }
-    
+
     public int getEnrollmentYear() {
-        return enrollmentYear.get();
+        return enrollmentYear != null ? enrollmentYear.get() : enrollmentYearValue;
     }
-    
+
     public String getGrade() {
-        return grade.get();
+        return grade != null ? grade.get() : gradeValue;
     }
-    
+
     // ==================== VALUE SETTERS ====================
-    
+
     public void setEnrollmentId(int enrollmentId) {
-        this.enrollmentId.set(enrollmentId);
+        if (this.enrollmentId != null) {
+            this.enrollmentId.set(enrollmentId);
+        } else {
+            this.enrollmentIdValue = enrollmentId;
+        }
     }
-    
+
     public void setGrade(String grade) {
-        this.grade.set(grade != null ? grade : "N/A");
+        String value = grade != null ? grade : "N/A";
+        if (this.grade != null) {
+            this.grade.set(value);
+        } else {
+            this.gradeValue = value;
+        }
     }
-    
+
     @Override
     public String toString() {
-        return courseCode.get() + " - " + courseName.get() + " (" + semester.get() + " " + enrollmentYear.get() + ")";
+        return getCourseCode() + " - " + getCourseName() + " (" + getSemester() + " " + getEnrollmentYear() + ")";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable enrollment row joined with its subject
+ * grade is null until the enrollment is graded; the subject columns are
+ * only filled in by queries and may be null on rows built for inserts
+ */
+public record EnrollmentRow(int enrollmentId, int studentId, int subjectId,
+                            String subjectCode, String subjectName, String subjectSection,
+                            int credits, String semester, int enrollmentYear, String grade) {
+    
+    /**
+     * Creates a row for inserting a new enrollment
+     */
+    public static EnrollmentRow of(int studentId, int subjectId, String semester, int enrollmentYear, String grade) {
+        return new EnrollmentRow(0, studentId, subjectId, null, null, null, 0, semester, enrollmentYear, grade);
+    }
+    
+    /**
+     * Term key of this enrollment, as stored in enrollments.term_key
+     */
+    public int termKey() {
+        return AcademicTerm.key(enrollmentYear, semester);
+    }
+}
@@ -14,11 +14,8 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Redesigned Controller for Subject Assignment and Grade Management
@@ -54,21 +51,9 @@ public class EnrollmentViewController {
     private ObservableList<Student> studentList = FXCollections.observableArrayList();
     private ObservableList<Subject> subjectList = FXCollections.observableArrayList();
     
-    // Grade point mapping for GPA calculation
-    private final Map<String, Double> gradePoints = new HashMap<>() {{
-        put("A+", 4.0);
-        put("A", 4.0);
-        put("A-", 3.7);
-        put("B+", 3.3);
-        put("B", 3.0);
-        put("B-", 2.7);
-        put("C+", 2.3);
-        put("C", 2.0);
-        put("C-", 1.7);
-        put("D+", 1.3);
-        put("D", 1.0);
-        put("F", 0.0);
-    }};
+    // CGPA totals of the selected student on the scale of their course,
+    // summed once on load and then kept by deltas
+    private GradeScale.Accumulator cgpa = new GradeScale.Accumulator();
     
     @FXML
     public void initialize() {
@@ -91,9 +76,7 @@ public class EnrollmentViewController {
         semesterComboBox.setValue("Semester 1");
         
         // Populate grade dropdown
-        gradeComboBox.getItems().addAll("A+", "A", "A-", "B+", "B", "B-", 
-                                        "C+", "C", "C-", "D+", "D", "F", "Not Graded");
-        gradeComboBox.setValue("Not Graded");
+        populateGrades(GradeScale.get());
         
         // Configure year spinner
         int currentYear = LocalDate.now().getYear();
@@ -163,21 +146,9 @@ public class EnrollmentViewController {
     private void loadStudents() {
         studentList.clear();
         
-        try (ResultSet rs = DatabaseManager.getAllStudents()) {
-            while (rs.next()) {
-                Student student = new Student(
-                    rs.getInt("student_id"),
-                    rs.getString("student_code"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("date_of_birth"),
-                    rs.getString("gender"),
-                    rs.getString("address"),
-                    rs.getString("enrollment_date"),
-                    rs.getString("status")
-                );
-                studentList.add(student);
+        try {
+            for (StudentRow row : DatabaseManager.getAllStudentRows()) {
+                studentList.add(new Student(row));
             }
             studentComboBox.setItems(studentList);
         } catch (SQLException e) {
@@ -188,17 +159,9 @@ public class EnrollmentViewController {
     private void loadSubjects() {
         subjectList.clear();
         
-        try (ResultSet rs = DatabaseManager.getAllSubjects()) {
-            while (rs.next()) {
-                Subject subject = new Subject(
-                    rs.getInt("subject_id"),
-                    rs.getString("subject_code"),
-                    rs.getString("subject_name"),
-                    rs.getString("subject_section"),
-                    rs.getInt("credits"),
-                    rs.getString("description")
-                );
-                subjectList.add(subject);
+        try {
+            for (SubjectRow row : DatabaseManager.getAllSubjectRows()) {
+                subjectList.add(new Subject(row));
             }
             subjectComboBox.setItems(subjectList);
         } catch (SQLException e) {
@@ -211,6 +174,10 @@ public class EnrollmentViewController {
         Student selectedStudent = studentComboBox.getValue();
         
         if (selectedStudent != null) {
+            // Grades are entered and counted on the scale of the student's course
+            GradeScale scale = GradingSchemes.forCourse(selectedStudent.getCourseId());
+            cgpa = new GradeScale.Accumulator(scale);
+            populateGrades(scale);
             loadStudentEnrollments(selectedStudent.getStudentId());
             studentInfoLabel.setText("Student Code: " + selectedStudent.getStudentCode() + 
                                     " | Email: " + selectedStudent.getEmail());
@@ -218,26 +185,34 @@ public class EnrollmentViewController {
         }
     }
     
+    private void populateGrades(GradeScale scale) {
+        gradeComboBox.getItems().setAll(scale.letters());
+        gradeComboBox.getItems().add("Not Graded");
+        gradeComboBox.setValue("Not Graded");
+    }
+    
     private void loadStudentEnrollments(int studentId) {
         enrollmentList.clear();
+        cgpa.reset();
         
-        try (ResultSet rs = DatabaseManager.getStudentEnrollments(studentId)) {
-            while (rs.next()) {
+        try {
+            for (EnrollmentRow row : DatabaseManager.getStudentEnrollmentRows(studentId)) {
                 EnrollmentRecord record = new EnrollmentRecord(
-                    rs.getInt("enrollment_id"),
-                    rs.getInt("subject_id"),
-                    rs.getString("subject_code"),
-                    rs.getString("subject_name"),
-                    rs.getString("subject_section"),
-                    rs.getInt("credits"),
-                    rs.getString("semester"),
-                    rs.getInt("enrollment_year"),
-                    rs.getString("grade") != null ? rs.getString("grade") : "Not Graded"
+                    row.enrollmentId(),
+                    row.subjectId(),
+                    row.subjectCode(),
+                    row.subjectName(),
+                    row.subjectSection(),
+                    row.credits(),
+                    row.semester(),
+                    row.enrollmentYear(),
+                    row.grade() != null ? row.grade() : "Not Graded"
                 );
                 enrollmentList.add(record);
+                cgpa.add(record.getGrade(), record.getCredits());
             }
             
-            calculateAndDisplayCGPA();
+            displayCGPA();
             
         } catch (SQLException e) {
             showError("Database Error", "Failed to load enrollments: " + e.getMessage());
@@ -291,15 +266,36 @@ public class EnrollmentViewController {
                 "Not Graded"
             );
             enrollmentList.add(newRecord);
+            cgpa.add(GradeScale.UNGRADED, newRecord.getCredits());
+            DatabaseManager.saveGpaSummary(selectedStudent.getStudentId(), cgpa);
             
             showSuccess("Success", "Subject assigned successfully!");
-            calculateAndDisplayCGPA();
+            displayCGPA();
             updateStatusLabel("Subject assigned to " + selectedStudent.getFullName());
+        } else if (DatabaseManager.isCreditLoadExceeded(DatabaseManager.getLastError())) {
+            showCreditLoadWarning(selectedStudent, selectedSubject, semester, year);
         } else {
             showError("Error", "Failed to assign subject.");
         }
     }
     
+    /**
+     * Explains a rejected assignment with the student's credits in that term and their limit
+     */
+    private void showCreditLoadWarning(Student student, Subject subject, String semester, int year) {
+        try {
+            int credits = DatabaseManager.getTermCredits(student.getStudentId(), AcademicTerm.key(year, semester));
+            int maxCredits = DatabaseManager.getMaxTermCredits(student.getStudentId());
+            showWarning("Credit Load Exceeded",
+                       student.getFullName() + " already has " + credits + " credits in " + semester + " " + year
+                       + ".\n" + subject.getSubjectCode() + " (" + subject.getCredits() + " credits) would go over"
+                       + " the limit of " + maxCredits + " credits per term.");
+        } catch (SQLException e) {
+            showWarning("Credit Load Exceeded",
+                       "This subject would take the student over their credit limit for the term.");
+        }
+    }
+    
     @FXML
     private void handleRemoveAssignment() {
         EnrollmentRecord selectedRecord = enrollmentTable.getSelectionModel().getSelectedItem();
@@ -321,8 +317,10 @@ public class EnrollmentViewController {
                 
                 if (success) {
                     enrollmentList.remove(selectedRecord);
+                    cgpa.remove(selectedRecord.getGrade(), selectedRecord.getCredits());
+                    DatabaseManager.saveGpaSummary(studentComboBox.getValue().getStudentId(), cgpa);
                     showSuccess("Success", "Subject assignment removed!");
-                    calculateAndDisplayCGPA();
+                    displayCGPA();
                     updateStatusLabel("Assignment removed");
                 } else {
                     showError("Error", "Failed to remove assignment.");
@@ -350,9 +348,11 @@ public class EnrollmentViewController {
         boolean success = DatabaseManager.updateGrade(selectedRecord.getEnrollmentId(), newGrade);
         
         if (success) {
+            cgpa.replace(selectedRecord.getGrade(), newGrade, selectedRecord.getCredits());
+            DatabaseManager.saveGpaSummary(studentComboBox.getValue().getStudentId(), cgpa);
             selectedRecord.setGrade(newGrade != null ? newGrade : "Not Graded");
             enrollmentTable.refresh();
-            calculateAndDisplayCGPA();
+            displayCGPA();
             
             showSuccess("Success", "Grade updated successfully!");
             updateStatusLabel("Grade updated for " + selectedRecord.getSubjectCode());
@@ -396,36 +396,19 @@ public class EnrollmentViewController {
     }
     
     /**
-     * Calculates and displays CGPA for the selected student
+     * Displays CGPA for the selected student
      * CGPA = Total Grade Points / Total Graded Credits
+     * Only grades on the scale count, ungraded subjects add to total credits only
      */
-    private void calculateAndDisplayCGPA() {
-        double totalPoints = 0.0;
-        int totalCredits = 0;
-        int gradedCredits = 0;
-        
-        for (EnrollmentRecord record : enrollmentList) {
-            String grade = record.getGrade();
-            int credits = record.getCredits();
-            
-            totalCredits += credits;
-            
-            // Only count grades that have been assigned
-            if (gradePoints.containsKey(grade)) {
-                totalPoints += gradePoints.get(grade) * credits;
-                gradedCredits += credits;
-            }
-        }
-        
-        if (gradedCredits > 0) {
-            double cgpa = totalPoints / gradedCredits;
-            cgpaLabel.setText(String.format("CGPA: %.2f", cgpa));
+    private void displayCGPA() {
+        if (cgpa.hasGrades()) {
+            cgpaLabel.setText(String.format("CGPA: %.2f", cgpa.gpa()));
         } else {
             cgpaLabel.setText("CGPA: N/A");
         }
         
-        totalCreditsLabel.setText("Total Credits: " + totalCredits + 
-                                 " (Graded: " + gradedCredits + ")");
+        totalCreditsLabel.setText("Total Credits: " + cgpa.getTotalCredits() + 
+                                 " (Graded: " + cgpa.getGradedCredits() + ")");
     }
     
     private void updateStatusLabel(String message) {
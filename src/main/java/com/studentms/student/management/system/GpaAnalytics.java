@@ -0,0 +1,370 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GPA distributions and ranks over all students
+ *
+ * SQLite does the heavy work: grade points are mapped and summed per student
+ * in one grouped pass over enrollments, and window functions add the cohort
+ * size and rank. Results arrive sorted by value within each cohort, so
+ * histograms and percentiles are filled in a single streaming pass without
+ * holding the cohort in memory.
+ *
+ * A student's cohort is their course (students.course_id). Grade points come
+ * from the grading scheme of the student's course, and for section
+ * distributions from the scheme of the section's course (GradingSchemes), as
+ * everywhere else: every letter with points counts, F included, and ungraded
+ * enrollments and letters without points are left out
+ *
+ * Usage: java ... GpaAnalytics [--year=2024] [--course=ID] [--student=ID] [--db=path]
+ */
+public class GpaAnalytics {
+
+    // Passed as year to cover all enrollment years
+    public static final int ALL_YEARS = 0;
+
+    // Histogram buckets splitting 0 to the scale's top points evenly, e.g. of 0.5
+    // points on a 4.0 scale: 0.0-0.5, 0.5-1.0, ... 3.5-4.0 (4.0 included)
+    public static final int BUCKETS = 8;
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    /**
+     * GPA of each student from their graded enrollments, optionally limited to one year
+     * The grade CASE holds configured letters, so the SQL is formatted once with it as an argument
+     */
+    private static String studentGpaSql(int year) {
+        return """
+            SELECT student_id, SUM(points * credits) / SUM(credits) AS gpa
+            FROM (SELECT e.student_id, sub.credits, %s AS points
+                  FROM enrollments e
+                  JOIN subjects sub ON sub.subject_id = e.subject_id
+                  JOIN students est ON est.student_id = e.student_id
+                  WHERE e.grade IS NOT NULL %s)
+            WHERE points IS NOT NULL AND credits > 0
+            GROUP BY student_id
+        """.formatted(GradingSchemes.toSqlCase("e.grade", "est.course_id"), yearCondition(year));
+    }
+
+    /**
+     * Summary of one cohort or subject: count, mean, percentiles and a histogram
+     * percentiles holds the 10th, 25th, 50th, 75th and 90th percentile; the
+     * histogram has BUCKETS buckets of bucketWidth points each
+     */
+    public record Distribution(int id, String label, int count, double mean,
+                               double[] percentiles, int[] histogram, double bucketWidth) {
+
+        public double median() {
+            return percentiles[2];
+        }
+    }
+
+    /**
+     * A student's place in their course cohort; rank 1 is the highest GPA
+     * and equal GPAs share a rank
+     */
+    public record StudentRank(int studentId, String studentCode, String fullName, int courseId,
+                              double gpa, int rank, int cohortSize) {
+
+        /**
+         * Share of the cohort ranked at or above this student, e.g. 5.0 for the top 5%
+         */
+        public double topPercent() {
+            return cohortSize > 0 ? rank * 100.0 / cohortSize : 0.0;
+        }
+    }
+
+    private GpaAnalytics() {
+    }
+
+    // ==================== DISTRIBUTIONS ====================
+
+    /**
+     * Distribution of student GPAs per course, for one year or ALL_YEARS
+     */
+    public static List<Distribution> getCourseDistributions(int year) throws SQLException {
+        String sql = """
+            SELECT st.course_id, c.course_code, g.gpa AS value, 1 AS weight,
+                   COUNT(*) OVER (PARTITION BY st.course_id) AS total, st.course_id AS scale_course
+            FROM (%s) g
+            JOIN students st ON st.student_id = g.student_id
+            LEFT JOIN courses c ON c.course_id = st.course_id
+            ORDER BY st.course_id, g.gpa
+        """.formatted(studentGpaSql(year));
+
+        return readDistributions(sql, year, "No Course");
+    }
+
+    /**
+     * Distribution of grade points per subject section, for one year or ALL_YEARS
+     * Grades are counted in SQL, so each subject arrives as a few (points, count) rows
+     * Points are on the scale of the section's course
+     */
+    public static List<Distribution> getSubjectDistributions(int year) throws SQLException {
+        String sql = """
+            SELECT s.subject_id, s.subject_code || ' ' || s.subject_section AS label,
+                   g.points AS value, g.students AS weight,
+                   SUM(g.students) OVER (PARTITION BY s.subject_id) AS total, s.course_id AS scale_course
+            FROM (SELECT e.subject_id, %s AS points, COUNT(*) AS students
+                  FROM enrollments e
+                  JOIN subjects es ON es.subject_id = e.subject_id
+                  WHERE e.grade IS NOT NULL %s
+                  GROUP BY e.subject_id, points) g
+            JOIN subjects s ON s.subject_id = g.subject_id
+            WHERE g.points IS NOT NULL
+            ORDER BY s.subject_id, g.points
+        """.formatted(GradingSchemes.toSqlCase("e.grade", "es.course_id"), yearCondition(year));
+
+        return readDistributions(sql, year, "Unknown Subject");
+    }
+
+    private static List<Distribution> readDistributions(String sql, int year, String missingLabel)
+            throws SQLException {
+        List<Distribution> result = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindYear(pstmt, 1, year);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                DistributionBuilder current = null;
+                int currentId = Integer.MIN_VALUE;
+
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (current == null || id != currentId) {
+                        if (current != null) {
+                            result.add(current.build());
+                        }
+                        String label = rs.getString(2);
+                        // NULL course_id reads as 0, the default scale
+                        GradeScale scale = GradingSchemes.forCourse(rs.getInt(6));
+                        current = new DistributionBuilder(id, label != null ? label : missingLabel, rs.getLong(5),
+                                                          bucketWidth(scale));
+                        currentId = id;
+                    }
+                    current.add(rs.getDouble(3), rs.getInt(4));
+                }
+                if (current != null) {
+                    result.add(current.build());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects one distribution from values arriving in ascending order
+     * With the total known up front, each percentile is taken the moment the
+     * running count reaches its nearest rank
+     */
+    private static final class DistributionBuilder {
+
+        private final int id;
+        private final String label;
+        private final long total;
+        private final long[] targets = new long[PERCENTILES.length];
+        private final double[] percentiles = new double[PERCENTILES.length];
+        private final int[] histogram = new int[BUCKETS];
+        private final double bucketWidth;
+        private long seen;
+        private double sum;
+        private int next;
+
+        DistributionBuilder(int id, String label, long total, double bucketWidth) {
+            this.id = id;
+            this.label = label;
+            this.total = total;
+            this.bucketWidth = bucketWidth;
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                targets[i] = Math.max(1, (long) Math.ceil(PERCENTILES[i] * total));
+            }
+        }
+
+        void add(double value, int weight) {
+            seen += weight;
+            sum += value * weight;
+            histogram[bucketOf(value, bucketWidth)] += weight;
+            while (next < targets.length && seen >= targets[next]) {
+                percentiles[next++] = value;
+            }
+        }
+
+        Distribution build() {
+            return new Distribution(id, label, (int) seen, seen > 0 ? sum / seen : 0.0, percentiles, histogram,
+                                    bucketWidth);
+        }
+    }
+
+    /**
+     * Width of the histogram buckets for a scale, BUCKETS of them up to its top grade points
+     */
+    public static double bucketWidth(GradeScale scale) {
+        double maxPoints = scale.maxPoints();
+        return maxPoints > 0 ? maxPoints / BUCKETS : 1.0;
+    }
+
+    /**
+     * Histogram bucket of a grade point value
+     */
+    public static int bucketOf(double value, double bucketWidth) {
+        int bucket = (int) (value / bucketWidth);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    // ==================== RANKS ====================
+
+    /**
+     * Ranks of all students of a course by GPA, best first
+     */
+    public static List<StudentRank> getCourseRanks(int courseId, int year) throws SQLException {
+        String sql = rankSql("WHERE st.course_id = ?", year) + " ORDER BY rnk, student_code";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = bindYear(pstmt, 1, year);
+            pstmt.setInt(index, courseId);
+            return readRanks(pstmt);
+        }
+    }
+
+    /**
+     * Rank of one student within their course, or null if they have no graded subjects
+     */
+    public static StudentRank getStudentRank(int studentId, int year) throws SQLException {
+        String sql = "SELECT * FROM (" + rankSql(
+            "WHERE st.course_id IS (SELECT course_id FROM students WHERE student_id = ?)", year)
+            + ") WHERE student_id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = bindYear(pstmt, 1, year);
+            pstmt.setInt(index, studentId);
+            pstmt.setInt(index + 1, studentId);
+            List<StudentRank> ranks = readRanks(pstmt);
+            return ranks.isEmpty() ? null : ranks.get(0);
+        }
+    }
+
+    private static String rankSql(String cohortFilter, int year) {
+        return """
+            SELECT g.student_id, st.student_code, st.full_name, st.course_id, g.gpa,
+                   RANK() OVER (PARTITION BY st.course_id ORDER BY g.gpa DESC) AS rnk,
+                   COUNT(*) OVER (PARTITION BY st.course_id) AS cohort
+            FROM (%s) g
+            JOIN students st ON st.student_id = g.student_id
+            %s
+        """.formatted(studentGpaSql(year), cohortFilter);
+    }
+
+    private static List<StudentRank> readRanks(PreparedStatement pstmt) throws SQLException {
+        List<StudentRank> ranks = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                ranks.add(new StudentRank(
+                    rs.getInt("student_id"),
+                    rs.getString("student_code"),
+                    rs.getString("full_name"),
+                    rs.getInt("course_id"),
+                    rs.getDouble("gpa"),
+                    rs.getInt("rnk"),
+                    rs.getInt("cohort")
+                ));
+            }
+        }
+        return ranks;
+    }
+
+    // ==================== SQL HELPERS ====================
+
+    /**
+     * Year condition for the enrollments of a query, or nothing for ALL_YEARS
+     */
+    private static String yearCondition(int year) {
+        return year == ALL_YEARS ? "" : "AND e.enrollment_year = ?";
+    }
+
+    /**
+     * Binds the year if the query has one; returns the next parameter index
+     */
+    private static int bindYear(PreparedStatement pstmt, int index, int year) throws SQLException {
+        if (year == ALL_YEARS) {
+            return index;
+        }
+        pstmt.setInt(index, year);
+        return index + 1;
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    /**
+     * Prints course and subject distributions, or the ranking of one course or student
+     */
+    public static void main(String[] args) throws SQLException {
+        int year = ALL_YEARS;
+        int course = -1;
+        int student = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--year=")) {
+                year = Integer.parseInt(arg.substring("--year=".length()));
+            } else if (arg.startsWith("--course=")) {
+                course = Integer.parseInt(arg.substring("--course=".length()));
+            } else if (arg.startsWith("--student=")) {
+                student = Integer.parseInt(arg.substring("--student=".length()));
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            }
+        }
+
+        long start = System.nanoTime();
+        if (student >= 0) {
+            StudentRank rank = getStudentRank(student, year);
+            if (rank == null) {
+                System.out.println("Student " + student + " has no graded subjects");
+            } else {
+                System.out.printf("%s %s: GPA %.2f, rank %d of %d (top %.1f%%)%n", rank.studentCode(),
+                        rank.fullName(), rank.gpa(), rank.rank(), rank.cohortSize(), rank.topPercent());
+            }
+        } else if (course >= 0) {
+            for (StudentRank rank : getCourseRanks(course, year)) {
+                System.out.printf("%6d  %-10s %-30s %.2f%n", rank.rank(), rank.studentCode(), rank.fullName(), rank.gpa());
+            }
+        } else {
+            System.out.println("STUDENT GPA BY COURSE");
+            printDistributions(getCourseDistributions(year));
+            System.out.println();
+            System.out.println("GRADE POINTS BY SUBJECT");
+            printDistributions(getSubjectDistributions(year));
+        }
+        System.out.printf("Done in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void printDistributions(List<Distribution> distributions) {
+        System.out.printf("%-24s %8s %6s %6s %6s %6s %6s %6s  histogram (" + BUCKETS + " buckets up to the top grade)%n",
+                "", "count", "mean", "p10", "p25", "p50", "p75", "p90");
+        for (Distribution d : distributions) {
+            StringBuilder histogram = new StringBuilder();
+            for (int count : d.histogram()) {
+                histogram.append(String.format(" %6d", count));
+            }
+            System.out.printf("%-24s %8d %6.2f %6.2f %6.2f %6.2f %6.2f %6.2f %s%n", d.label(), d.count(), d.mean(),
+                    d.percentiles()[0], d.percentiles()[1], d.percentiles()[2], d.percentiles()[3],
+                    d.percentiles()[4], histogram);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What-if GPA projection for one student
+ *
+ * Built once from the grades the portal has already loaded. The subjects
+ * without a grade become open slots that can be given hypothetical grades,
+ * and future credits can be added with an expected grade. Every change
+ * adjusts GradeScale.Accumulator totals by that one slot, so projecting
+ * costs a few arithmetic operations and never touches the database
+ */
+public final class GpaSimulator {
+
+    /**
+     * Average grade points needed on all open credits to reach a target CGPA
+     * ordinal is the lowest letter that reaches it when earned in every open
+     * credit, or UNGRADED when even the best letter falls short
+     */
+    public record Requirement(double target, double averagePoints, int openCredits, int ordinal) {
+
+        public boolean isReachable() {
+            return isSecured() || ordinal != GradeScale.UNGRADED;
+        }
+
+        /**
+         * True when the target is met whatever the open subjects are graded
+         */
+        public boolean isSecured() {
+            return averagePoints <= 0.0;
+        }
+    }
+
+    private final GradeScale scale;
+    // Actual grades only, the base every requirement is solved from
+    private final GradeScale.Accumulator actual;
+    // Actual grades plus everything hypothetical
+    private final GradeScale.Accumulator projected;
+
+    // Terms that have open subjects, each with its actual and hypothetical grades
+    private final int[] termKeys;
+    private final GradeScale.Accumulator[] terms;
+
+    // Open subjects: credits, index into terms, hypothetical grade ordinal
+    private final int[] slotCredits;
+    private final int[] slotTerm;
+    private final int[] slotGrade;
+
+    private int futureCredits;
+    private int futureGrade = GradeScale.UNGRADED;
+
+    /**
+     * Creates a simulator for a student's grades as shown in the portal, made with the given scale
+     */
+    public GpaSimulator(List<StudentPortalViewController.GradeRecord> grades, GradeScale scale) {
+        this.scale = scale;
+        this.actual = new GradeScale.Accumulator(scale);
+        this.projected = new GradeScale.Accumulator(scale);
+
+        int slots = 0;
+        int[] openTerms = new int[grades.size()];
+        int termCount = 0;
+        for (StudentPortalViewController.GradeRecord record : grades) {
+            if (record.getGradeOrdinal() == GradeScale.UNGRADED) {
+                slots++;
+                if (indexOf(openTerms, termCount, record.getTermKey()) < 0) {
+                    openTerms[termCount++] = record.getTermKey();
+                }
+            }
+        }
+        this.termKeys = Arrays.copyOf(openTerms, termCount);
+        Arrays.sort(termKeys);
+        this.terms = new GradeScale.Accumulator[termCount];
+        for (int i = 0; i < termCount; i++) {
+            terms[i] = new GradeScale.Accumulator(scale);
+        }
+
+        this.slotCredits = new int[slots];
+        this.slotTerm = new int[slots];
+        this.slotGrade = new int[slots];
+        Arrays.fill(slotGrade, GradeScale.UNGRADED);
+
+        int slot = 0;
+        for (StudentPortalViewController.GradeRecord record : grades) {
+            int ordinal = record.getGradeOrdinal();
+            actual.add(ordinal, record.getCredits());
+            projected.add(ordinal, record.getCredits());
+
+            int term = indexOf(termKeys, termKeys.length, record.getTermKey());
+            if (term >= 0) {
+                terms[term].add(ordinal, record.getCredits());
+            }
+            if (ordinal == GradeScale.UNGRADED) {
+                slotCredits[slot] = record.getCredits();
+                slotTerm[slot] = term;
+                slot++;
+            }
+        }
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== WHAT-IF CHANGES ====================
+
+    /**
+     * Number of open subjects, numbered in the order of the grades given to the constructor
+     */
+    public int getSlotCount() {
+        return slotCredits.length;
+    }
+
+    public int getSlotCredits(int slot) {
+        return slotCredits[slot];
+    }
+
+    public int getSlotGrade(int slot) {
+        return slotGrade[slot];
+    }
+
+    /**
+     * Gives an open subject a hypothetical grade ordinal, or UNGRADED to clear it
+     */
+    public void setSlotGrade(int slot, int ordinal) {
+        int credits = slotCredits[slot];
+        projected.replace(slotGrade[slot], ordinal, credits);
+        terms[slotTerm[slot]].replace(slotGrade[slot], ordinal, credits);
+        slotGrade[slot] = ordinal;
+    }
+
+    /**
+     * Adds credits not enrolled yet, expected at the given grade ordinal
+     */
+    public void setFuture(int credits, int ordinal) {
+        if (futureCredits > 0) {
+            projected.remove(futureGrade, futureCredits);
+        }
+        futureCredits = Math.max(0, credits);
+        futureGrade = ordinal;
+        if (futureCredits > 0) {
+            projected.add(futureGrade, futureCredits);
+        }
+    }
+
+    /**
+     * Clears every hypothetical grade and the future credits
+     */
+    public void reset() {
+        for (int slot = 0; slot < slotGrade.length; slot++) {
+            setSlotGrade(slot, GradeScale.UNGRADED);
+        }
+        setFuture(0, GradeScale.UNGRADED);
+    }
+
+    // ==================== PROJECTIONS ====================
+
+    public double getActualCgpa() {
+        return actual.gpa();
+    }
+
+    public double getProjectedCgpa() {
+        return projected.gpa();
+    }
+
+    public int getProjectedGradedCredits() {
+        return projected.getGradedCredits();
+    }
+
+    /**
+     * Terms with open subjects, oldest first
+     */
+    public int[] getOpenTermKeys() {
+        return termKeys.clone();
+    }
+
+    /**
+     * Projected GPA of the index-th open term
+     */
+    public double getProjectedTermGpa(int term) {
+        return terms[term].gpa();
+    }
+
+    /**
+     * Solves for the grades needed on every open subject and the future credits
+     * to finish with the target CGPA, from the actual grades alone
+     */
+    public Requirement require(double target) {
+        int open = futureCredits;
+        for (int credits : slotCredits) {
+            open += credits;
+        }
+        if (open == 0) {
+            boolean met = actual.hasGrades() && actual.gpa() >= target;
+            return new Requirement(target, met ? 0.0 : Double.POSITIVE_INFINITY, 0, GradeScale.UNGRADED);
+        }
+
+        double needed = (target * (actual.getGradedCredits() + open) - actual.getQualityPoints()) / open;
+
+        // Lowest letter whose points still reach the needed average
+        int best = GradeScale.UNGRADED;
+        for (int ordinal = 0; ordinal < scale.size(); ordinal++) {
+            double points = scale.points(ordinal);
+            if (scale.countsInGpa(ordinal) && points >= needed - 1e-9 && (best == GradeScale.UNGRADED || points <= scale.points(best))) {
+                best = ordinal;
+            }
+        }
+        return new Requirement(target, needed, open, best);
+    }
+}
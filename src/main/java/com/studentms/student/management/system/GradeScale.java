@@ -0,0 +1,357 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The letter grades in use and their grade points
+ *
+ * Each letter has an ordinal (0 = best) indexing a primitive points table, so
+ * GPA code works on ints and doubles: no boxing and no null for ungraded work.
+ * Anything that is not a letter of the scale (null, "N/A", "Not Graded") has
+ * the ordinal UNGRADED and is left out of GPAs. Every letter grade with points
+ * counts, F included with its 0.0 points. A letter written without points
+ * ("P:-", e.g. on a pass/fail scheme) is a grade that passes or fails but is
+ * left out of GPAs.
+ *
+ * The default scale is read once from grade-scale.properties in the working
+ * directory, falling back to the built-in 4.0 scale:
+ *   grades=A+:4.0, A:4.0, A-:3.7, B+:3.3, B:3.0, B-:2.7, C+:2.3, C:2.0, C-:1.7, D+:1.3, D:1.0, F:0.0
+ *   passing.lowest=D      (lowest passing letter; every letter before it in the list passes too)
+ * Courses with their own grading scheme use the scale compiled from it, see GradingSchemes
+ */
+public final class GradeScale {
+
+    public static final String CONFIG_FILE = "grade-scale.properties";
+
+    // Ordinal of anything that is not a letter of the scale
+    public static final int UNGRADED = -1;
+
+    private static final String DEFAULT_GRADES =
+        "A+:4.0, A:4.0, A-:3.7, B+:3.3, B:3.0, B-:2.7, C+:2.3, C:2.0, C-:1.7, D+:1.3, D:1.0, F:0.0";
+    private static final String DEFAULT_LOWEST_PASS = "D";
+    private static final String NO_POINTS = "-";
+
+    private static volatile GradeScale current;
+
+    private final String[] letters;
+    // NaN for letters that are left out of GPAs
+    private final double[] points;
+    // Ordinals below this pass
+    private final int failOrdinal;
+
+    private GradeScale(String[] letters, double[] points, int failOrdinal) {
+        this.letters = letters;
+        this.points = points;
+        this.failOrdinal = failOrdinal;
+    }
+
+    /**
+     * The scale in use, loaded from grade-scale.properties on first use
+     */
+    public static GradeScale get() {
+        GradeScale scale = current;
+        if (scale == null) {
+            synchronized (GradeScale.class) {
+                if (current == null) {
+                    current = load(Paths.get(CONFIG_FILE));
+                }
+                scale = current;
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * Reads a scale file; a missing or invalid file gives the built-in scale
+     */
+    static GradeScale load(Path file) {
+        Properties config = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                config.load(reader);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+            }
+        }
+        try {
+            return parse(config.getProperty("grades", DEFAULT_GRADES),
+                         config.getProperty("passing.lowest", DEFAULT_LOWEST_PASS));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid grade scale in " + file + ", using the default: " + e.getMessage());
+            return parse(DEFAULT_GRADES, DEFAULT_LOWEST_PASS);
+        }
+    }
+
+    /**
+     * Builds a scale from "letter:points" entries, best grade first; "letter:-" has no points
+     */
+    static GradeScale parse(String grades, String lowestPass) {
+        String[] entries = grades.split(",");
+        String[] letters = new String[entries.length];
+        double[] points = new double[entries.length];
+
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected letter:points but found '" + entries[i].trim() + "'");
+            }
+            letters[i] = parts[0].trim();
+            points[i] = parts[1].trim().equals(NO_POINTS) ? Double.NaN : Double.parseDouble(parts[1].trim());
+        }
+        return compile(letters, points, lowestPass);
+    }
+
+    /**
+     * Builds a scale from letters, best first, and their points (NaN for none)
+     * Throws IllegalArgumentException for blank or repeated letters and an unknown passing letter
+     */
+    static GradeScale compile(String[] letters, double[] points, String lowestPass) {
+        if (letters.length == 0 || letters.length != points.length) {
+            throw new IllegalArgumentException("a scale needs at least one letter, each with its points");
+        }
+        for (int i = 0; i < letters.length; i++) {
+            if (letters[i] == null || letters[i].isBlank()) {
+                throw new IllegalArgumentException("grade " + (i + 1) + " has no letter");
+            }
+            if (Arrays.asList(letters).subList(0, i).contains(letters[i])) {
+                throw new IllegalArgumentException("grade " + letters[i] + " is listed twice");
+            }
+        }
+
+        GradeScale scale = new GradeScale(letters.clone(), points.clone(), letters.length);
+        int lowest = lowestPass == null ? UNGRADED : scale.ordinal(lowestPass.trim());
+        if (lowest == UNGRADED) {
+            throw new IllegalArgumentException("passing grade " + lowestPass + " is not on the scale");
+        }
+        return new GradeScale(scale.letters, scale.points, lowest + 1);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    /**
+     * Ordinal of a letter grade, or UNGRADED; compares in place without allocating
+     */
+    public int ordinal(String grade) {
+        if (grade != null) {
+            for (int i = 0; i < letters.length; i++) {
+                if (letters[i].equals(grade)) {
+                    return i;
+                }
+            }
+        }
+        return UNGRADED;
+    }
+
+    /**
+     * Grade points of an ordinal; 0.0 for UNGRADED and letters without points
+     */
+    public double points(int ordinal) {
+        return countsInGpa(ordinal) ? points[ordinal] : 0.0;
+    }
+
+    public double points(String grade) {
+        return points(ordinal(grade));
+    }
+
+    /**
+     * True for letter grades with points, the only ones that count towards a GPA
+     */
+    public boolean countsInGpa(int ordinal) {
+        return ordinal >= 0 && !Double.isNaN(points[ordinal]);
+    }
+
+    /**
+     * True if at least one letter counts towards a GPA; false e.g. for pass/fail scales
+     */
+    public boolean hasGpaGrades() {
+        for (int i = 0; i < letters.length; i++) {
+            if (countsInGpa(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Highest grade points of any letter that counts, 0.0 when none does
+     */
+    public double maxPoints() {
+        double max = 0.0;
+        for (int i = 0; i < letters.length; i++) {
+            if (countsInGpa(i)) {
+                max = Math.max(max, points[i]);
+            }
+        }
+        return max;
+    }
+
+    public boolean isGraded(String grade) {
+        return ordinal(grade) != UNGRADED;
+    }
+
+    public boolean isPassing(int ordinal) {
+        return ordinal >= 0 && ordinal < failOrdinal;
+    }
+
+    public String letter(int ordinal) {
+        return letters[ordinal];
+    }
+
+    /**
+     * Number of letter grades on the scale
+     */
+    public int size() {
+        return letters.length;
+    }
+
+    /**
+     * Letter grades from best to worst
+     */
+    public List<String> letters() {
+        return List.of(letters);
+    }
+
+    /**
+     * SQL CASE expression giving the points of a grade column, NULL when it does not count
+     * A scale without points gives plain NULL, as CASE needs at least one WHEN
+     */
+    public String toSqlCase(String column) {
+        if (!hasGpaGrades()) {
+            return "NULL";
+        }
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (int i = 0; i < letters.length; i++) {
+            if (countsInGpa(i)) {
+                sql.append(" WHEN '").append(letters[i].replace("'", "''")).append("' THEN ").append(points[i]);
+            }
+        }
+        return sql.append(" END").toString();
+    }
+
+    // ==================== GPA ====================
+
+    /**
+     * Running GPA over graded subjects; reuse one instance with reset() to
+     * accumulate many students without allocating
+     *
+     * Quality points are kept in thousandths of a point, so remove() and
+     * replace() undo add() exactly and a total kept up to date by deltas never
+     * drifts from one summed from scratch
+     */
+    public static final class Accumulator {
+
+        private static final int POINT_SCALE = 1000;
+
+        private final GradeScale scale;
+        private long scaledPoints;
+        private int gradedCredits;
+        private int totalCredits;
+        private int subjects;
+
+        public Accumulator() {
+            this(GradeScale.get());
+        }
+
+        public Accumulator(GradeScale scale) {
+            this.scale = scale;
+        }
+
+        /**
+         * Adds a subject; its credits only count towards the GPA once it has a letter grade with points
+         */
+        public Accumulator add(int ordinal, int credits) {
+            totalCredits += credits;
+            subjects++;
+            if (scale.countsInGpa(ordinal)) {
+                scaledPoints += scaledPoints(ordinal) * credits;
+                gradedCredits += credits;
+            }
+            return this;
+        }
+
+        public Accumulator add(String grade, int credits) {
+            return add(scale.ordinal(grade), credits);
+        }
+
+        /**
+         * Takes back a subject added earlier with the same grade and credits
+         */
+        public Accumulator remove(int ordinal, int credits) {
+            totalCredits -= credits;
+            subjects--;
+            if (scale.countsInGpa(ordinal)) {
+                scaledPoints -= scaledPoints(ordinal) * credits;
+                gradedCredits -= credits;
+            }
+            return this;
+        }
+
+        public Accumulator remove(String grade, int credits) {
+            return remove(scale.ordinal(grade), credits);
+        }
+
+        /**
+         * Regrades one subject already added, e.g. from UNGRADED to a letter
+         */
+        public Accumulator replace(int oldOrdinal, int newOrdinal, int credits) {
+            return remove(oldOrdinal, credits).add(newOrdinal, credits);
+        }
+
+        public Accumulator replace(String oldGrade, String newGrade, int credits) {
+            return replace(scale.ordinal(oldGrade), scale.ordinal(newGrade), credits);
+        }
+
+        private long scaledPoints(int ordinal) {
+            return Math.round(scale.points(ordinal) * POINT_SCALE);
+        }
+
+        /**
+         * GPA over the graded subjects added, or 0.0 if none counts yet
+         */
+        public double gpa() {
+            return gradedCredits > 0 ? getQualityPoints() / gradedCredits : 0.0;
+        }
+
+        /**
+         * Sum of grade points times credits over the graded subjects
+         */
+        public double getQualityPoints() {
+            return (double) scaledPoints / POINT_SCALE;
+        }
+
+        public boolean hasGrades() {
+            return gradedCredits > 0;
+        }
+
+        public int getGradedCredits() {
+            return gradedCredits;
+        }
+
+        public int getTotalCredits() {
+            return totalCredits;
+        }
+
+        public int getSubjects() {
+            return subjects;
+        }
+
+        public void reset() {
+            scaledPoints = 0;
+            gradedCredits = 0;
+            totalCredits = 0;
+            subjects = 0;
+        }
+    }
+}
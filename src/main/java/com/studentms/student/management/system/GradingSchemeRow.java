@@ -0,0 +1,26 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable grading scheme as stored in grading_schemes and grading_scheme_grades
+ * letters run from best to worst; points[i] is NaN when letters[i] has no grade points
+ */
+public record GradingSchemeRow(int schemeId, String schemeName, String description, String lowestPass,
+                               String[] letters, double[] points) {
+
+    /**
+     * Compiles the scheme into a grade scale
+     * Throws IllegalArgumentException if the stored scheme is inconsistent
+     */
+    public GradeScale toGradeScale() {
+        return GradeScale.compile(letters, points, lowestPass);
+    }
+
+    @Override
+    public String toString() {
+        return schemeName;
+    }
+}
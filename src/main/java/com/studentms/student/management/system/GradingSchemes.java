@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Grade scale of each course, compiled from the grading schemes in the database
+ *
+ * All schemes and course assignments are read with two queries on first use
+ * and compiled into immutable GradeScale objects, one per scheme, held in a map
+ * by course_id. Looking up a scale is then a map read, so GPA code resolves it
+ * once per student instead of querying per grade. Courses without a scheme, and
+ * students without a course, get the default scale (GradeScale.get()).
+ *
+ * The map is replaced as a whole, so readers on any thread see either the old
+ * or the new assignments. invalidate() drops it after a scheme or assignment
+ * changes; the next lookup reloads
+ */
+public final class GradingSchemes {
+
+    private static volatile Map<Integer, GradeScale> byCourse;
+
+    private GradingSchemes() {
+    }
+
+    /**
+     * Grade scale of a course; courseId 0 or a course without a scheme gives the default scale
+     */
+    public static GradeScale forCourse(int courseId) {
+        GradeScale scale = courseScales().get(courseId);
+        return scale != null ? scale : GradeScale.get();
+    }
+
+    /**
+     * SQL expression giving the points of a grade column on the scale of the course
+     * in courseColumn, NULL when the grade does not count there
+     * Courses are grouped by scheme, so the expression has one branch per scheme in use
+     */
+    public static String toSqlCase(String gradeColumn, String courseColumn) {
+        GradeScale defaultScale = GradeScale.get();
+        Map<GradeScale, List<Integer>> coursesByScale = new IdentityHashMap<>();
+        List<GradeScale> order = new ArrayList<>();
+        for (Map.Entry<Integer, GradeScale> course : new TreeMap<>(courseScales()).entrySet()) {
+            if (course.getValue() != defaultScale) {
+                coursesByScale.computeIfAbsent(course.getValue(), scale -> {
+                    order.add(scale);
+                    return new ArrayList<>();
+                }).add(course.getKey());
+            }
+        }
+        if (order.isEmpty()) {
+            return defaultScale.toSqlCase(gradeColumn);
+        }
+
+        StringBuilder sql = new StringBuilder("CASE");
+        for (GradeScale scale : order) {
+            StringBuilder ids = new StringBuilder();
+            for (int courseId : coursesByScale.get(scale)) {
+                ids.append(ids.length() > 0 ? ", " : "").append(courseId);
+            }
+            sql.append(" WHEN ").append(courseColumn).append(" IN (").append(ids).append(") THEN ")
+               .append(scale.toSqlCase(gradeColumn));
+        }
+        return sql.append(" ELSE ").append(defaultScale.toSqlCase(gradeColumn)).append(" END").toString();
+    }
+
+    /**
+     * Forgets the compiled schemes, e.g. after a course was given another scheme
+     */
+    public static void invalidate() {
+        byCourse = null;
+    }
+
+    private static Map<Integer, GradeScale> courseScales() {
+        Map<Integer, GradeScale> scales = byCourse;
+        if (scales == null) {
+            synchronized (GradingSchemes.class) {
+                if (byCourse == null) {
+                    byCourse = load();
+                }
+                scales = byCourse;
+            }
+        }
+        return scales;
+    }
+
+    /**
+     * Compiles every scheme once and maps each course to its scale
+     * A database error gives the default scale to every course until invalidated
+     */
+    private static Map<Integer, GradeScale> load() {
+        try {
+            Map<Integer, GradeScale> bySchemeId = new HashMap<>();
+            List<GradingSchemeRow> schemes = DatabaseManager.getGradingSchemeRows();
+            for (GradingSchemeRow scheme : schemes) {
+                try {
+                    bySchemeId.put(scheme.schemeId(), scheme.toGradeScale());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid grading scheme " + scheme.schemeName()
+                                     + ", its courses use the default scale: " + e.getMessage());
+                }
+            }
+
+            Map<Integer, GradeScale> scales = new HashMap<>();
+            for (Map.Entry<Integer, Integer> course : DatabaseManager.getCourseGradingSchemeIds().entrySet()) {
+                GradeScale scale = bySchemeId.get(course.getValue());
+                if (scale != null) {
+                    scales.put(course.getKey(), scale);
+                }
+            }
+            return Map.copyOf(scales);
+
+        } catch (SQLException e) {
+            System.err.println("Error loading grading schemes: " + e.getMessage());
+            return Map.of();
+        }
+    }
+}
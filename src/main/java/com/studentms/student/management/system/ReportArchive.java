@@ -0,0 +1,140 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip archive bundling many reports into one file
+ *
+ * Each entry is rendered through a ReportWriter into an in-memory buffer, and
+ * the finished entry is then compressed into the archive, whose bytes go
+ * through a second ReportWriter to the archive file, so entries are never
+ * staged on disk. Like ReportWriter, the archive only replaces the target file
+ * on commit()
+ *
+ * addEntry() may be called from several threads: entries are rendered in
+ * parallel, one per free buffer, and only compressing them is done one at a time
+ */
+public class ReportArchive implements Closeable {
+
+    private static final int ENTRY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * An entry's rendered bytes and the writer that fills them, reused from entry to entry
+     */
+    private static final class EntryBuffer {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(ENTRY_BUFFER_SIZE);
+        final ReportWriter writer = ReportWriter.toStream(bytes);
+    }
+
+    private final ReportWriter file;
+    private final ZipOutputStream zip;
+    private final BlockingQueue<EntryBuffer> buffers;
+    private int entryCount;
+    private volatile boolean failed;
+
+    private ReportArchive(ReportWriter file) {
+        this.file = file;
+        this.zip = new ZipOutputStream(file.asOutputStream());
+        // Rendering is CPU-bound, so more buffers than cores would only hold more memory
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        this.buffers = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            buffers.add(new EntryBuffer());
+        }
+    }
+
+    /**
+     * Starts an archive that will replace filename once committed
+     */
+    public static ReportArchive open(String filename) throws IOException {
+        return new ReportArchive(ReportWriter.open(filename));
+    }
+
+    /**
+     * Adds one report; content writes it into the given writer
+     * Returns false if it could not be written, the archive can then no longer be committed
+     */
+    public boolean addEntry(String name, Consumer<ReportWriter> content) {
+        if (failed) {
+            return false;
+        }
+        EntryBuffer buffer;
+        try {
+            buffer = buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+            return false;
+        }
+        try {
+            content.accept(buffer.writer);
+            buffer.writer.commit();
+            synchronized (this) {
+                if (failed) {
+                    return false;
+                }
+                zip.putNextEntry(new ZipEntry(name));
+                buffer.bytes.writeTo(zip);
+                zip.closeEntry();
+                entryCount++;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error adding " + name + " to archive: " + e);
+            failed = true;
+            return false;
+        } finally {
+            // Whatever a failed entry left behind must not end up in the next one
+            buffer.writer.discard();
+            buffer.bytes.reset();
+            buffers.add(buffer);
+        }
+    }
+
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Finishes the zip directory and atomically replaces the target file with the archive
+     * Closing the zip stream frees its deflater; the file's stream view does not close the file
+     */
+    public synchronized void commit() throws IOException {
+        if (failed) {
+            throw new IOException("Archive is incomplete, an entry could not be written");
+        }
+        try {
+            zip.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        file.commit();
+    }
+
+    /**
+     * Discards the archive unless it was committed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            // Ends the deflater of an archive that was not committed; its output is discarded
+            zip.close();
+        } catch (IOException | UncheckedIOException e) {
+            // Nothing of it is kept, so a failure here changes nothing
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache of generated reports and statistics, valid while their data is unchanged
+ *
+ * Entries are keyed by report name, parameters and the data version of the
+ * tables the report reads (DatabaseManager.getDataVersion), so any write to
+ * those tables makes old entries unreachable; they then age out of the LRU.
+ * Computed values are kept in memory, report files as copies in a private
+ * temp directory. Both are bounded by size and evict least recently used first
+ */
+public class ReportCache {
+
+    // Size bounds: estimated bytes for values in memory, file sizes on disk
+    private static final long MAX_VALUE_BYTES = 16L * 1024 * 1024;
+    private static final long MAX_FILE_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * Loads a value from the database on a cache miss
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /**
+     * Writes a report to the given file on a cache miss, returning false on failure
+     */
+    @FunctionalInterface
+    public interface FileWriter {
+        boolean write(String filename);
+    }
+
+    /**
+     * Where writeFile got its report from
+     */
+    public enum Source {
+        CACHE,
+        GENERATED
+    }
+
+    private record Key(String report, String parameters, long dataVersion) {
+    }
+
+    private record Entry(Object value, Path file, long bytes) {
+    }
+
+    private static final Map<Key, Entry> values = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<Key, Entry> files = new LinkedHashMap<>(16, 0.75f, true);
+    private static long valueBytes;
+    private static long fileBytes;
+    private static long hits;
+    private static long misses;
+    private static Path directory;
+
+    private ReportCache() {
+    }
+
+    // ==================== VALUES ====================
+
+    /**
+     * Returns the cached value for report and parameters, loading it if the
+     * given tables changed since it was cached
+     * weigher estimates the memory a value holds, in bytes
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getValue(String report, String parameters, String[] tables,
+                                 ToLongFunction<T> weigher, Loader<T> loader) throws SQLException {
+        long version = DatabaseManager.getDataVersion(tables);
+        Key key = new Key(report, parameters, version);
+
+        synchronized (ReportCache.class) {
+            Entry entry = values.get(key);
+            if (entry != null) {
+                hits++;
+                return (T) entry.value();
+            }
+            misses++;
+        }
+
+        // Loaded outside the lock so one slow report does not hold up the others
+        T value = loader.load();
+        long bytes = weigher.applyAsLong(value);
+        if (bytes <= MAX_VALUE_BYTES) {
+            synchronized (ReportCache.class) {
+                Entry previous = values.put(key, new Entry(value, null, bytes));
+                valueBytes += bytes - (previous != null ? previous.bytes() : 0);
+                evict(values, MAX_VALUE_BYTES, false);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns cached report text, see getValue
+     */
+    public static String getText(String report, String parameters, String[] tables,
+                                 Loader<String> loader) throws SQLException {
+        return getValue(report, parameters, tables, text -> 40 + 2L * text.length(), loader);
+    }
+
+    // ==================== FILES ====================
+
+    /**
+     * Writes a report file, copying an earlier result when the given tables are
+     * unchanged since it was generated
+     * Reports to .gz files are cached apart from uncompressed ones
+     * Only for reports that depend on nothing but the data: a report stamped with
+     * the time it was generated would be copied with the old time
+     * Returns where the report came from, or null if writing it failed
+     */
+    public static Source writeFile(String report, String parameters, String[] tables,
+                                   String filename, FileWriter writer) {
+        long version;
+        try {
+            version = DatabaseManager.getDataVersion(tables);
+        } catch (SQLException e) {
+            // Without a version nothing can be reused safely
+            System.err.println("Report cache unavailable: " + e.getMessage());
+            return writer.write(filename) ? Source.GENERATED : null;
+        }
+        String format = filename.endsWith(".gz") ? "gzip" : "plain";
+        Key key = new Key(report, parameters + "|" + format, version);
+        Path target = Paths.get(filename).toAbsolutePath();
+
+        Entry cached;
+        synchronized (ReportCache.class) {
+            cached = files.get(key);
+        }
+        if (cached != null && copyInto(cached.file(), target)) {
+            synchronized (ReportCache.class) {
+                hits++;
+            }
+            return Source.CACHE;
+        }
+
+        synchronized (ReportCache.class) {
+            misses++;
+        }
+        if (!writer.write(filename)) {
+            return null;
+        }
+        store(key, target);
+        return Source.GENERATED;
+    }
+
+    private static void store(Key key, Path report) {
+        try {
+            long size = Files.size(report);
+            if (size > MAX_FILE_BYTES) {
+                return;
+            }
+            Path copy = Files.createTempFile(cacheDirectory(), "report", ".cache");
+            Files.copy(report, copy, StandardCopyOption.REPLACE_EXISTING);
+
+            synchronized (ReportCache.class) {
+                Entry previous = files.put(key, new Entry(null, copy, size));
+                fileBytes += size;
+                if (previous != null) {
+                    fileBytes -= previous.bytes();
+                    Files.deleteIfExists(previous.file());
+                }
+                evict(files, MAX_FILE_BYTES, true);
+            }
+        } catch (IOException e) {
+            // The report itself was written; only the cache copy is missing
+            System.err.println("Error caching report " + report + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces target with a copy of the cached file, via a temp file so a
+     * failed copy never leaves a partial report behind
+     */
+    private static boolean copyInto(Path cached, Path target) {
+        Path temp = null;
+        try {
+            temp = ReportWriter.createTemp(target);
+            // Copied into the temp file rather than over it, which would give it the cache file's mode
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                Files.copy(cached, out);
+            }
+            ReportWriter.replace(temp, target);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error copying cached report to " + target + ": " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Left for the OS to clean up
+                }
+            }
+            return false;
+        }
+    }
+
+    private static Path cacheDirectory() throws IOException {
+        synchronized (ReportCache.class) {
+            if (directory == null || !Files.isDirectory(directory)) {
+                directory = Files.createTempDirectory("studentms-report-cache");
+            }
+            return directory;
+        }
+    }
+
+    // ==================== EVICTION ====================
+
+    /**
+     * Drops least recently used entries until the map fits in maxBytes
+     */
+    private static void evict(Map<Key, Entry> map, long maxBytes, boolean deleteFiles) {
+        Iterator<Entry> it = map.values().iterator();
+        while (it.hasNext() && (deleteFiles ? fileBytes : valueBytes) > maxBytes) {
+            Entry eldest = it.next();
+            it.remove();
+            if (deleteFiles) {
+                fileBytes -= eldest.bytes();
+                deleteQuietly(eldest.file());
+            } else {
+                valueBytes -= eldest.bytes();
+            }
+        }
+    }
+
+    /**
+     * Empties the cache and deletes its files; called when the application stops
+     */
+    public static synchronized void clear() {
+        for (Entry entry : files.values()) {
+            deleteQuietly(entry.file());
+        }
+        files.clear();
+        values.clear();
+        fileBytes = 0;
+        valueBytes = 0;
+        if (directory != null) {
+            deleteQuietly(directory);
+            directory = null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting cached report " + file + ": " + e.getMessage());
+        }
+    }
+
+    // ==================== STATISTICS ====================
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Bytes held in memory and on disk
+     */
+    public static synchronized long getCachedBytes() {
+        return valueBytes + fileBytes;
+    }
+}
@@ -4,10 +4,8 @@
  */
 package com.studentms.student.management.system;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.sql.ResultSet;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,74 +19,95 @@ public class ReportGenerator {
     private static final DateTimeFormatter dateTimeFormatter = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    // Report layout pieces, built once instead of on every line
+    private static final String RULE = "=".repeat(80);
+    private static final String THIN_RULE = "-".repeat(80);
+    private static final String STATS_RULE = "=".repeat(50);
+    private static final String GRADE_TABLE_HEADER = String.format("%-15s %-35s %-10s %-10s %-10s %-10s",
+            "Subject Code", "Subject Name", "Section", "Credits", "Grade", "Grade Pt");
+    
+    // Streaming reports tell their Progress after this many rows
+    private static final int PROGRESS_INTERVAL = 1000;
+    
+    /**
+     * Receives progress of a streaming report from the thread writing it
+     * Throwing CancellationException aborts the report; its file is then not written
+     */
+    @FunctionalInterface
+    public interface Progress {
+        
+        Progress NONE = (done, total) -> { };
+        
+        void update(long done, long total);
+    }
+    
     /**
      * Generates a comprehensive student report in text format
      */
     public static boolean generateStudentReport(String filename) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        return generateStudentReport(filename, Progress.NONE);
+    }
+    
+    /**
+     * Generates the comprehensive student report, reporting progress in students written
+     */
+    public static boolean generateStudentReport(String filename, Progress progress) {
+        try (ReportWriter writer = ReportWriter.open(filename)) {
             
-            // Report Header
-            writer.println("=".repeat(80));
-            writer.println("STUDENT MANAGEMENT SYSTEM - COMPREHENSIVE REPORT");
-            writer.println("=".repeat(80));
-            writer.println("Generated: " + LocalDateTime.now().format(dateTimeFormatter));
-            writer.println("=".repeat(80));
-            writer.println();
+            writeReportHeader(writer, "STUDENT MANAGEMENT SYSTEM - COMPREHENSIVE REPORT");
             
-            // Get all students
-            try (ResultSet rs = DatabaseManager.getAllStudents()) {
-                int studentCount = 0;
-                int activeCount = 0;
-                int inactiveCount = 0;
+            // Stream all students; rows are written out as they are read
+            try {
+                int[] activeCount = {0};
+                int[] written = {0};
+                int total = progress == Progress.NONE ? 0 : DatabaseManager.countStudents();
+                progress.update(0, total);
                 
-                writer.println("STUDENT LISTING");
-                writer.println("-".repeat(80));
-                writer.println();
+                writer.line("STUDENT LISTING");
+                writer.line(THIN_RULE);
+                writer.newLine();
                 
-                while (rs.next()) {
-                    studentCount++;
-                    String status = rs.getString("status");
-                    
-                    if ("Active".equalsIgnoreCase(status)) {
-                        activeCount++;
-                    } else {
-                        inactiveCount++;
+                int studentCount = DatabaseManager.forEachStudentRow(student -> {
+                    if ("Active".equalsIgnoreCase(student.status())) {
+                        activeCount[0]++;
+                    }
+                    if (++written[0] % PROGRESS_INTERVAL == 0) {
+                        progress.update(written[0], total);
                     }
                     
                     // Print student details
-                    writer.println("Student ID: " + rs.getInt("student_id"));
-                    writer.println("Name: " + rs.getString("full_name"));
-                    writer.println("Email: " + rs.getString("email"));
-                    writer.println("Phone: " + rs.getString("phone"));
-                    writer.println("Date of Birth: " + rs.getString("date_of_birth"));
-                    writer.println("Gender: " + rs.getString("gender"));
-                    writer.println("Address: " + rs.getString("address"));
-                    writer.println("Enrollment Date: " + rs.getString("enrollment_date"));
-                    writer.println("Status: " + status);
-                    writer.println("-".repeat(80));
-                }
+                    writer.line("Student ID: ", student.studentId());
+                    writer.line("Name: ", student.fullName());
+                    writer.line("Email: ", student.email());
+                    writer.line("Phone: ", student.phone());
+                    writer.line("Date of Birth: ", student.dateOfBirth());
+                    writer.line("Gender: ", student.gender());
+                    writer.line("Address: ", student.address());
+                    writer.line("Enrollment Date: ", student.enrollmentDate());
+                    writer.line("Status: ", student.status());
+                    writer.line(THIN_RULE);
+                });
                 
                 // Summary Statistics
-                writer.println();
-                writer.println("SUMMARY STATISTICS");
-                writer.println("=".repeat(80));
-                writer.println("Total Students: " + studentCount);
-                writer.println("Active Students: " + activeCount);
-                writer.println("Inactive Students: " + inactiveCount);
-                writer.println("=".repeat(80));
+                writer.newLine();
+                writer.line("SUMMARY STATISTICS");
+                writer.line(RULE);
+                writer.line("Total Students: ", studentCount);
+                writer.line("Active Students: ", activeCount[0]);
+                writer.line("Inactive Students: ", studentCount - activeCount[0]);
+                writer.line(RULE);
+                progress.update(studentCount, Math.max(total, studentCount));
                 
             } catch (SQLException e) {
                 System.err.println("Error generating report: " + e.getMessage());
                 return false;
             }
             
-            writer.println();
-            writer.println("End of Report");
-            writer.println("=".repeat(80));
-            
+            writeReportFooter(writer);
+            writer.commit();
             return true;
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error writing report file: " + e.getMessage());
             return false;
         }
@@ -98,120 +117,190 @@ public class ReportGenerator {
      * Generates a CSV export of all students
      */
     public static boolean exportToCSV(String filename) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+        return exportToCSV(filename, Progress.NONE);
+    }
+    
+    /**
+     * Generates the CSV export, reporting progress in students written
+     */
+    public static boolean exportToCSV(String filename, Progress progress) {
+        try (ReportWriter writer = ReportWriter.open(filename)) {
             
             // CSV Header
-            writer.println("Student ID,Full Name,Email,Phone,Date of Birth,Gender,Address,Enrollment Date,Status");
+            writer.line("Student ID,Full Name,Email,Phone,Date of Birth,Gender,Address,Enrollment Date,Status");
             
-            // Get all students
-            try (ResultSet rs = DatabaseManager.getAllStudents()) {
-                while (rs.next()) {
-                    writer.printf("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"%n",
-                        rs.getInt("student_id"),
-                        rs.getString("full_name"),
-                        rs.getString("email"),
-                        rs.getString("phone") != null ? rs.getString("phone") : "",
-                        rs.getString("date_of_birth") != null ? rs.getString("date_of_birth") : "",
-                        rs.getString("gender") != null ? rs.getString("gender") : "",
-                        rs.getString("address") != null ? rs.getString("address").replace("\"", "\"\"") : "",
-                        rs.getString("enrollment_date"),
-                        rs.getString("status")
-                    );
-                }
+            // Stream all students
+            try {
+                int[] written = {0};
+                int total = progress == Progress.NONE ? 0 : DatabaseManager.countStudents();
+                progress.update(0, total);
+                
+                int count = DatabaseManager.forEachStudentRow(student -> {
+                    writeCsvRow(writer, student);
+                    if (++written[0] % PROGRESS_INTERVAL == 0) {
+                        progress.update(written[0], total);
+                    }
+                });
+                progress.update(count, Math.max(total, count));
             } catch (SQLException e) {
                 System.err.println("Error exporting to CSV: " + e.getMessage());
                 return false;
             }
             
+            writer.commit();
             return true;
             
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error writing CSV file: " + e.getMessage());
             return false;
         }
     }
     
     /**
-     * Generates a gender distribution report
+     * Exports the grade distribution of every subject section as CSV
+     * term limits it to one term, null covers all terms
      */
-    public static String generateGenderStatistics() {
-        StringBuilder report = new StringBuilder();
-        report.append("GENDER DISTRIBUTION REPORT\n");
-        report.append("=".repeat(50)).append("\n\n");
+    public static boolean exportSectionGradeDistribution(String filename, AcademicTerm term) {
+        java.util.List<SectionGradeDistribution> sections;
+        try {
+            sections = SectionGradeDistribution.load(term);
+        } catch (SQLException e) {
+            System.err.println("Error loading section grades: " + e.getMessage());
+            return false;
+        }
         
-        try (ResultSet rs = DatabaseManager.getAllStudents()) {
-            int maleCount = 0;
-            int femaleCount = 0;
-            int otherCount = 0;
-            int totalCount = 0;
+        try (ReportWriter writer = ReportWriter.open(filename)) {
             
-            while (rs.next()) {
-                totalCount++;
-                String gender = rs.getString("gender");
-                
-                if ("Male".equalsIgnoreCase(gender)) {
-                    maleCount++;
-                } else if ("Female".equalsIgnoreCase(gender)) {
-                    femaleCount++;
-                } else {
-                    otherCount++;
-                }
+            // One column per letter of any scale in use, those of the default scale first;
+            // a section whose scale lacks a letter leaves its column empty
+            java.util.Set<String> letters = new java.util.LinkedHashSet<>(GradeScale.get().letters());
+            for (SectionGradeDistribution section : sections) {
+                letters.addAll(section.scale().letters());
             }
             
-            if (totalCount > 0) {
-                report.append(String.format("Total Students: %d%n", totalCount));
-                report.append(String.format("Male: %d (%.1f%%)%n", maleCount, (maleCount * 100.0 / totalCount)));
-                report.append(String.format("Female: %d (%.1f%%)%n", femaleCount, (femaleCount * 100.0 / totalCount)));
-                report.append(String.format("Other: %d (%.1f%%)%n", otherCount, (otherCount * 100.0 / totalCount)));
-            } else {
-                report.append("No student data available.\n");
+            writer.append("Subject Code,Section,Subject Name,Term,Enrolled,Graded");
+            for (String grade : letters) {
+                writer.append(',').append(grade);
             }
+            writer.line(",Mean Grade Point,Pass Rate %");
             
-        } catch (SQLException e) {
-            report.append("Error generating statistics: ").append(e.getMessage());
+            String termLabel = term != null ? term.label() : "All";
+            for (SectionGradeDistribution section : sections) {
+                writer.csvQuoted(section.subjectCode()).append(',')
+                      .csvQuoted(section.section()).append(',')
+                      .csvQuoted(section.subjectName()).append(',')
+                      .csvQuoted(termLabel).append(',')
+                      .append(section.enrolled()).append(',')
+                      .append(section.graded());
+                for (String grade : letters) {
+                    writer.append(',');
+                    if (section.scale().ordinal(grade) != GradeScale.UNGRADED) {
+                        writer.append(section.count(grade));
+                    }
+                }
+                writer.append(',');
+                if (!Double.isNaN(section.meanGradePoint())) {
+                    writer.appendFixed(section.meanGradePoint(), 2);
+                }
+                writer.append(',').appendFixed(section.passRate(), 1)
+                      .newLine();
+            }
+            
+            writer.commit();
+            return true;
+            
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing section grade report: " + e.getMessage());
+            return false;
         }
-        
-        report.append("\n").append("=".repeat(50));
-        return report.toString();
+    }
+    
+    /**
+     * Writes one student as a CSV line; text fields are quoted, null becomes empty
+     */
+    static void writeCsvRow(ReportWriter writer, StudentRow student) {
+        writer.append(student.studentId()).append(',')
+              .csvQuoted(student.fullName()).append(',')
+              .csvQuoted(student.email()).append(',')
+              .csvQuoted(student.phone()).append(',')
+              .csvQuoted(student.dateOfBirth()).append(',')
+              .csvQuoted(student.gender()).append(',')
+              .csvQuoted(student.address()).append(',')
+              .csvQuoted(student.enrollmentDate()).append(',')
+              .csvQuoted(student.status())
+              .newLine();
+    }
+    
+    /**
+     * Generates a gender distribution report
+     */
+    public static String generateGenderStatistics() {
+        return generateStatistics("GENDER DISTRIBUTION REPORT", StudentStatistics::getByGender);
     }
     
     /**
      * Generates a status distribution report
      */
     public static String generateStatusStatistics() {
+        return generateStatistics("STUDENT STATUS REPORT", StudentStatistics::getByStatus);
+    }
+    
+    /**
+     * Generates a gender distribution report from already computed statistics
+     */
+    public static String generateGenderStatistics(StudentStatistics stats) {
+        return formatStatistics("GENDER DISTRIBUTION REPORT", stats, stats.getByGender());
+    }
+    
+    /**
+     * Generates a status distribution report from already computed statistics
+     */
+    public static String generateStatusStatistics(StudentStatistics stats) {
+        return formatStatistics("STUDENT STATUS REPORT", stats, stats.getByStatus());
+    }
+    
+    /**
+     * Generates a students-per-course report from already computed statistics
+     */
+    public static String generateCourseStatistics(StudentStatistics stats) {
+        return formatStatistics("STUDENTS PER COURSE", stats, stats.getByCourse());
+    }
+    
+    /**
+     * Generates a students-per-intake-year report from already computed statistics
+     */
+    public static String generateIntakeYearStatistics(StudentStatistics stats) {
+        return formatStatistics("STUDENTS PER INTAKE YEAR", stats, stats.getByIntakeYear());
+    }
+    
+    private static String generateStatistics(String title,
+            java.util.function.Function<StudentStatistics, java.util.List<StudentStatistics.Breakdown>> breakdown) {
+        try {
+            StudentStatistics stats = StudentStatistics.load();
+            return formatStatistics(title, stats, breakdown.apply(stats));
+        } catch (SQLException e) {
+            return title + "\n" + STATS_RULE + "\n\n"
+                 + "Error generating statistics: " + e.getMessage()
+                 + "\n" + STATS_RULE;
+        }
+    }
+    
+    private static String formatStatistics(String title, StudentStatistics stats,
+                                           java.util.List<StudentStatistics.Breakdown> breakdown) {
         StringBuilder report = new StringBuilder();
-        report.append("STUDENT STATUS REPORT\n");
-        report.append("=".repeat(50)).append("\n\n");
+        report.append(title).append("\n");
+        report.append(STATS_RULE).append("\n\n");
         
-        try (ResultSet rs = DatabaseManager.getAllStudents()) {
-            int activeCount = 0;
-            int inactiveCount = 0;
-            int totalCount = 0;
-            
-            while (rs.next()) {
-                totalCount++;
-                String status = rs.getString("status");
-                
-                if ("Active".equalsIgnoreCase(status)) {
-                    activeCount++;
-                } else {
-                    inactiveCount++;
-                }
-            }
-            
-            if (totalCount > 0) {
-                report.append(String.format("Total Students: %d%n", totalCount));
-                report.append(String.format("Active: %d (%.1f%%)%n", activeCount, (activeCount * 100.0 / totalCount)));
-                report.append(String.format("Inactive: %d (%.1f%%)%n", inactiveCount, (inactiveCount * 100.0 / totalCount)));
-            } else {
-                report.append("No student data available.\n");
+        if (stats.getTotal() > 0) {
+            report.append(String.format("Total Students: %d%n", stats.getTotal()));
+            for (StudentStatistics.Breakdown line : breakdown) {
+                report.append(String.format("%s: %d (%.1f%%)%n", line.label(), line.count(), line.percent()));
             }
-            
-        } catch (SQLException e) {
-            report.append("Error generating statistics: ").append(e.getMessage());
+        } else {
+            report.append("No student data available.\n");
         }
         
-        report.append("\n").append("=".repeat(50));
+        report.append("\n").append(STATS_RULE);
         return report.toString();
     }
     
@@ -221,103 +310,70 @@ public class ReportGenerator {
     public static boolean generateStudentGradeReport(String filename, Student student,
             java.util.List<StudentPortalViewController.GradeRecord> grades,
             double cgpa) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-
-            // Report Header
-            writer.println("=".repeat(80));
-            writer.println("STUDENT GRADE REPORT - ALL SEMESTERS");
-            writer.println("=".repeat(80));
-            writer.println("Generated: " + LocalDateTime.now().format(dateTimeFormatter));
-            writer.println("=".repeat(80));
-            writer.println();
+        try (ReportWriter writer = ReportWriter.open(filename)) {
 
-            // Student Information
-            writer.println("STUDENT INFORMATION");
-            writer.println("-".repeat(80));
-            writer.println("Student Code: " + student.getStudentCode());
-            writer.println("Full Name: " + student.getFullName());
-            writer.println("Email: " + student.getEmail());
-            writer.println("Status: " + student.getStatus());
-            writer.println("-".repeat(80));
-            writer.println();
-
-            // Group grades by semester
-            java.util.Map<String, java.util.List<StudentPortalViewController.GradeRecord>> semesterMap = new java.util.HashMap<>();
-            for (StudentPortalViewController.GradeRecord grade : grades) {
-                String key = grade.getSemester() + " " + grade.getYear();
-                semesterMap.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(grade);
-            }
-
-            // Sort semesters
-            java.util.List<String> sortedSemesters = new java.util.ArrayList<>(semesterMap.keySet());
-            sortedSemesters.sort((a, b) -> {
-                String[] aParts = a.split(" ");
-                String[] bParts = b.split(" ");
-                int yearCompare = Integer.compare(Integer.parseInt(aParts[1]), Integer.parseInt(bParts[1]));
-                if (yearCompare != 0) {
-                    return yearCompare;
-                }
-                return a.compareTo(b);
-            });
-
-            int totalCredits = 0;
+            writeStudentGradeReport(writer, student, grades, cgpa);
+            writer.commit();
+            return true;
 
-            // Print grades by semester
-            for (String semester : sortedSemesters) {
-                java.util.List<StudentPortalViewController.GradeRecord> semesterGrades = semesterMap.get(semester);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing grade report: " + e.getMessage());
+            return false;
+        }
+    }
 
-                writer.println(semester.toUpperCase());
-                writer.println("-".repeat(80));
-                writer.printf("%-15s %-35s %-10s %-10s %-10s %-10s%n",
-                        "Subject Code", "Subject Name", "Section", "Credits", "Grade", "Grade Pt");
-                writer.println("-".repeat(80));
+    /**
+     * Writes the all-semester grade report into an open writer, e.g. an archive entry
+     */
+    static void writeStudentGradeReport(ReportWriter writer, Student student,
+            java.util.List<StudentPortalViewController.GradeRecord> grades,
+            double cgpa) {
+        writeReportHeader(writer, "STUDENT GRADE REPORT - ALL SEMESTERS");
+        writeStudentInformation(writer, student);
 
-                double semesterPoints = 0.0;
-                int semesterCredits = 0;
-                int semesterGradedCredits = 0;
+        // Oldest term first; sorting on the int term key keeps "Semester 10" after "Semester 9"
+        java.util.List<StudentPortalViewController.GradeRecord> byTerm = new java.util.ArrayList<>(grades);
+        byTerm.sort(java.util.Comparator.comparingInt(StudentPortalViewController.GradeRecord::getTermKey));
 
-                for (StudentPortalViewController.GradeRecord grade : semesterGrades) {
-                    writer.printf("%-15s %-35s %-10s %-10d %-10s %-10.2f%n",
-                            grade.getSubjectCode(),
-                            truncate(grade.getSubjectName(), 35),
-                            grade.getSection(),
-                            grade.getCredits(),
-                            grade.getGrade(),
-                            grade.getGradePoint());
+        int totalCredits = 0;
+        GradeScale.Accumulator semester = new GradeScale.Accumulator(GradingSchemes.forCourse(student.getCourseId()));
 
-                    semesterCredits += grade.getCredits();
-                    if (grade.getGradePoint() != null && grade.getGradePoint() > 0 && !grade.getGrade().equals("N/A")) {
-                        semesterPoints += grade.getGradePoint() * grade.getCredits();
-                        semesterGradedCredits += grade.getCredits();
-                    }
-                }
+        // Print grades by semester, each term being one run of the sorted list
+        int start = 0;
+        while (start < byTerm.size()) {
+            int termKey = byTerm.get(start).getTermKey();
 
-                double semesterGPA = semesterGradedCredits > 0 ? semesterPoints / semesterGradedCredits : 0.0;
-                totalCredits += semesterCredits;
+            writer.line(byTerm.get(start).getTermLabel().toUpperCase());
+            writer.line(THIN_RULE);
+            writer.line(GRADE_TABLE_HEADER);
+            writer.line(THIN_RULE);
 
-                writer.println("-".repeat(80));
-                writer.printf("Semester Credits: %d | Semester GPA: %.2f%n", semesterCredits, semesterGPA);
-                writer.println("-".repeat(80));
-                writer.println();
+            semester.reset();
+            int end = start;
+            while (end < byTerm.size() && byTerm.get(end).getTermKey() == termKey) {
+                StudentPortalViewController.GradeRecord grade = byTerm.get(end++);
+                writeGradeRow(writer, grade);
+                semester.add(grade.getGradeOrdinal(), grade.getCredits());
             }
+            start = end;
 
-            // Overall Summary
-            writer.println("OVERALL ACADEMIC SUMMARY");
-            writer.println("=".repeat(80));
-            writer.printf("Total Credits Completed: %d%n", totalCredits);
-            writer.printf("Cumulative GPA (CGPA): %.2f%n", cgpa);
-            writer.printf("Total Subjects: %d%n", grades.size());
-            writer.println("=".repeat(80));
-            writer.println();
-            writer.println("End of Report");
-            writer.println("=".repeat(80));
+            totalCredits += semester.getTotalCredits();
 
-            return true;
-
-        } catch (IOException e) {
-            System.err.println("Error writing grade report: " + e.getMessage());
-            return false;
+            writer.line(THIN_RULE);
+            writer.append("Semester Credits: ").append(semester.getTotalCredits())
+                  .append(" | Semester GPA: ").appendFixed(semester.gpa(), 2).newLine();
+            writer.line(THIN_RULE);
+            writer.newLine();
         }
+
+        // Overall Summary
+        writer.line("OVERALL ACADEMIC SUMMARY");
+        writer.line(RULE);
+        writer.line("Total Credits Completed: ", totalCredits);
+        writer.append("Cumulative GPA (CGPA): ").appendFixed(cgpa, 2).newLine();
+        writer.line("Total Subjects: ", grades.size());
+        writer.line(RULE);
+        writeReportFooter(writer);
     }
 
     /**
@@ -326,62 +382,80 @@ public class ReportGenerator {
     public static boolean generateSemesterGradeReport(String filename, Student student,
             java.util.List<StudentPortalViewController.GradeRecord> grades,
             String semester, double semesterGPA) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-
-            // Report Header
-            writer.println("=".repeat(80));
-            writer.println("STUDENT GRADE REPORT - " + semester.toUpperCase());
-            writer.println("=".repeat(80));
-            writer.println("Generated: " + LocalDateTime.now().format(dateTimeFormatter));
-            writer.println("=".repeat(80));
-            writer.println();
+        try (ReportWriter writer = ReportWriter.open(filename)) {
 
-            // Student Information
-            writer.println("STUDENT INFORMATION");
-            writer.println("-".repeat(80));
-            writer.println("Student Code: " + student.getStudentCode());
-            writer.println("Full Name: " + student.getFullName());
-            writer.println("Email: " + student.getEmail());
-            writer.println("Status: " + student.getStatus());
-            writer.println("-".repeat(80));
-            writer.println();
+            writeReportHeader(writer, "STUDENT GRADE REPORT - " + semester.toUpperCase());
+            writeStudentInformation(writer, student);
 
             // Semester Grades
-            writer.println(semester.toUpperCase() + " - GRADES");
-            writer.println("-".repeat(80));
-            writer.printf("%-15s %-35s %-10s %-10s %-10s %-10s%n",
-                    "Subject Code", "Subject Name", "Section", "Credits", "Grade", "Grade Pt");
-            writer.println("-".repeat(80));
+            writer.line(semester.toUpperCase() + " - GRADES");
+            writer.line(THIN_RULE);
+            writer.line(GRADE_TABLE_HEADER);
+            writer.line(THIN_RULE);
 
             int totalCredits = 0;
 
             for (StudentPortalViewController.GradeRecord grade : grades) {
-                writer.printf("%-15s %-35s %-10s %-10d %-10s %-10.2f%n",
-                        grade.getSubjectCode(),
-                        truncate(grade.getSubjectName(), 35),
-                        grade.getSection(),
-                        grade.getCredits(),
-                        grade.getGrade(),
-                        grade.getGradePoint());
-
+                writeGradeRow(writer, grade);
                 totalCredits += grade.getCredits();
             }
 
-            writer.println("-".repeat(80));
-            writer.printf("Total Credits: %d | Semester GPA: %.2f%n", totalCredits, semesterGPA);
-            writer.println("-".repeat(80));
-            writer.println();
-            writer.println("End of Report");
-            writer.println("=".repeat(80));
+            writer.line(THIN_RULE);
+            writer.append("Total Credits: ").append(totalCredits)
+                  .append(" | Semester GPA: ").appendFixed(semesterGPA, 2).newLine();
+            writer.line(THIN_RULE);
+            writeReportFooter(writer);
 
+            writer.commit();
             return true;
 
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error writing semester grade report: " + e.getMessage());
             return false;
         }
     }
 
+    // ==================== REPORT LAYOUT ====================
+
+    private static void writeReportHeader(ReportWriter writer, String title) {
+        writer.line(RULE);
+        writer.line(title);
+        writer.line(RULE);
+        writer.line("Generated: ", LocalDateTime.now().format(dateTimeFormatter));
+        writer.line(RULE);
+        writer.newLine();
+    }
+
+    private static void writeReportFooter(ReportWriter writer) {
+        writer.newLine();
+        writer.line("End of Report");
+        writer.line(RULE);
+    }
+
+    private static void writeStudentInformation(ReportWriter writer, Student student) {
+        writer.line("STUDENT INFORMATION");
+        writer.line(THIN_RULE);
+        writer.line("Student Code: ", student.getStudentCode());
+        writer.line("Full Name: ", student.getFullName());
+        writer.line("Email: ", student.getEmail());
+        writer.line("Status: ", student.getStatus());
+        writer.line(THIN_RULE);
+        writer.newLine();
+    }
+
+    /**
+     * Writes one grade line in the GRADE_TABLE_HEADER column layout
+     */
+    private static void writeGradeRow(ReportWriter writer, StudentPortalViewController.GradeRecord grade) {
+        writer.padRight(grade.getSubjectCode(), 15).append(' ')
+              .padRight(truncate(grade.getSubjectName(), 35), 35).append(' ')
+              .padRight(grade.getSection(), 10).append(' ')
+              .padRight(grade.getCredits(), 10).append(' ')
+              .padRight(grade.getGrade(), 10).append(' ')
+              .padRight(grade.getGradePoint(), 2, 10)
+              .newLine();
+    }
+
     /**
      * Helper method to truncate long strings
      */
@@ -0,0 +1,209 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import javafx.concurrent.Task;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CancellationException;
+
+/**
+ * One report run by the ReportJobScheduler
+ *
+ * A JavaFX Task, so its state, progress and message can be bound to the Report
+ * Jobs window directly and are always updated on the FX thread. The value of
+ * a finished job is the path of the file it wrote
+ */
+public class ReportJob extends Task<Path> implements ReportGenerator.Progress {
+
+    /**
+     * The kinds of report a job can produce
+     */
+    public enum Type {
+        FULL_REPORT("Full Report"),
+        CSV_EXPORT("CSV Export"),
+        STUDENT_CHANGES("Incremental Export"),
+        TRANSCRIPTS("Batch Transcripts"),
+        SNAPSHOT("Columnar Snapshot"),
+        SECTION_GRADES("Section Grades"),
+        GRADUATION("Graduation Eligibility"),
+        ACADEMIC_STANDING("Academic Standing"),
+        TOP_STUDENTS("Top Students");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final String[] STUDENT_TABLES = {"students"};
+    // A section is graded on its course's grading scheme, so courses is included
+    private static final String[] SECTION_TABLES = {"courses", "subjects", "enrollments"};
+    // Course credits and grading schemes decide GPAs and eligibility, so courses is included
+    private static final String[] GRADE_TABLES = {"courses", "students", "subjects", "enrollments"};
+
+    private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Type type;
+    private final String name;
+    private final String output;
+    private final String submittedAt;
+    private boolean fromCache;
+
+    /**
+     * Creates a job writing a report of the given type to output
+     * name identifies the job in the UI and the output registry, e.g. a nightly job name
+     */
+    public ReportJob(Type type, String name, String output) {
+        this.type = type;
+        this.name = name;
+        this.output = output;
+        this.submittedAt = LocalDateTime.now().format(timeFormatter);
+        updateTitle(name);
+        updateMessage("Queued");
+        updateProgress(0, 1);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public String getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Marks a job that could not be queued
+     */
+    void reject() {
+        cancel();
+        updateMessage("Rejected: too many jobs queued");
+    }
+
+    // ==================== RUN ====================
+
+    @Override
+    protected Path call() throws Exception {
+        updateMessage("Running");
+        // Indeterminate until the report tells its progress
+        updateProgress(-1, 1);
+        Path target = Paths.get(output).toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+
+        boolean ok = switch (type) {
+            // Not cached: a copy would carry the "Generated:" time of the earlier report
+            case FULL_REPORT -> ReportGenerator.generateStudentReport(output, this);
+            case CSV_EXPORT -> writeCached(STUDENT_TABLES, filename -> ReportGenerator.exportToCSV(filename, this));
+            case STUDENT_CHANGES -> new StudentChangeExport(name).export(output) != null;
+            case TRANSCRIPTS -> runTranscripts();
+            case SNAPSHOT -> ColumnarSnapshot.export(output) != null;
+            case SECTION_GRADES -> writeCached(SECTION_TABLES,
+                    filename -> ReportGenerator.exportSectionGradeDistribution(filename, null));
+            case GRADUATION -> writeCached(GRADE_TABLES, filename -> GraduationEligibility.exportReport(
+                    filename, GraduationEligibility.ALL_COURSES, GraduationEligibility.Rules.defaults()));
+            case ACADEMIC_STANDING -> runAcademicStanding();
+            case TOP_STUDENTS -> writeCached(GRADE_TABLES, filename -> TopStudents.exportReport(
+                    filename, TopStudents.DEFAULT_N, TopStudents.Tiebreak.MORE_CREDITS));
+        };
+
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+        if (!ok) {
+            throw new IllegalStateException(type + " failed, see the console for details");
+        }
+
+        long size = Files.isRegularFile(target) ? Files.size(target) : 0;
+        DatabaseManager.registerReportOutput(name, target.toString(), size);
+        updateProgress(1, 1);
+        updateMessage(fromCache ? "Done (unchanged data, copied from cache)" : "Done");
+        return target;
+    }
+
+    /**
+     * Writes a report that only reads the given tables, reusing an earlier
+     * result while none of them changed
+     */
+    private boolean writeCached(String[] tables, ReportCache.FileWriter writer) {
+        ReportCache.Source source = ReportCache.writeFile(type.name(), "", tables, output, writer);
+        fromCache = source == ReportCache.Source.CACHE;
+        return source != null;
+    }
+
+    private boolean runTranscripts() throws Exception {
+        TranscriptBatchJob batch = new TranscriptBatchJob(Paths.get(output), null);
+        batch.setProgressListener(progress -> {
+            if (isCancelled()) {
+                batch.cancel();
+            } else {
+                updateProgress(progress.done(), progress.total());
+            }
+        });
+        return batch.run().isComplete();
+    }
+
+    /**
+     * Stores the standings up to the latest fully graded term and writes its dean's list and probation lists
+     */
+    private boolean runAcademicStanding() throws Exception {
+        int term = AcademicStanding.getLatestGradedTermKey();
+        if (term == 0) {
+            return false;
+        }
+        // Catch up on any earlier term without standings, since each term builds on the one before
+        int unstored = AcademicStanding.getFirstUnstoredTermKey(term);
+        int from = unstored > 0 ? unstored : term;
+        updateMessage("Computing standings of " + AcademicTerm.fromKey(from).label()
+                      + (from < term ? " to " + AcademicTerm.fromKey(term).label() : ""));
+        new AcademicStanding().run(from, term);
+        if (isCancelled()) {
+            return false;
+        }
+        return AcademicStanding.exportLists(output, term);
+    }
+
+    /**
+     * Progress from ReportGenerator; aborts the report once the job is cancelled
+     */
+    @Override
+    public void update(long done, long total) {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+        if (total > 0) {
+            updateProgress(done, total);
+        }
+    }
+
+    @Override
+    protected void cancelled() {
+        updateMessage("Cancelled");
+    }
+
+    @Override
+    protected void failed() {
+        Throwable error = getException();
+        updateMessage("Failed: " + (error != null ? error.getMessage() : "unknown error"));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import javafx.application.Platform;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report jobs in the background so the UI never waits for a report
+ *
+ * At most maxConcurrent jobs run at once on a fixed pool; further jobs wait in
+ * a bounded queue and are rejected when it is full. Every submitted job is
+ * listed in getJobs() for the Report Jobs window, and nightly jobs defined in
+ * report-jobs.properties are submitted at their configured time each day.
+ *
+ * Configuration (report-jobs.properties in the working directory):
+ *   jobs.maxConcurrent=2
+ *   nightly.NAME.type=CSV_EXPORT          (a ReportJob.Type)
+ *   nightly.NAME.time=02:00
+ *   nightly.NAME.output=exports/Student_Export_{date}.csv.gz   ({date} is yyyyMMdd)
+ */
+public class ReportJobScheduler {
+
+    public static final String CONFIG_FILE = "report-jobs.properties";
+
+    private static final int DEFAULT_MAX_CONCURRENT = 2;
+    private static final int QUEUE_CAPACITY = 50;
+    // Finished jobs kept in the list before the oldest are dropped
+    private static final int MAX_LISTED_JOBS = 100;
+
+    private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * A job from the configuration file that runs every day at the given time
+     */
+    public record NightlyJob(String name, ReportJob.Type type, LocalTime time, String outputPattern) {
+
+        /**
+         * Output file for a run on the given date
+         */
+        public String outputFor(LocalDate date) {
+            return outputPattern.replace("{date}", date.format(dateFormatter));
+        }
+    }
+
+    private static ReportJobScheduler instance;
+
+    private final int maxConcurrent;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService interactive;
+    private final ScheduledExecutorService timer;
+    private final List<NightlyJob> nightlyJobs;
+    private final ObservableList<ReportJob> jobs = FXCollections.observableArrayList();
+    // Counts jobs that finished with a registered output, so views can refresh
+    private final IntegerProperty finishedOutputs = new SimpleIntegerProperty(this, "finishedOutputs");
+
+    private ReportJobScheduler(Properties config) {
+        this.maxConcurrent = Math.max(1, intProperty(config, "jobs.maxConcurrent", DEFAULT_MAX_CONCURRENT));
+        this.workers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), daemonThreads("report-job-"));
+        this.interactive = Executors.newCachedThreadPool(daemonThreads("report-query-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("report-timer-"));
+        this.nightlyJobs = parseNightlyJobs(config);
+    }
+
+    /**
+     * The application-wide scheduler, created from report-jobs.properties on first use
+     */
+    public static synchronized ReportJobScheduler getInstance() {
+        if (instance == null) {
+            instance = new ReportJobScheduler(loadConfig(Paths.get(CONFIG_FILE)));
+            instance.scheduleNightlyJobs();
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the scheduler; running jobs are cancelled and their files discarded
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.timer.shutdownNow();
+            instance.interactive.shutdownNow();
+            instance.workers.shutdownNow();
+            instance = null;
+        }
+    }
+
+    // ==================== JOBS ====================
+
+    /**
+     * Queues a report job; it is listed in getJobs() right away
+     * Returns the job, already cancelled with a rejection message if the queue was full
+     * Must be called on the FX thread
+     */
+    public ReportJob submit(ReportJob.Type type, String name, String output) {
+        ReportJob job = new ReportJob(type, name, output);
+        job.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED,
+                event -> finishedOutputs.set(finishedOutputs.get() + 1));
+        jobs.add(0, job);
+        trimFinishedJobs();
+        try {
+            workers.execute(job);
+        } catch (RejectedExecutionException e) {
+            job.reject();
+            System.err.println("Report queue is full, rejected job " + name);
+        }
+        return job;
+    }
+
+    /**
+     * Runs a short query task off the FX thread without waiting behind report jobs
+     */
+    public void runInteractive(Task<?> task) {
+        interactive.execute(task);
+    }
+
+    /**
+     * All jobs of this session, newest first (FX thread only)
+     */
+    public ObservableList<ReportJob> getJobs() {
+        return jobs;
+    }
+
+    public ReadOnlyIntegerProperty finishedOutputsProperty() {
+        return finishedOutputs;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public List<NightlyJob> getNightlyJobs() {
+        return nightlyJobs;
+    }
+
+    private void trimFinishedJobs() {
+        for (int i = jobs.size() - 1; i >= 0 && jobs.size() > MAX_LISTED_JOBS; i--) {
+            if (jobs.get(i).isDone()) {
+                jobs.remove(i);
+            }
+        }
+    }
+
+    // ==================== NIGHTLY JOBS ====================
+
+    private void scheduleNightlyJobs() {
+        for (NightlyJob job : nightlyJobs) {
+            scheduleNext(job);
+        }
+    }
+
+    private void scheduleNext(NightlyJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(job.time());
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        LocalDate runDate = next.toLocalDate();
+        long delay = Duration.between(now, next).toMillis();
+
+        timer.schedule(() -> {
+            Platform.runLater(() -> submit(job.type(), job.name(), job.outputFor(runDate)));
+            scheduleNext(job);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    static Properties loadConfig(Path file) {
+        Properties config = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                config.load(reader);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Reads the nightly.NAME.* entries; incomplete or invalid ones are skipped with a message
+     */
+    static List<NightlyJob> parseNightlyJobs(Properties config) {
+        List<NightlyJob> result = new ArrayList<>();
+        for (String key : config.stringPropertyNames().stream().sorted().toList()) {
+            if (!key.startsWith("nightly.") || !key.endsWith(".type")) {
+                continue;
+            }
+            String name = key.substring("nightly.".length(), key.length() - ".type".length());
+            String prefix = "nightly." + name + ".";
+            try {
+                ReportJob.Type type = ReportJob.Type.valueOf(config.getProperty(key).trim());
+                LocalTime time = LocalTime.parse(config.getProperty(prefix + "time", "02:00").trim());
+                String output = config.getProperty(prefix + "output");
+                if (output == null || output.isBlank()) {
+                    System.err.println("Nightly job " + name + " has no output, skipped");
+                    continue;
+                }
+                result.add(new NightlyJob(name, type, time, output.trim()));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.err.println("Invalid nightly job " + name + ": " + e.getMessage());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static int intProperty(Properties config, String key, int defaultValue) {
+        try {
+            return Integer.parseInt(config.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
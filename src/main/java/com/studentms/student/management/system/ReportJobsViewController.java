@@ -0,0 +1,233 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/javafx/FXMLController.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.ProgressBarTableCell;
+import javafx.stage.Stage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+/**
+ * Controller for the Report Jobs window
+ * Shows the background report jobs of this session and the saved report files
+ */
+public class ReportJobsViewController {
+
+    // Saved reports listed in the window
+    private static final int OUTPUT_LIMIT = 200;
+
+    // The window is shared by all views and only opened once
+    private static Stage window;
+
+    // ==================== FXML INJECTED UI COMPONENTS ====================
+
+    @FXML private Label schedulerInfoLabel;
+    @FXML private Label statusLabel;
+
+    @FXML private TableView<ReportJob> jobTable;
+    @FXML private TableColumn<ReportJob, String> jobNameColumn;
+    @FXML private TableColumn<ReportJob, ReportJob.Type> jobTypeColumn;
+    @FXML private TableColumn<ReportJob, String> jobSubmittedColumn;
+    @FXML private TableColumn<ReportJob, Double> jobProgressColumn;
+    @FXML private TableColumn<ReportJob, String> jobStatusColumn;
+    @FXML private TableColumn<ReportJob, String> jobOutputColumn;
+    @FXML private Button cancelJobButton;
+    @FXML private Button openJobOutputButton;
+
+    @FXML private TableView<ReportOutputRow> outputTable;
+    @FXML private TableColumn<ReportOutputRow, String> outputCreatedColumn;
+    @FXML private TableColumn<ReportOutputRow, String> outputJobColumn;
+    @FXML private TableColumn<ReportOutputRow, String> outputSizeColumn;
+    @FXML private TableColumn<ReportOutputRow, String> outputPathColumn;
+
+    private final ObservableList<ReportOutputRow> outputList = FXCollections.observableArrayList();
+    private final ReportJobScheduler scheduler = ReportJobScheduler.getInstance();
+
+    // Kept as a field so the weak listener on the scheduler lives as long as this controller
+    private final ChangeListener<Number> outputsChanged = (observable, oldValue, newValue) -> loadOutputs();
+
+    /**
+     * Opens the Report Jobs window, or brings it to the front if it is already open
+     */
+    public static void showWindow() {
+        if (window != null) {
+            window.show();
+            window.toFront();
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(ReportJobsViewController.class.getResource("ReportJobsView.fxml"));
+            Parent root = loader.load();
+
+            window = new Stage();
+            window.setTitle("Report Jobs");
+            window.setScene(new Scene(root, 1100, 700));
+            window.setOnHidden(event -> window = null);
+            window.show();
+
+        } catch (IOException e) {
+            System.err.println("Error loading report jobs view: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @FXML
+    public void initialize() {
+        jobNameColumn.setCellValueFactory(cell -> cell.getValue().titleProperty());
+        jobTypeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getType()));
+        jobSubmittedColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getSubmittedAt()));
+        jobProgressColumn.setCellValueFactory(cell -> cell.getValue().progressProperty().asObject());
+        jobProgressColumn.setCellFactory(ProgressBarTableCell.forTableColumn());
+        jobStatusColumn.setCellValueFactory(cell -> cell.getValue().messageProperty());
+        jobOutputColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getOutput()));
+        jobTable.setItems(scheduler.getJobs());
+
+        outputCreatedColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().createdAt()));
+        outputJobColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().jobName()));
+        outputSizeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(formatSize(cell.getValue().sizeBytes())));
+        outputPathColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().filePath()));
+        outputTable.setItems(outputList);
+
+        // Buttons follow the selected job; the handlers check its current state again
+        jobTable.getSelectionModel().selectedItemProperty().addListener(
+            (observable, oldValue, newValue) -> updateJobButtons());
+        updateJobButtons();
+
+        scheduler.finishedOutputsProperty().addListener(new WeakChangeListener<>(outputsChanged));
+
+        String nightly = scheduler.getNightlyJobs().isEmpty()
+                ? "no nightly jobs configured"
+                : scheduler.getNightlyJobs().size() + " nightly job(s) scheduled";
+        schedulerInfoLabel.setText("Up to " + scheduler.getMaxConcurrent() + " reports run at the same time - "
+                + nightly + " (" + ReportJobScheduler.CONFIG_FILE + ")");
+
+        loadOutputs();
+    }
+
+    private void loadOutputs() {
+        try {
+            outputList.setAll(DatabaseManager.getReportOutputRows(OUTPUT_LIMIT));
+            statusLabel.setText(outputList.size() + " saved report(s)");
+        } catch (SQLException e) {
+            showError("Database Error", "Failed to load saved reports: " + e.getMessage());
+        }
+    }
+
+    private void updateJobButtons() {
+        ReportJob selected = jobTable.getSelectionModel().getSelectedItem();
+        cancelJobButton.setDisable(selected == null);
+        openJobOutputButton.setDisable(selected == null);
+    }
+
+    // ==================== EVENT HANDLERS ====================
+
+    @FXML
+    private void handleCancelJob() {
+        ReportJob selected = jobTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            return;
+        }
+        if (selected.cancel()) {
+            statusLabel.setText("Cancelled: " + selected.getName());
+        } else {
+            showWarning("Job Finished", "This job has already finished.");
+        }
+    }
+
+    @FXML
+    private void handleOpenJobOutput() {
+        ReportJob selected = jobTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            return;
+        }
+        if (selected.getValue() == null) {
+            showWarning("No Output", "This job has not produced a report file.");
+            return;
+        }
+        openFile(selected.getValue().toString());
+    }
+
+    @FXML
+    private void handleClearFinished() {
+        scheduler.getJobs().removeIf(ReportJob::isDone);
+    }
+
+    @FXML
+    private void handleOpenOutput() {
+        ReportOutputRow selected = outputTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showWarning("No Selection", "Please select a saved report to open.");
+            return;
+        }
+        openFile(selected.filePath());
+    }
+
+    @FXML
+    private void handleRemoveOutput() {
+        ReportOutputRow selected = outputTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showWarning("No Selection", "Please select a saved report to remove.");
+            return;
+        }
+        if (DatabaseManager.deleteReportOutput(selected.outputId())) {
+            outputList.remove(selected);
+            statusLabel.setText("Removed from list: " + selected.filePath());
+        }
+    }
+
+    @FXML
+    private void handleRefreshOutputs() {
+        loadOutputs();
+    }
+
+    // ==================== HELPERS ====================
+
+    private void openFile(String path) {
+        if (!Files.exists(Paths.get(path))) {
+            showWarning("File Not Found", "The report file no longer exists:\n\n" + path);
+            return;
+        }
+        App.openDocument(path);
+        statusLabel.setText("Opened: " + path);
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private void showWarning(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    private void showError(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable row of the report_outputs registry: a report file written by a finished job
+ */
+public record ReportOutputRow(int outputId, String jobName, String filePath, long sizeBytes, String createdAt) {
+}
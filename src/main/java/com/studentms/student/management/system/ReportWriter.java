@@ -0,0 +1,425 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffered UTF-8 text writer used for all report output
+ *
+ * Text is encoded straight into a large byte buffer that is written to a
+ * FileChannel when full, so no Formatter or intermediate Strings are involved
+ * for numbers and padding. Output goes to a temporary file next to the target
+ * and only replaces the target on commit(); closing without commit() deletes it,
+ * so a failed report never leaves a half-written file behind
+ *
+ * A filename ending in .gz is gzip-compressed on the way out: the buffer is
+ * drained through a Deflater instead of straight to the channel, so the
+ * uncompressed report never exists on disk or in memory as a whole
+ *
+ * The append methods throw UncheckedIOException so they can be used inside
+ * row callbacks; commit() reports failures as IOException
+ */
+public class ReportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20; // 1 MB
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // target, temp and channel are null when writing into a caller's stream
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    // Where the buffer is drained to when not straight to the channel
+    private final OutputStream out;
+    private final GZIPOutputStream gzip;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    private int position;
+    private long flushedBytes;
+    private boolean committed;
+
+    private ReportWriter(Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        this.temp = createTemp(this.target);
+        this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (this.target.getFileName().toString().endsWith(".gz")) {
+            this.gzip = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_SIZE);
+            this.out = gzip;
+        } else {
+            this.gzip = null;
+            this.out = null;
+        }
+    }
+
+    private ReportWriter(OutputStream out) {
+        this.target = null;
+        this.temp = null;
+        this.channel = null;
+        this.out = out;
+        this.gzip = null;
+    }
+
+    /**
+     * Creates an empty file next to target to write it in
+     * Unlike Files.createTempFile, the file gets the usual permissions (0666 less the umask)
+     * rather than owner-only ones, which the report would otherwise keep after the rename
+     */
+    static Path createTemp(Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        String name = target.getFileName().toString();
+        while (true) {
+            Path temp = dir.resolve(name + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                return Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                // Taken by another writer, try another name
+            }
+        }
+    }
+
+    /**
+     * Moves a finished temp file over target, keeping the permissions of the file it replaces
+     */
+    static void replace(Path temp, Path target) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view != null && Files.exists(target)) {
+            Files.setPosixFilePermissions(temp, view.readAttributes().permissions());
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Starts a report that will replace filename once committed
+     * The report is gzip-compressed if filename ends with .gz
+     */
+    public static ReportWriter open(String filename) throws IOException {
+        return new ReportWriter(Paths.get(filename));
+    }
+
+    /**
+     * Writes into a stream owned by the caller, e.g. an archive entry
+     * commit() then only pushes the buffered text into the stream; close() leaves it open
+     */
+    static ReportWriter toStream(OutputStream out) {
+        return new ReportWriter(out);
+    }
+
+    // ==================== TEXT ====================
+
+    public ReportWriter append(String text) {
+        if (text == null) {
+            text = "null";
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (position == BUFFER_SIZE) {
+                    flushBuffer();
+                }
+                buffer[position++] = (byte) c;
+            } else {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    appendCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+                } else {
+                    appendCodePoint(c);
+                }
+            }
+        }
+        return this;
+    }
+
+    public ReportWriter append(char c) {
+        if (c < 0x80) {
+            if (position == BUFFER_SIZE) {
+                flushBuffer();
+            }
+            buffer[position++] = (byte) c;
+            return this;
+        }
+        return appendCodePoint(c);
+    }
+
+    /**
+     * Encodes one code point as UTF-8 (lone surrogates become '?')
+     */
+    private ReportWriter appendCodePoint(int cp) {
+        if (position + 4 > BUFFER_SIZE) {
+            flushBuffer();
+        }
+        if (cp < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (cp >> 6));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            if (Character.isSurrogate((char) cp)) {
+                buffer[position++] = '?';
+                return this;
+            }
+            buffer[position++] = (byte) (0xE0 | (cp >> 12));
+            buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | (cp >> 18));
+            buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        }
+        return this;
+    }
+
+    public ReportWriter newLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes text followed by a line separator, like println
+     */
+    public ReportWriter line(String text) {
+        return append(text).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes label and value followed by a line separator
+     */
+    public ReportWriter line(String label, String value) {
+        return append(label).append(value).append(LINE_SEPARATOR);
+    }
+
+    public ReportWriter line(String label, long value) {
+        return append(label).append(value).append(LINE_SEPARATOR);
+    }
+
+    // ==================== NUMBERS ====================
+
+    public ReportWriter append(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return append(Long.toString(value));
+            }
+            append('-');
+            value = -value;
+        }
+        if (position + 20 > BUFFER_SIZE) {
+            flushBuffer();
+        }
+        // Write digits backwards into place
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        position = end;
+        return this;
+    }
+
+    /**
+     * Writes value rounded half-up to the given number of decimals,
+     * the same digits %.Nf would produce
+     */
+    public ReportWriter appendFixed(double value, int decimals) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return append(Double.toString(value));
+        }
+        return append(BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    // ==================== COLUMNS ====================
+
+    /**
+     * Writes text left-aligned in a column of the given width, like %-Ns
+     * Longer text is written in full
+     */
+    public ReportWriter padRight(String text, int width) {
+        String value = text != null ? text : "null";
+        append(value);
+        return spaces(width - value.length());
+    }
+
+    /**
+     * Writes a number left-aligned in a column of the given width, like %-Nd
+     */
+    public ReportWriter padRight(long value, int width) {
+        long written = bytesWritten();
+        append(value);
+        return spaces(width - (int) (bytesWritten() - written));
+    }
+
+    /**
+     * Writes a fixed-point number left-aligned in a column, like %-W.Df
+     */
+    public ReportWriter padRight(double value, int decimals, int width) {
+        long written = bytesWritten();
+        appendFixed(value, decimals);
+        return spaces(width - (int) (bytesWritten() - written));
+    }
+
+    private ReportWriter spaces(int count) {
+        for (int i = 0; i < count; i++) {
+            append(' ');
+        }
+        return this;
+    }
+
+    // ==================== CSV ====================
+
+    /**
+     * Writes a double-quoted CSV field, doubling any embedded quotes
+     * null is written as an empty field
+     */
+    public ReportWriter csvQuoted(String value) {
+        append('"');
+        if (value != null) {
+            int start = 0;
+            int quote;
+            while ((quote = value.indexOf('"', start)) >= 0) {
+                append(value.substring(start, quote + 1)).append('"');
+                start = quote + 1;
+            }
+            append(start == 0 ? value : value.substring(start));
+        }
+        return append('"');
+    }
+
+    // ==================== BYTES ====================
+
+    /**
+     * Copies raw bytes into the report, e.g. output of a compressor
+     */
+    public ReportWriter appendBytes(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            if (position == BUFFER_SIZE) {
+                flushBuffer();
+            }
+            int chunk = Math.min(length, BUFFER_SIZE - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+        return this;
+    }
+
+    /**
+     * View of this report as an OutputStream; closing the stream does not commit or close the report
+     */
+    public OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (position == BUFFER_SIZE) {
+                    flushBuffer();
+                }
+                buffer[position++] = (byte) b;
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                appendBytes(bytes, offset, length);
+            }
+        };
+    }
+
+    // ==================== OUTPUT ====================
+
+    /**
+     * Total bytes written so far, including the buffered ones
+     * For a compressed report this counts the bytes before compression
+     */
+    public long bytesWritten() {
+        return flushedBytes + position;
+    }
+
+    /**
+     * Drops text not yet pushed out, so a stream writer can be reused after a failed report
+     */
+    void discard() {
+        position = 0;
+    }
+
+    private void flushBuffer() {
+        try {
+            if (out != null) {
+                out.write(buffer, 0, position);
+            } else {
+                wrapper.clear().limit(position);
+                while (wrapper.hasRemaining()) {
+                    channel.write(wrapper);
+                }
+            }
+            flushedBytes += position;
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes out everything and atomically replaces the target file with the report
+     */
+    public void commit() throws IOException {
+        try {
+            flushBuffer();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (channel == null) {
+            return;
+        }
+        if (gzip != null) {
+            // Also ends the Deflater, releasing its native memory, and closes the channel
+            gzip.close();
+        }
+        channel.close();
+        replace(temp, target);
+        committed = true;
+    }
+
+    /**
+     * Discards the report unless it was committed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null && !committed) {
+            try {
+                if (gzip != null) {
+                    // Ends the Deflater; its last bytes go to the temp file about to be deleted
+                    gzip.close();
+                }
+            } catch (IOException e) {
+                // The report is discarded anyway
+            } finally {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grade breakdown of one subject section: students per grade letter, mean
+ * grade point and pass rate
+ *
+ * All sections are loaded with one query that counts enrollments per
+ * (subject, grade). idx_enrollments_subject_grade holds exactly those columns,
+ * so SQLite answers it from the index alone and sends a few rows per section,
+ * which are folded into one object per section here.
+ * scale is the grading scheme of the section's course (GradingSchemes), and
+ * gradeCounts[i] counts the students with grade ordinal i on it
+ */
+public record SectionGradeDistribution(int subjectId, String subjectCode, String section,
+                                       String subjectName, int enrolled, GradeScale scale, int[] gradeCounts) {
+
+    private static final String DISTRIBUTION_SQL = """
+        SELECT s.subject_id, s.subject_code, s.subject_section, s.subject_name, s.course_id, g.grade, g.students
+        FROM subjects s
+        LEFT JOIN (SELECT subject_id, grade, COUNT(*) AS students
+                   FROM enrollments
+                   %s
+                   GROUP BY subject_id, grade) g ON g.subject_id = s.subject_id
+        ORDER BY s.subject_code, s.subject_section, s.subject_id
+    """;
+
+    /**
+     * Loads every section; term limits the counts to one term, null counts all terms
+     * Sections without enrollments are included with zero counts
+     */
+    public static List<SectionGradeDistribution> load(AcademicTerm term) throws SQLException {
+        // The term is matched on the raw columns, which the index covers
+        String sql = DISTRIBUTION_SQL.formatted(term == null ? "" : "WHERE enrollment_year = ? AND semester = ?");
+        List<SectionGradeDistribution> sections = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (term != null) {
+                pstmt.setInt(1, term.year());
+                pstmt.setString(2, term.semesterLabel());
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int currentId = Integer.MIN_VALUE;
+                String code = null;
+                String section = null;
+                String name = null;
+                int enrolled = 0;
+                GradeScale scale = null;
+                int[] counts = null;
+
+                while (rs.next()) {
+                    int subjectId = rs.getInt("subject_id");
+                    if (counts == null || subjectId != currentId) {
+                        if (counts != null) {
+                            sections.add(new SectionGradeDistribution(currentId, code, section, name, enrolled, scale, counts));
+                        }
+                        currentId = subjectId;
+                        code = rs.getString("subject_code");
+                        section = rs.getString("subject_section");
+                        name = rs.getString("subject_name");
+                        enrolled = 0;
+                        // NULL course_id reads as 0, the default scale
+                        scale = GradingSchemes.forCourse(rs.getInt("course_id"));
+                        counts = new int[scale.size()];
+                    }
+
+                    int students = rs.getInt("students");
+                    enrolled += students;
+                    int index = scale.ordinal(rs.getString("grade"));
+                    if (index >= 0) {
+                        counts[index] += students;
+                    }
+                }
+                if (counts != null) {
+                    sections.add(new SectionGradeDistribution(currentId, code, section, name, enrolled, scale, counts));
+                }
+            }
+        }
+        return sections;
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * Students with a letter grade; the rest are not graded yet
+     */
+    public int graded() {
+        int graded = 0;
+        for (int count : gradeCounts) {
+            graded += count;
+        }
+        return graded;
+    }
+
+    /**
+     * Students with a passing grade on the section's scale
+     */
+    public int passed() {
+        int passed = 0;
+        for (int i = 0; i < gradeCounts.length; i++) {
+            if (scale.isPassing(i)) {
+                passed += gradeCounts[i];
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Mean grade point over students with a letter that counts in the GPA, F counting as 0.0
+     * NaN when none does, e.g. in a pass/fail section
+     */
+    public double meanGradePoint() {
+        double points = 0.0;
+        int graded = 0;
+        for (int i = 0; i < gradeCounts.length; i++) {
+            if (scale.countsInGpa(i)) {
+                points += scale.points(i) * gradeCounts[i];
+                graded += gradeCounts[i];
+            }
+        }
+        return graded > 0 ? points / graded : Double.NaN;
+    }
+
+    /**
+     * Students with the given letter, 0 when the section's scale has no such letter
+     */
+    public int count(String letter) {
+        int ordinal = scale.ordinal(letter);
+        return ordinal != GradeScale.UNGRADED ? gradeCounts[ordinal] : 0;
+    }
+
+    /**
+     * Share of graded students who passed, in percent
+     */
+    public double passRate() {
+        int graded = graded();
+        return graded > 0 ? passed() * 100.0 / graded : 0.0;
+    }
+}
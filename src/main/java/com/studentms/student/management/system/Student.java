@@ -7,26 +7,55 @@ package com.studentms.student.management.system;
 import javafx.beans.property.*;
 
 /**
- * Student model class using JavaFX Property objects
- * Properties allow automatic UI updates when values change (data binding)
- * This is crucial for TableView to display and update data correctly
+ * Student view model used by TableView and the edit forms
+ * Values are kept in plain fields; a JavaFX Property is only created the first
+ * time its xxxProperty() method is called (TableView does this for the cells
+ * it actually renders), so loading many students stays cheap
  */
 public class Student {
-    
-    // IntegerProperty for numeric ID
-    private final IntegerProperty studentId;
-    private final StringProperty studentCode;
-    
-    // StringProperty for text fields - these automatically notify JavaFX when changed
-    private final StringProperty fullName;
-    private final StringProperty email;
-    private final StringProperty phone;
-    private final StringProperty dateOfBirth;
-    private final StringProperty gender;
-    private final StringProperty address;
-    private final StringProperty enrollmentDate;
-    private final StringProperty status;
-    
+
+    // Plain values, used while no property has been created for the field
+    private int studentIdValue;
+    private String studentCodeValue;
+    private String fullNameValue;
+    private String emailValue;
+    private String phoneValue;
+    private String dateOfBirthValue;
+    private String genderValue;
+    private String addressValue;
+    private String enrollmentDateValue;
+    private String statusValue;
+    private final int courseId;
+
+    // Created on demand - once a property exists it holds the value instead
+    private IntegerProperty studentId;
+    private StringProperty studentCode;
+    private StringProperty fullName;
+    private StringProperty email;
+    private StringProperty phone;
+    private StringProperty dateOfBirth;
+    private StringProperty gender;
+    private StringProperty address;
+    private StringProperty enrollmentDate;
+    private StringProperty status;
+
+    /**
+     * Wraps a row loaded from the database
+     */
+    public Student(StudentRow row) {
+        this.studentIdValue = row.studentId();
+        this.studentCodeValue = row.studentCode();
+        this.fullNameValue = row.fullName();
+        this.emailValue = row.email();
+        this.phoneValue = row.phone();
+        this.dateOfBirthValue = row.dateOfBirth();
+        this.genderValue = row.gender();
+        this.addressValue = row.address();
+        this.enrollmentDateValue = row.enrollmentDate();
+        this.statusValue = row.status();
+        this.courseId = row.courseId();
+    }
+
     /**
      * Constructor for creating a complete Student object with all fields
      * This is used when loading existing students from the database
@@ -34,19 +63,10 @@ public class Student {
     public Student(int studentId, String studentCode, String fullName, String email, String phone,
                    String dateOfBirth, String gender, String address,
                    String enrollmentDate, String status) {
-        
-        this.studentId = new SimpleIntegerProperty(studentId);
-        this.studentCode = new SimpleStringProperty(studentCode);
-        this.fullName = new SimpleStringProperty(fullName);
-        this.email = new SimpleStringProperty(email);
-        this.phone = new SimpleStringProperty(phone);
-        this.dateOfBirth = new SimpleStringProperty(dateOfBirth);
-        this.gender = new SimpleStringProperty(gender);
-        this.address = new SimpleStringProperty(address);
-        this.enrollmentDate = new SimpleStringProperty(enrollmentDate);
-        this.status = new SimpleStringProperty(status);
-    }
-    
+        this(new StudentRow(studentId, studentCode, fullName, email, phone, dateOfBirth,
+                            gender, address, enrollmentDate, status, 0));
+    }
+
     /**
      * Constructor for creating a new student (without ID)
      * The ID will be assigned by the database when inserted
@@ -54,148 +74,222 @@ public class Student {
     public Student(String studentCode, String fullName, String email, String phone,
                    String dateOfBirth, String gender, String address,
                    String enrollmentDate) {
-        
-        this.studentId = new SimpleIntegerProperty(0); // Temporary, will be set after DB insert
-        this.studentCode = new SimpleStringProperty(studentCode);
-        this.fullName = new SimpleStringProperty(fullName);
-        this.email = new SimpleStringProperty(email);
-        this.phone = new SimpleStringProperty(phone);
-        this.dateOfBirth = new SimpleStringProperty(dateOfBirth);
-        this.gender = new SimpleStringProperty(gender);
-        this.address = new SimpleStringProperty(address);
-        this.enrollmentDate = new SimpleStringProperty(enrollmentDate);
-        this.status = new SimpleStringProperty("Active");
-    }
-    
+        // ID 0 is temporary, it will be set after DB insert
+        this(0, studentCode, fullName, email, phone, dateOfBirth, gender, address, enrollmentDate, "Active");
+    }
+
+    /**
+     * Returns an immutable snapshot of the current values
+     */
+    public StudentRow toRow() {
+        return new StudentRow(getStudentId(), getStudentCode(), getFullName(), getEmail(), getPhone(),
+                              getDateOfBirth(), getGender(), getAddress(), getEnrollmentDate(),
+                              getStatus(), courseId);
+    }
+
     // ==================== PROPERTY GETTERS ====================
-    // These return the Property objects themselves, needed for TableView binding
-    
+    // These create the Property objects on first use, needed for TableView binding
+
     public IntegerProperty studentIdProperty() {
+        if (studentId == null) {
+            studentId = new SimpleIntegerProperty(this, "studentId", studentIdValue);
+        }
         return studentId;
     }
-    
+
     public StringProperty studentCodeProperty() {
+        if (studentCode == null) {
+            studentCode = new SimpleStringProperty(this, "studentCode", studentCodeValue);
+        }
         return studentCode;
     }
-    
+
     public StringProperty fullNameProperty() {
+        if (fullName == null) {
+            fullName = new SimpleStringProperty(this, "fullName", fullNameValue);
+        }
         return fullName;
     }
-    
+
     public StringProperty emailProperty() {
+        if (email == null) {
+            email = new SimpleStringProperty(this, "email", emailValue);
+        }
         return email;
     }
-    
+
     public StringProperty phoneProperty() {
+        if (phone == null) {
+            phone = new SimpleStringProperty(this, "phone", phoneValue);
+        }
         return phone;
     }
-    
+
     public StringProperty dateOfBirthProperty() {
+        if (dateOfBirth == null) {
+            dateOfBirth = new SimpleStringProperty(this, "dateOfBirth", dateOfBirthValue);
+        }
         return dateOfBirth;
     }
-    
+
     public StringProperty genderProperty() {
+        if (gender == null) {
+            gender = new SimpleStringProperty(this, "gender", genderValue);
+        }
         return gender;
     }
-    
+
     public StringProperty addressProperty() {
+        if (address == null) {
+            address = new SimpleStringProperty(this, "address", addressValue);
+        }
         return address;
     }
-    
+
     public StringProperty enrollmentDateProperty() {
+        if (enrollmentDate == null) {
+            enrollmentDate = new SimpleStringProperty(this, "enrollmentDate", enrollmentDateValue);
+        }
         return enrollmentDate;
     }
-    
+
     public StringProperty statusProperty() {
+        if (status == null) {
+            status = new SimpleStringProperty(this, "status", statusValue);
+        }
         return status;
     }
-    
+
     // ==================== VALUE GETTERS ====================
     // These return the actual values, used in normal Java code
-    
+
     public int getStudentId() {
-        return studentId.get();
+        return studentId != null ? studentId.get() : studentIdValue;
     }
 
     public String getStudentCode() {
-        return studentCode.get();
+        return studentCode != null ? studentCode.get() : studentCodeValue;
     }
-    
+
     public String getFullName() {
-        return fullName.get();
+        return fullName != null ? fullName.get() : fullNameValue;
     }
-    
+
     public String getEmail() {
-        return email.get();
+        return email != null ? email.get() : emailValue;
     }
-    
+
     public String getPhone() {
-        return phone.get();
+        return phone != null ? phone.get() : phoneValue;
     }
-    
+
     public String getDateOfBirth() {
-        return dateOfBirth.get();
+        return dateOfBirth != null ? dateOfBirth.get() : dateOfBirthValue;
     }
-    
+
     public String getGender() {
-        return gender.get();
+        return gender != null ? gender.get() : genderValue;
     }
-    
+
     public String getAddress() {
-        return address.get();
+        return address != null ? address.get() : addressValue;
     }
-    
+
     public String getEnrollmentDate() {
-        return enrollmentDate.get();
+        return enrollmentDate != null ? enrollmentDate.get() : enrollmentDateValue;
     }
-    
+
     public String getStatus() {
-        return status.get();
+        return status != null ? status.get() : statusValue;
+    }
+
+    public int getCourseId() {
+        return courseId;
     }
-    
+
     // ==================== VALUE SETTERS ====================
-    // These update the values and automatically notify any bound UI components
-    
+    // These update the values and notify any bound UI components
+
     public void setStudentId(int studentId) {
-        this.studentId.set(studentId);
+        if (this.studentId != null) {
+            this.studentId.set(studentId);
+        } else {
+            this.studentIdValue = studentId;
+        }
     }
-    
+
     public void setStudentCode(String studentCode) {
-        this.studentCode.set(studentCode);
+        if (this.studentCode != null) {
+            this.studentCode.set(studentCode);
+        } else {
+            this.studentCodeValue = studentCode;
+        }
     }
-    
+
     public void setFullName(String fullName) {
-        this.fullName.set(fullName);
+        if (this.fullName != null) {
+            this.fullName.set(fullName);
+        } else {
+            this.fullNameValue = fullName;
+        }
     }
-    
+
     public void setEmail(String email) {
-        this.email.set(email);
+        if (this.email != null) {
+            this.email.set(email);
+        } else {
+            this.emailValue = email;
+        }
     }
-    
+
     public void setPhone(String phone) {
-        this.phone.set(phone);
+        if (this.phone != null) {
+            this.phone.set(phone);
+        } else {
+            this.phoneValue = phone;
+        }
     }
-    
+
     public void setDateOfBirth(String dateOfBirth) {
-        this.dateOfBirth.set(dateOfBirth);
+        if (this.dateOfBirth != null) {
+            this.dateOfBirth.set(dateOfBirth);
+        } else {
+            this.dateOfBirthValue = dateOfBirth;
+        }
     }
-    
+
     public void setGender(String gender) {
-        this.gender.set(gender);
+        if (this.gender != null) {
+            this.gender.set(gender);
+        } else {
+            this.genderValue = gender;
+        }
     }
-    
+
     public void setAddress(String address) {
-        this.address.set(address);
+        if (this.address != null) {
+            this.address.set(address);
+        } else {
+            this.addressValue = address;
+        }
     }
-    
+
     public void setEnrollmentDate(String enrollmentDate) {
-        this.enrollmentDate.set(enrollmentDate);
+        if (this.enrollmentDate != null) {
+            this.enrollmentDate.set(enrollmentDate);
+        } else {
+            this.enrollmentDateValue = enrollmentDate;
+        }
     }
-    
+
     public void setStatus(String status) {
-        this.status.set(status);
+        if (this.status != null) {
+            this.status.set(status);
+        } else {
+            this.statusValue = status;
+        }
     }
-    
+
     /**
      * Override toString for debugging purposes
      * Makes it easy to see student information when printing to console
@@ -209,4 +303,4 @@ public class Student {
                 ", Status='" + getStatus() + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
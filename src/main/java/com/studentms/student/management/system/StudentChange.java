@@ -0,0 +1,12 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Net change of one student over a range of the student_changes log
+ * operation is INSERT, UPDATE or DELETE; student holds the current row and is null for DELETE
+ */
+public record StudentChange(String operation, int studentId, StudentRow student) {
+}
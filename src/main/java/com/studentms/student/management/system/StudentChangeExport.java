@@ -0,0 +1,197 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Incremental CSV export of students for downstream systems
+ *
+ * Each export has a name and a high-water mark in export_state. A run writes
+ * only the students inserted, updated or deleted since the previous run of the
+ * same export, one line per student with its net operation. The first run, and
+ * then one run every snapshotIntervalDays, writes a full snapshot instead so
+ * the consumer can resynchronise.
+ *
+ * Lines are written at least once: a student changed while an export runs may
+ * appear again in the next one, so consumers apply lines as upserts and deletes
+ * keyed by Student ID. The mark only moves after the file is complete, so a
+ * failed run is simply repeated
+ *
+ * Usage: java ... StudentChangeExport [output file] [--name=N] [--full] [--snapshot-days=N]
+ */
+public class StudentChangeExport {
+
+    public static final String DEFAULT_EXPORT_NAME = "finance";
+    private static final int DEFAULT_SNAPSHOT_INTERVAL_DAYS = 7;
+
+    // Same columns as ReportGenerator.exportToCSV with the operation in front
+    private static final String CSV_HEADER =
+        "Operation,Student ID,Full Name,Email,Phone,Date of Birth,Gender,Address,Enrollment Date,Status";
+
+    private static final DateTimeFormatter dateTimeFormatter =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public enum Mode {
+        INCREMENTAL,
+        SNAPSHOT
+    }
+
+    /**
+     * What one run wrote: the lines cover the changes after fromChange up to and including toChange
+     */
+    public record Result(Mode mode, int rows, long fromChange, long toChange) {
+    }
+
+    private final String exportName;
+    private int snapshotIntervalDays = DEFAULT_SNAPSHOT_INTERVAL_DAYS;
+    private boolean forceSnapshot;
+
+    public StudentChangeExport(String exportName) {
+        this.exportName = exportName;
+    }
+
+    /**
+     * Days between full snapshots; 0 only snapshots on the first run or when forced
+     */
+    public StudentChangeExport setSnapshotIntervalDays(int days) {
+        this.snapshotIntervalDays = Math.max(0, days);
+        return this;
+    }
+
+    public StudentChangeExport setForceSnapshot(boolean forceSnapshot) {
+        this.forceSnapshot = forceSnapshot;
+        return this;
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Writes the changes since the previous run, or a full snapshot when one is due
+     * Returns null if the export failed; the mark is then left where it was
+     */
+    public Result export(String filename) {
+        DatabaseManager.ExportMark mark;
+        long latest;
+        try {
+            mark = DatabaseManager.getExportMark(exportName);
+            latest = DatabaseManager.getLatestStudentChange();
+        } catch (SQLException e) {
+            System.err.println("Error reading export state: " + e.getMessage());
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Mode mode = isSnapshotDue(mark, latest, now) ? Mode.SNAPSHOT : Mode.INCREMENTAL;
+        long from = mode == Mode.SNAPSHOT ? 0 : mark.changeSeq();
+        int rows;
+
+        try (ReportWriter writer = ReportWriter.open(filename)) {
+            writer.line(CSV_HEADER);
+
+            try {
+                if (mode == Mode.SNAPSHOT) {
+                    rows = DatabaseManager.forEachStudentRow(student -> {
+                        writer.append("SNAPSHOT,");
+                        ReportGenerator.writeCsvRow(writer, student);
+                    });
+                } else {
+                    rows = DatabaseManager.forEachStudentChange(from, latest, change -> {
+                        writer.append(change.operation()).append(',');
+                        ReportGenerator.writeCsvRow(writer, change.student() != null
+                            ? change.student() : deletedRow(change.studentId()));
+                    });
+                }
+            } catch (SQLException e) {
+                System.err.println("Error exporting student changes: " + e.getMessage());
+                return null;
+            }
+
+            writer.commit();
+
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing CSV file: " + e.getMessage());
+            return null;
+        }
+
+        if (!DatabaseManager.saveExportMark(exportName, latest, now.format(dateTimeFormatter),
+                                            mode == Mode.SNAPSHOT)) {
+            return null;
+        }
+        return new Result(mode, rows, from, latest);
+    }
+
+    private boolean isSnapshotDue(DatabaseManager.ExportMark mark, long latest, LocalDateTime now) {
+        if (forceSnapshot || mark == null || mark.lastSnapshotAt() == null) {
+            return true;
+        }
+        // The log is behind the mark, e.g. the database was restored from a backup
+        if (mark.changeSeq() > latest) {
+            return true;
+        }
+        if (snapshotIntervalDays == 0) {
+            return false;
+        }
+        try {
+            LocalDateTime lastSnapshot = LocalDateTime.parse(mark.lastSnapshotAt(), dateTimeFormatter);
+            return !now.isBefore(lastSnapshot.plusDays(snapshotIntervalDays));
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    /**
+     * A deleted student is written with its ID and empty fields
+     */
+    private static StudentRow deletedRow(int studentId) {
+        return new StudentRow(studentId, null, null, null, null, null, null, null, null, null, 0);
+    }
+
+    /**
+     * Command line entry point for the nightly export
+     */
+    public static void main(String[] args) {
+        String filename = "students_changes.csv";
+        String exportName = DEFAULT_EXPORT_NAME;
+        boolean full = false;
+        int snapshotDays = DEFAULT_SNAPSHOT_INTERVAL_DAYS;
+        for (String arg : args) {
+            if (arg.equals("--full")) {
+                full = true;
+            } else if (arg.startsWith("--name=")) {
+                exportName = arg.substring("--name=".length());
+            } else if (arg.startsWith("--snapshot-days=")) {
+                snapshotDays = Integer.parseInt(arg.substring("--snapshot-days=".length()));
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                filename = arg;
+            }
+        }
+
+        // Installs the change log triggers on databases created before they existed
+        DatabaseManager.initializeDatabase();
+
+        Result result = new StudentChangeExport(exportName)
+                .setForceSnapshot(full)
+                .setSnapshotIntervalDays(snapshotDays)
+                .export(filename);
+        if (result == null) {
+            System.exit(1);
+        }
+        if (result.mode() == Mode.SNAPSHOT) {
+            System.out.printf("Snapshot export '%s': %,d students up to change %d -> %s%n",
+                    exportName, result.rows(), result.toChange(), filename);
+        } else {
+            System.out.printf("Incremental export '%s': %,d changed students (changes %d to %d) -> %s%n",
+                    exportName, result.rows(), result.fromChange(), result.toChange(), filename);
+        }
+    }
+}
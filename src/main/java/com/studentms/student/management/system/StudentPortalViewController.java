@@ -4,8 +4,6 @@
  */
 package com.studentms.student.management.system;
 
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -14,9 +12,10 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -53,23 +52,10 @@ public class StudentPortalViewController {
     private ObservableList<GradeRecord> allGrades = FXCollections.observableArrayList();
     private LoginViewController.UserSession userSession;
     private Student currentStudent;
-    
-    // Grade point mapping
-    private final Map<String, Double> gradePoints = new HashMap<>() {{
-        put("A+", 4.0);
-        put("A", 4.0);
-        put("A-", 3.7);
-        put("B+", 3.3);
-        put("B", 3.0);
-        put("B-", 2.7);
-        put("C+", 2.3);
-        put("C", 2.0);
-        put("C-", 1.7);
-        put("D+", 1.3);
-        put("D", 1.0);
-        put("F", 0.0);
-        put("N/A", null);
-    }};
+    // Grade scale of the student's course, resolved once per load
+    private GradeScale scale = GradeScale.get();
+    // Stored academic standing by term key; terms not assessed yet are missing
+    private Map<Integer, AcademicStanding.Standing> standings = Map.of();
     
     @FXML
     public void initialize() {
@@ -108,26 +94,13 @@ public class StudentPortalViewController {
         
         String email = userSession.getUsername();
         
-        try (ResultSet rs = DatabaseManager.getAllStudents()) {
-            while (rs.next()) {
-                if (rs.getString("email").equals(email)) {
-                    currentStudent = new Student(
-                        rs.getInt("student_id"),
-                        rs.getString("student_code"),
-                        rs.getString("full_name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("date_of_birth"),
-                        rs.getString("gender"),
-                        rs.getString("address"),
-                        rs.getString("enrollment_date"),
-                        rs.getString("status")
-                    );
-                    
-                    displayStudentInfo();
-                    loadGrades();
-                    break;
-                }
+        try {
+            // Look the student up directly instead of scanning every student row
+            StudentRow row = DatabaseManager.getStudentRowByEmail(email);
+            if (row != null) {
+                currentStudent = new Student(row);
+                displayStudentInfo();
+                loadGrades();
             }
         } catch (SQLException e) {
             showError("Error loading student data: " + e.getMessage());
@@ -159,25 +132,15 @@ public class StudentPortalViewController {
         allGrades.clear();
         gradesList.clear();
         
-        try (ResultSet rs = DatabaseManager.getStudentEnrollments(currentStudent.getStudentId())) {
-            while (rs.next()) {
-                String grade = rs.getString("grade");
-                Double gradePoint = gradePoints.get(grade);
-                
-                GradeRecord record = new GradeRecord(
-                    rs.getString("subject_code"),
-                    rs.getString("subject_name"),
-                    rs.getString("subject_section"),
-                    rs.getInt("credits"),
-                    rs.getString("semester"),
-                    rs.getInt("enrollment_year"),
-                    grade,
-                    gradePoint != null ? gradePoint : 0.0
-                );
-                
-                allGrades.add(record);
-                gradesList.add(record);
+        try {
+            scale = GradingSchemes.forCourse(currentStudent.getCourseId());
+            standings = DatabaseManager.getStudentStandings(currentStudent.getStudentId());
+            List<GradeRecord> records = new ArrayList<>();
+            for (EnrollmentRow row : DatabaseManager.getStudentEnrollmentRows(currentStudent.getStudentId())) {
+                records.add(toGradeRecord(row, scale));
             }
+            allGrades.setAll(records);
+            gradesList.setAll(records);
             
             calculateStatistics();
             calculateSemesterGPAs();
@@ -191,23 +154,11 @@ public class StudentPortalViewController {
      * Calculates CGPA and other statistics
      */
     private void calculateStatistics() {
-        double totalPoints = 0.0;
-        int totalCredits = 0;
-        int gradedCredits = 0;
-        
-        for (GradeRecord record : allGrades) {
-            totalCredits += record.getCredits();
-            
-            if (record.getGradePoint() != null && record.getGradePoint() > 0 && !record.getGrade().equals("N/A")) {
-                totalPoints += record.getGradePoint() * record.getCredits();
-                gradedCredits += record.getCredits();
-            }
-        }
-        
-        double cgpa = gradedCredits > 0 ? totalPoints / gradedCredits : 0.0;
+        GradeScale.Accumulator total = accumulate(allGrades, 0, allGrades.size(), scale);
+        double cgpa = total.gpa();
         
         cgpaLabel.setText(String.format("%.2f", cgpa));
-        totalCreditsLabel.setText(String.valueOf(totalCredits));
+        totalCreditsLabel.setText(String.valueOf(total.getTotalCredits()));
         subjectCountLabel.setText(String.valueOf(allGrades.size()));
         
         statusMessageLabel.setText("Loaded " + allGrades.size() + " subjects | CGPA: " + String.format("%.2f", cgpa));
@@ -268,7 +219,7 @@ public class StudentPortalViewController {
                     currentStudent,
                     semesterGrades,
                     selectedSemester,
-                    calculateSemesterGPA(semesterGrades)
+                    calculateSemesterGPA(semesterGrades, scale)
             );
 
             if (success) {
@@ -285,67 +236,53 @@ public class StudentPortalViewController {
      * Calculates CGPA and returns it
      */
     private double calculateCGPA() {
-        double totalPoints = 0.0;
-        int gradedCredits = 0;
-
-        for (GradeRecord record : allGrades) {
-            if (record.getGradePoint() != null && record.getGradePoint() > 0 && !record.getGrade().equals("N/A")) {
-                totalPoints += record.getGradePoint() * record.getCredits();
-                gradedCredits += record.getCredits();
-            }
-        }
-
-        return gradedCredits > 0 ? totalPoints / gradedCredits : 0.0;
+        return calculateSemesterGPA(allGrades, scale);
+    }
+    
+    /**
+     * Builds the grade record shown in the portal for an enrollment row, graded on the given scale
+     * Shared with TranscriptBatchJob so batch transcripts match printed ones
+     */
+    static GradeRecord toGradeRecord(EnrollmentRow row, GradeScale scale) {
+        return new GradeRecord(
+            row.subjectCode(),
+            row.subjectName(),
+            row.subjectSection(),
+            row.credits(),
+            row.semester(),
+            row.enrollmentYear(),
+            row.grade(),
+            scale
+        );
     }
     
     /**
      * Calculates GPA for each semester
      */
     private void calculateSemesterGPAs() {
-        Map<String, List<GradeRecord>> semesterMap = new HashMap<>();
-        
-        // Group by semester
-        for (GradeRecord record : allGrades) {
-            String key = record.getSemester() + " " + record.getYear();
-            semesterMap.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
-        }
-        
-        // Calculate GPA for each semester
         StringBuilder summary = new StringBuilder();
         summary.append("GPA SUMMARY BY SEMESTER\n");
         summary.append("=".repeat(50)).append("\n\n");
         
-        // Sort semesters
-        List<String> sortedSemesters = new ArrayList<>(semesterMap.keySet());
-        sortedSemesters.sort((a, b) -> {
-            String[] aParts = a.split(" ");
-            String[] bParts = b.split(" ");
-            int yearCompare = Integer.compare(Integer.parseInt(bParts[1]), Integer.parseInt(aParts[1]));
-            if (yearCompare != 0) return yearCompare;
-            return b.compareTo(a);
-        });
-        
-        for (String semester : sortedSemesters) {
-            List<GradeRecord> records = semesterMap.get(semester);
-            double totalPoints = 0.0;
-            int totalCredits = 0;
-            int gradedCredits = 0;
-            
-            for (GradeRecord record : records) {
-                totalCredits += record.getCredits();
-                if (record.getGradePoint() != null && record.getGradePoint() > 0 && !record.getGrade().equals("N/A")) {
-                    totalPoints += record.getGradePoint() * record.getCredits();
-                    gradedCredits += record.getCredits();
-                }
+        // Grades are loaded ordered by term_key, newest term first, so each
+        // term is one run of consecutive records
+        int start = 0;
+        while (start < allGrades.size()) {
+            int termKey = allGrades.get(start).getTermKey();
+            int end = start;
+            while (end < allGrades.size() && allGrades.get(end).getTermKey() == termKey) {
+                end++;
             }
+            GradeScale.Accumulator term = accumulate(allGrades, start, end, scale);
             
-            double gpa = gradedCredits > 0 ? totalPoints / gradedCredits : 0.0;
-            
-            summary.append(String.format("%-20s : GPA %.2f (%d credits, %d subjects)\n", 
-                semester, gpa, totalCredits, records.size()));
+            AcademicStanding.Standing standing = standings.get(termKey);
+            summary.append(String.format("%-20s : GPA %.2f (%d credits, %d subjects)%s\n", 
+                allGrades.get(start).getTermLabel(), term.gpa(), term.getTotalCredits(), end - start,
+                standing != null ? " - " + standing : ""));
+            start = end;
         }
         
-        if (sortedSemesters.isEmpty()) {
+        if (allGrades.isEmpty()) {
             summary.append("No grades available yet.\n");
         }
         
@@ -353,20 +290,167 @@ public class StudentPortalViewController {
     }
     
     /**
-     * Calculates GPA for a list of grade records
+     * Calculates GPA for a list of grade records made with the given scale
      */
-    private double calculateSemesterGPA(List<GradeRecord> grades) {
-        double totalPoints = 0.0;
-        int gradedCredits = 0;
-
-        for (GradeRecord record : grades) {
-            if (record.getGradePoint() != null && record.getGradePoint() > 0 && !record.getGrade().equals("N/A")) {
-                totalPoints += record.getGradePoint() * record.getCredits();
-                gradedCredits += record.getCredits();
+    static double calculateSemesterGPA(List<GradeRecord> grades, GradeScale scale) {
+        return accumulate(grades, 0, grades.size(), scale).gpa();
+    }
+    
+    /**
+     * Adds up grades[from, to) on the scale the records were made with
+     */
+    static GradeScale.Accumulator accumulate(List<GradeRecord> grades, int from, int to, GradeScale scale) {
+        GradeScale.Accumulator accumulator = new GradeScale.Accumulator(scale);
+        for (int i = from; i < to; i++) {
+            GradeRecord record = grades.get(i);
+            accumulator.add(record.getGradeOrdinal(), record.getCredits());
+        }
+        return accumulator;
+    }
+    
+    /**
+     * Opens the what-if simulator: hypothetical grades for ungraded subjects,
+     * future credits and the grades needed for a target CGPA
+     * Everything is projected from the grades already loaded, without queries
+     */
+    @FXML
+    private void handleWhatIf() {
+        if (currentStudent == null) {
+            showError("No student data loaded.");
+            return;
+        }
+        
+        GpaSimulator simulator = new GpaSimulator(allGrades, scale);
+        
+        Label projectedLabel = new Label();
+        projectedLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        Label termsLabel = new Label();
+        Label requirementLabel = new Label();
+        requirementLabel.setWrapText(true);
+        
+        // The best letter need not have points (e.g. pass/fail), so the range comes from the letters that do
+        double maxPoints = scale.maxPoints();
+        Spinner<Double> targetSpinner = new Spinner<>(0.0, maxPoints, 
+            Math.min(maxPoints, Math.ceil(simulator.getActualCgpa() * 10 + 1) / 10), 0.05);
+        targetSpinner.setEditable(true);
+        targetSpinner.setDisable(!scale.hasGpaGrades());
+        Spinner<Integer> futureCreditsSpinner = new Spinner<>(0, 60, 0);
+        Slider futureGradeSlider = gradeSlider(scale);
+        Label futureGradeLabel = new Label(sliderLetter(scale, 0));
+        
+        Runnable refresh = () -> {
+            projectedLabel.setText(String.format("Projected CGPA: %.2f  (actual %.2f)",
+                simulator.getProjectedCgpa(), simulator.getActualCgpa()));
+            
+            StringBuilder termText = new StringBuilder();
+            int[] termKeys = simulator.getOpenTermKeys();
+            for (int i = 0; i < termKeys.length; i++) {
+                termText.append(String.format("%s: GPA %.2f%n",
+                    AcademicTerm.fromKey(termKeys[i]).label(), simulator.getProjectedTermGpa(i)));
             }
+            termsLabel.setText(termText.toString());
+            
+            if (!scale.hasGpaGrades()) {
+                requirementLabel.setText("This course's grading scheme has no grade points, so there is no CGPA to target.");
+                return;
+            }
+            GpaSimulator.Requirement requirement = simulator.require(targetSpinner.getValue());
+            if (requirement.openCredits() == 0) {
+                requirementLabel.setText(requirement.isSecured() 
+                    ? "Target already reached." 
+                    : "No ungraded subjects or future credits left to reach the target.");
+            } else if (requirement.isSecured()) {
+                requirementLabel.setText("Target reached whatever the remaining " 
+                    + requirement.openCredits() + " credits are graded.");
+            } else if (!requirement.isReachable()) {
+                requirementLabel.setText(String.format(
+                    "Not reachable: it needs %.2f grade points on average over %d credits.",
+                    requirement.averagePoints(), requirement.openCredits()));
+            } else {
+                requirementLabel.setText(String.format(
+                    "Needs %.2f grade points on average over %d credits, e.g. at least %s in every subject.",
+                    requirement.averagePoints(), requirement.openCredits(), scale.letter(requirement.ordinal())));
+            }
+        };
+        
+        // One slider per ungraded subject, in the order the simulator numbers them
+        GridPane slots = new GridPane();
+        slots.setHgap(10);
+        slots.setVgap(6);
+        int slot = 0;
+        for (GradeRecord record : allGrades) {
+            if (record.getGradeOrdinal() != GradeScale.UNGRADED) {
+                continue;
+            }
+            int index = slot++;
+            Slider slider = gradeSlider(scale);
+            Label letter = new Label(sliderLetter(scale, 0));
+            slider.valueProperty().addListener((obs, oldValue, newValue) -> {
+                int ordinal = sliderOrdinal(scale, newValue.doubleValue());
+                if (ordinal != simulator.getSlotGrade(index)) {
+                    simulator.setSlotGrade(index, ordinal);
+                    letter.setText(sliderLetter(scale, newValue.doubleValue()));
+                    refresh.run();
+                }
+            });
+            slots.addRow(index, new Label(record.getSubjectCode() + " (" + record.getCredits() + " cr, " 
+                + record.getTermLabel() + ")"), slider, letter);
         }
-
-        return gradedCredits > 0 ? totalPoints / gradedCredits : 0.0;
+        if (slot == 0) {
+            slots.addRow(0, new Label("All enrolled subjects are graded."));
+        }
+        
+        Runnable updateFuture = () -> {
+            simulator.setFuture(futureCreditsSpinner.getValue(), 
+                sliderOrdinal(scale, futureGradeSlider.getValue()));
+            futureGradeLabel.setText(sliderLetter(scale, futureGradeSlider.getValue()));
+            refresh.run();
+        };
+        futureCreditsSpinner.valueProperty().addListener((obs, oldValue, newValue) -> updateFuture.run());
+        futureGradeSlider.valueProperty().addListener((obs, oldValue, newValue) -> updateFuture.run());
+        targetSpinner.valueProperty().addListener((obs, oldValue, newValue) -> refresh.run());
+        
+        GridPane future = new GridPane();
+        future.setHgap(10);
+        future.setVgap(6);
+        future.addRow(0, new Label("Future credits:"), futureCreditsSpinner);
+        future.addRow(1, new Label("Expected grade:"), futureGradeSlider, futureGradeLabel);
+        future.addRow(2, new Label("Target CGPA:"), targetSpinner);
+        
+        VBox content = new VBox(12, new Label("Hypothetical grades"), new ScrollPane(slots),
+                                future, new Separator(), projectedLabel, termsLabel, requirementLabel);
+        refresh.run();
+        
+        Alert dialog = new Alert(Alert.AlertType.INFORMATION);
+        dialog.setTitle("What-If GPA");
+        dialog.setHeaderText("Projected GPA for " + currentStudent.getFullName());
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().setPrefWidth(620);
+        dialog.setResizable(true);
+        dialog.showAndWait();
+    }
+    
+    /**
+     * Slider over the grade scale: 0 is "not graded", then the letters from worst to best
+     */
+    private static Slider gradeSlider(GradeScale scale) {
+        Slider slider = new Slider(0, scale.size(), 0);
+        slider.setMajorTickUnit(1);
+        slider.setMinorTickCount(0);
+        slider.setSnapToTicks(true);
+        slider.setShowTickMarks(true);
+        slider.setPrefWidth(260);
+        return slider;
+    }
+    
+    private static int sliderOrdinal(GradeScale scale, double value) {
+        int position = (int) Math.round(value);
+        return position == 0 ? GradeScale.UNGRADED : scale.size() - position;
+    }
+    
+    private static String sliderLetter(GradeScale scale, double value) {
+        int ordinal = sliderOrdinal(scale, value);
+        return ordinal == GradeScale.UNGRADED ? "-" : scale.letter(ordinal);
     }
     
     /**
@@ -448,36 +532,60 @@ public class StudentPortalViewController {
     
     /**
      * Inner class to represent a grade record for table display
+     * Holds plain values; PropertyValueFactory wraps the getters only for rendered cells
      */
     public static class GradeRecord {
-        private final SimpleStringProperty subjectCode;
-        private final SimpleStringProperty subjectName;
-        private final SimpleStringProperty section;
+        private final String subjectCode;
+        private final String subjectName;
+        private final String section;
         private final int credits;
-        private final SimpleStringProperty semester;
+        private final String semester;
         private final int year;
-        private final SimpleStringProperty grade;
-        private final SimpleDoubleProperty gradePoint;
+        private final String grade;
+        private final double gradePoint;
+        private final int termKey;
+        
+        private final int gradeOrdinal;
         
+        /**
+         * Creates a record graded on the default scale
+         */
         public GradeRecord(String subjectCode, String subjectName, String section,
-                          int credits, String semester, int year, String grade, double gradePoint) {
-            this.subjectCode = new SimpleStringProperty(subjectCode);
-            this.subjectName = new SimpleStringProperty(subjectName);
-            this.section = new SimpleStringProperty(section);
+                          int credits, String semester, int year, String grade) {
+            this(subjectCode, subjectName, section, credits, semester, year, grade, GradeScale.get());
+        }
+        
+        /**
+         * Creates a record; the grade points come from the scale of the student's course
+         */
+        public GradeRecord(String subjectCode, String subjectName, String section,
+                          int credits, String semester, int year, String grade, GradeScale scale) {
+            this.subjectCode = subjectCode;
+            this.subjectName = subjectName;
+            this.section = section;
             this.credits = credits;
-            this.semester = new SimpleStringProperty(semester);
+            this.semester = semester;
             this.year = year;
-            this.grade = new SimpleStringProperty(grade);
-            this.gradePoint = new SimpleDoubleProperty(gradePoint);
+            this.grade = grade;
+            this.gradeOrdinal = scale.ordinal(grade);
+            this.gradePoint = scale.points(gradeOrdinal);
+            this.termKey = AcademicTerm.key(year, semester);
         }
         
-        public String getSubjectCode() { return subjectCode.get(); }
-        public String getSubjectName() { return subjectName.get(); }
-        public String getSection() { return section.get(); }
+        public String getSubjectCode() { return subjectCode; }
+        public String getSubjectName() { return subjectName; }
+        public String getSection() { return section; }
         public int getCredits() { return credits; }
-        public String getSemester() { return semester.get(); }
+        public String getSemester() { return semester; }
         public int getYear() { return year; }
-        public String getGrade() { return grade.get(); }
-        public Double getGradePoint() { return gradePoint.get(); }
+        public String getGrade() { return grade; }
+        public Double getGradePoint() { return gradePoint; }
+        public int getGradeOrdinal() { return gradeOrdinal; }
+        public int getTermKey() { return termKey; }
+        
+        /**
+         * Term label for headings, e.g. "Semester 3 2024"
+         */
+        public String getTermLabel() { return semester + " " + year; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable student row as stored in the students table
+ * Used by the data layer and reports; the UI wraps it in a Student when needed
+ * courseId is 0 when the student is not registered in a course
+ */
+public record StudentRow(int studentId, String studentCode, String fullName, String email,
+                         String phone, String dateOfBirth, String gender, String address,
+                         String enrollmentDate, String status, int courseId) {
+}
@@ -0,0 +1,157 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Student statistics computed by the database in a single pass
+ *
+ * One GROUP BY over (gender, status, course, intake year) is answered by
+ * scanning the idx_students_stats index alone, which stores those values in
+ * group order, so no table rows are read and nothing is sorted. The few
+ * resulting groups are then rolled up into each breakdown here
+ */
+public class StudentStatistics {
+
+    // The grouping expressions must match idx_students_stats exactly for the index to be used
+    private static final String STATISTICS_SQL = """
+        SELECT g.gender, g.status, g.course_id, c.course_code, g.intake_year, g.students
+        FROM (SELECT gender, status, course_id, substr(enrollment_date, 1, 4) AS intake_year,
+                     COUNT(*) AS students
+              FROM students
+              GROUP BY gender, status, course_id, intake_year) g
+        LEFT JOIN courses c ON c.course_id = g.course_id
+    """;
+
+    /**
+     * One line of a breakdown: a label, its student count and share of all students
+     */
+    public record Breakdown(String label, int count, double percent) {
+    }
+
+    private final int total;
+    private final List<Breakdown> byGender;
+    private final List<Breakdown> byStatus;
+    private final List<Breakdown> byCourse;
+    private final List<Breakdown> byIntakeYear;
+
+    private StudentStatistics(int total, Map<String, Integer> gender, Map<String, Integer> status,
+                              Map<String, Integer> course, Map<String, Integer> intakeYear) {
+        this.total = total;
+        this.byGender = toBreakdown(gender, total);
+        this.byStatus = toBreakdown(status, total);
+        this.byCourse = toBreakdown(course, total);
+        this.byIntakeYear = toBreakdown(intakeYear, total);
+    }
+
+    /**
+     * Computes all breakdowns with one query
+     */
+    public static StudentStatistics load() throws SQLException {
+        // Fixed categories keep their order and show up even with a zero count
+        Map<String, Integer> gender = new LinkedHashMap<>();
+        gender.put("Male", 0);
+        gender.put("Female", 0);
+        gender.put("Other", 0);
+        Map<String, Integer> status = new LinkedHashMap<>();
+        status.put("Active", 0);
+        status.put("Inactive", 0);
+        Map<String, Integer> course = new TreeMap<>();
+        Map<String, Integer> intakeYear = new TreeMap<>();
+        int total = 0;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(STATISTICS_SQL)) {
+
+            while (rs.next()) {
+                int count = rs.getInt("students");
+                total += count;
+
+                gender.merge(genderLabel(rs.getString("gender")), count, Integer::sum);
+                status.merge("Active".equalsIgnoreCase(rs.getString("status")) ? "Active" : "Inactive",
+                             count, Integer::sum);
+
+                String courseCode = rs.getString("course_code");
+                course.merge(courseCode != null ? courseCode : "Unassigned", count, Integer::sum);
+
+                String year = rs.getString("intake_year");
+                intakeYear.merge(year != null ? year : "Unknown", count, Integer::sum);
+            }
+        }
+
+        return new StudentStatistics(total, gender, status, course, intakeYear);
+    }
+
+    /**
+     * Returns the statistics from ReportCache while students and courses are unchanged
+     */
+    public static StudentStatistics loadCached() throws SQLException {
+        return ReportCache.getValue("statistics", "", new String[] {"students", "courses"},
+                                    StudentStatistics::estimatedBytes, StudentStatistics::load);
+    }
+
+    private long estimatedBytes() {
+        int lines = byGender.size() + byStatus.size() + byCourse.size() + byIntakeYear.size();
+        return 256 + 96L * lines;
+    }
+
+    private static String genderLabel(String gender) {
+        if ("Male".equalsIgnoreCase(gender)) {
+            return "Male";
+        }
+        if ("Female".equalsIgnoreCase(gender)) {
+            return "Female";
+        }
+        return "Other";
+    }
+
+    private static List<Breakdown> toBreakdown(Map<String, Integer> counts, int total) {
+        List<Breakdown> lines = new ArrayList<>(counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int count = entry.getValue();
+            lines.add(new Breakdown(entry.getKey(), count, total > 0 ? count * 100.0 / total : 0.0));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    // ==================== RESULTS ====================
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<Breakdown> getByGender() {
+        return byGender;
+    }
+
+    public List<Breakdown> getByStatus() {
+        return byStatus;
+    }
+
+    /**
+     * Students per course code, students without a course as "Unassigned"
+     */
+    public List<Breakdown> getByCourse() {
+        return byCourse;
+    }
+
+    /**
+     * Students per intake year, taken from the enrollment date
+     */
+    public List<Breakdown> getByIntakeYear() {
+        return byIntakeYear;
+    }
+}
@@ -6,6 +6,7 @@ package com.studentms.student.management.system;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,10 +15,11 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Controller class for the Student Management interface
@@ -172,28 +174,25 @@ public class StudentViewController {
     private void loadStudentData() {
         studentList.clear(); // Clear existing data
         
-        try (ResultSet rs = DatabaseManager.getAllStudents()) {
-            while (rs.next()) {
-                // Create a Student object from each database row
-                Student student = new Student(
-                    rs.getInt("student_id"),
-                    rs.getString("student_code"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("date_of_birth"),
-                    rs.getString("gender"),
-                    rs.getString("address"),
-                    rs.getString("enrollment_date"),
-                    rs.getString("status")
-                );
-                studentList.add(student);
-            }
+        try {
+            studentList.setAll(toStudents(DatabaseManager.getAllStudentRows()));
         } catch (SQLException e) {
             showError("Database Error", "Failed to load student data: " + e.getMessage());
         }
     }
     
+    /**
+     * Wraps database rows for the table; a row's properties are only created
+     * once the table renders it, and setAll() fires a single change event
+     */
+    private List<Student> toStudents(List<StudentRow> rows) {
+        List<Student> students = new ArrayList<>(rows.size());
+        for (StudentRow row : rows) {
+            students.add(new Student(row));
+        }
+        return students;
+    }
+    
     /**
      * Populates the form fields with data from a selected student
      */
@@ -399,22 +398,8 @@ public class StudentViewController {
         
         studentList.clear();
         
-        try (ResultSet rs = DatabaseManager.searchStudentsByName(searchTerm)) {
-            while (rs.next()) {
-                Student student = new Student(
-                    rs.getInt("student_id"),
-                    rs.getString("student_code"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("date_of_birth"),
-                    rs.getString("gender"),
-                    rs.getString("address"),
-                    rs.getString("enrollment_date"),
-                    rs.getString("status")
-                );
-                studentList.add(student);
-            }
+        try {
+            studentList.setAll(toStudents(DatabaseManager.searchStudentRowsByName(searchTerm)));
             updateStatusLabel("Found " + studentList.size() + " student(s)");
         } catch (SQLException e) {
             showError("Search Error", "Failed to search: " + e.getMessage());
@@ -434,21 +419,17 @@ public class StudentViewController {
     
     /**
      * Handles Generate Full Report button click
+     * The report is written by a background job; the window stays responsive
      */
     @FXML
     private void handleGenerateReport() {
         String filename = "Student_Report_" + 
                          LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".txt";
         
-        boolean success = ReportGenerator.generateStudentReport(filename);
-        
-        if (success) {
-            showSuccess("Report Generated", 
-                       "Full report has been generated successfully!\n\nFile: " + filename);
-            updateStatusLabel("Report generated: " + filename);
-        } else {
-            showError("Report Error", "Failed to generate report. Check console for details.");
-        }
+        ReportJob job = ReportJobScheduler.getInstance().submit(ReportJob.Type.FULL_REPORT, "Full Report", filename);
+        watchReportJob(job, "Report Generated", "Full report has been generated successfully!",
+                       "Report Error", "Failed to generate report.");
+        updateStatusLabel("Report queued: " + filename + " - see Report Jobs for progress");
     }
     
     /**
@@ -459,15 +440,45 @@ public class StudentViewController {
         String filename = "Student_Export_" + 
                          LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
         
-        boolean success = ReportGenerator.exportToCSV(filename);
+        ReportJob job = ReportJobScheduler.getInstance().submit(ReportJob.Type.CSV_EXPORT, "CSV Export", filename);
+        watchReportJob(job, "Export Successful", "Student data has been exported to CSV!",
+                       "Export Error", "Failed to export data.");
+        updateStatusLabel("Export queued: " + filename + " - see Report Jobs for progress");
+    }
+    
+    /**
+     * Computes the latest term's academic standings and writes the dean's list and probation lists
+     */
+    @FXML
+    private void handleAcademicStanding() {
+        String filename = "Academic_Standing_" +
+                         LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
         
-        if (success) {
-            showSuccess("Export Successful", 
-                       "Student data has been exported to CSV!\n\nFile: " + filename);
-            updateStatusLabel("Data exported: " + filename);
-        } else {
-            showError("Export Error", "Failed to export data. Check console for details.");
-        }
+        ReportJob job = ReportJobScheduler.getInstance().submit(ReportJob.Type.ACADEMIC_STANDING, "Academic Standing", filename);
+        watchReportJob(job, "Standings Computed", "Dean's list and probation lists of the latest term have been written!",
+                       "Standing Error", "Failed to compute academic standings.");
+        updateStatusLabel("Academic standing queued: " + filename + " - see Report Jobs for progress");
+    }
+    
+    /**
+     * Reports the outcome of a background report job in this view
+     */
+    private void watchReportJob(ReportJob job, String successTitle, String successMessage,
+                                String errorTitle, String errorMessage) {
+        job.setOnSucceeded(event -> {
+            showSuccess(successTitle, successMessage + "\n\nFile: " + job.getOutput());
+            updateStatusLabel("Report written: " + job.getOutput());
+        });
+        job.setOnFailed(event -> showError(errorTitle, errorMessage + " " + job.getMessage()));
+        job.setOnCancelled(event -> updateStatusLabel(job.getName() + ": " + job.getMessage()));
+    }
+    
+    /**
+     * Handles Report Jobs button click
+     */
+    @FXML
+    private void handleShowReportJobs() {
+        ReportJobsViewController.showWindow();
     }
     
     /**
@@ -475,17 +486,32 @@ public class StudentViewController {
      */
     @FXML
     private void handleShowStatistics() {
+        updateStatusLabel("Computing statistics...");
+        
+        // All breakdowns come from one aggregate query, run off the FX thread
+        // and reused from the report cache until students or courses change
+        Task<StudentStatistics> task = new Task<>() {
+            @Override
+            protected StudentStatistics call() throws SQLException {
+                return StudentStatistics.loadCached();
+            }
+        };
+        task.setOnSucceeded(event -> showStatisticsDialog(task.getValue()));
+        task.setOnFailed(event -> showError("Database Error",
+                "Failed to compute statistics: " + task.getException().getMessage()));
+        ReportJobScheduler.getInstance().runInteractive(task);
+    }
+    
+    private void showStatisticsDialog(StudentStatistics stats) {
         // Create a dialog to show statistics
         Alert statsDialog = new Alert(Alert.AlertType.INFORMATION);
         statsDialog.setTitle("Student Statistics");
         statsDialog.setHeaderText("Statistical Summary");
         
-        // Generate statistics reports
-        String genderStats = ReportGenerator.generateGenderStatistics();
-        String statusStats = ReportGenerator.generateStatusStatistics();
-        
-        // Combine both reports
-        String fullStats = genderStats + "\n\n" + statusStats;
+        String fullStats = ReportGenerator.generateGenderStatistics(stats) + "\n\n"
+                         + ReportGenerator.generateStatusStatistics(stats) + "\n\n"
+                         + ReportGenerator.generateCourseStatistics(stats) + "\n\n"
+                         + ReportGenerator.generateIntakeYearStatistics(stats);
         
         // Create a TextArea to display statistics
         TextArea textArea = new TextArea(fullStats);
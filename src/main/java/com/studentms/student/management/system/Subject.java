@@ -7,131 +7,197 @@ package com.studentms.student.management.system;
 import javafx.beans.property.*;
 
 /**
- * Subject model class with section support
+ * Subject view model with section support
  * Represents a subject that students can enroll in
+ * JavaFX properties are created lazily, see Student
  */
 public class Subject {
-    
-    private final IntegerProperty subjectId;
-    private final StringProperty subjectCode;
-    private final StringProperty subjectName;
-    private final StringProperty subjectSection;
-    private final IntegerProperty credits;
-    private final StringProperty description;
-    
+
+    private int subjectIdValue;
+    private String subjectCodeValue;
+    private String subjectNameValue;
+    private String subjectSectionValue;
+    private int creditsValue;
+    private String descriptionValue;
+    private final int courseId;
+
+    private IntegerProperty subjectId;
+    private StringProperty subjectCode;
+    private StringProperty subjectName;
+    private StringProperty subjectSection;
+    private IntegerProperty credits;
+    private StringProperty description;
+
+    /**
+     * Wraps a row loaded from the database
+     */
+    public Subject(SubjectRow row) {
+        this.subjectIdValue = row.subjectId();
+        this.subjectCodeValue = row.subjectCode();
+        this.subjectNameValue = row.subjectName();
+        this.subjectSectionValue = row.subjectSection();
+        this.creditsValue = row.credits();
+        this.descriptionValue = row.description();
+        this.courseId = row.courseId();
+    }
+
     /**
      * Constructor for creating a complete Subject object
      */
-    public Subject(int subjectId, String subjectCode, String subjectName, 
+    public Subject(int subjectId, String subjectCode, String subjectName,
                    String subjectSection, int credits, String description) {
-        this.subjectId = new SimpleIntegerProperty(subjectId);
-        this.subjectCode = new SimpleStringProperty(subjectCode);
-        this.subjectName = new SimpleStringProperty(subjectName);
-        this.subjectSection = new SimpleStringProperty(subjectSection);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.description = new SimpleStringProperty(description);
-    }
-    
+        this(new SubjectRow(subjectId, subjectCode, subjectName, subjectSection, credits, description, 0));
+    }
+
     /**
      * Constructor for creating a new subject (without ID)
      */
-    public Subject(String subjectCode, String subjectName, String subjectSection, 
+    public Subject(String subjectCode, String subjectName, String subjectSection,
                    int credits, String description) {
-        this.subjectId = new SimpleIntegerProperty(0);
-        this.subjectCode = new SimpleStringProperty(subjectCode);
-        this.subjectName = new SimpleStringProperty(subjectName);
-        this.subjectSection = new SimpleStringProperty(subjectSection);
-        this.credits = new SimpleIntegerProperty(credits);
-        this.description = new SimpleStringProperty(description);
-    }
-    
+        this(0, subjectCode, subjectName, subjectSection, credits, description);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current values
+     */
+    public SubjectRow toRow() {
+        return new SubjectRow(getSubjectId(), getSubjectCode(), getSubjectName(), getSubjectSection(),
+                              getCredits(), getDescription(), courseId);
+    }
+
     // ==================== PROPERTY GETTERS ====================
-    
+
     public IntegerProperty subjectIdProperty() {
+        if (subjectId == null) {
+            subjectId = new SimpleIntegerProperty(this, "subjectId", subjectIdValue);
+        }
         return subjectId;
     }
-    
+
     public StringProperty subjectCodeProperty() {
+        if (subjectCode == null) {
+            subjectCode = new SimpleStringProperty(this, "subjectCode", subjectCodeValue);
+        }
         return subjectCode;
     }
-    
+
     public StringProperty subjectNameProperty() {
+        if (subjectName == null) {
+            subjectName = new SimpleStringProperty(this, "subjectName", subjectNameValue);
+        }
         return subjectName;
     }
-    
+
     public StringProperty subjectSectionProperty() {
+        if (subjectSection == null) {
+            subjectSection = new SimpleStringProperty(this, "subjectSection", subjectSectionValue);
+        }
         return subjectSection;
     }
-    
+
     public IntegerProperty creditsProperty() {
+        if (credits == null) {
+            credits = new SimpleIntegerProperty(this, "credits", creditsValue);
+        }
         return credits;
     }
-    
+
     public StringProperty descriptionProperty() {
+        if (description == null) {
+            description = new SimpleStringProperty(this, "description", descriptionValue);
+        }
         return description;
     }
-    
+
     // ==================== VALUE GETTERS ====================
-    
+
     public int getSubjectId() {
-        return subjectId.get();
+        return subjectId != null ? subjectId.get() : subjectIdValue;
     }
-    
+
     public String getSubjectCode() {
-        return subjectCode.get();
+        return subjectCode != null ? subjectCode.get() : subjectCodeValue;
     }
-    
+
     public String getSubjectName() {
-        return subjectName.get();
+        return subjectName != null ? subjectName.get() : subjectNameValue;
     }
-    
+
     public String getSubjectSection() {
-        return subjectSection.get();
+        return subjectSection != null ? subjectSection.get() : subjectSectionValue;
     }
-    
+
     public int getCredits() {
-        return credits.get();
+        return credits != null ? credits.get() : creditsValue;
     }
-    
+
     public String getDescription() {
-        return description.get();
+        return description != null ? description.get() : descriptionValue;
+    }
+
+    public int getCourseId() {
+        return courseId;
     }
-    
+
     // ==================== VALUE SETTERS ====================
-    
+
     public void setSubjectId(int subjectId) {
-        this.subjectId.set(subjectId);
+        if (this.subjectId != null) {
+            this.subjectId.set(subjectId);
+        } else {
+            this.subjectIdValue = subjectId;
+        }
     }
-    
+
     public void setSubjectCode(String subjectCode) {
-        this.subjectCode.set(subjectCode);
+        if (this.subjectCode != null) {
+            this.subjectCode.set(subjectCode);
+        } else {
+            this.subjectCodeValue = subjectCode;
+        }
     }
-    
+
     public void setSubjectName(String subjectName) {
-        this.subjectName.set(subjectName);
+        if (this.subjectName != null) {
+            this.subjectName.set(subjectName);
+        } else {
+            this.subjectNameValue = subjectName;
+        }
     }
-    
+
     public void setSubjectSection(String subjectSection) {
-        this.subjectSection.set(subjectSection);
+        if (this.subjectSection != null) {
+            this.subjectSection.set(subjectSection);
+        } else {
+            this.subjectSectionValue = subjectSection;
+        }
     }
-    
+
     public void setCredits(int credits) {
-        this.credits.set(credits);
+        if (this.credits != null) {
+            this.credits.set(credits);
+        } else {
+            this.creditsValue = credits;
+        }
     }
-    
+
     public void setDescription(String description) {
-        this.description.set(description);
+        if (this.description != null) {
+            this.description.set(description);
+        } else {
+            this.descriptionValue = description;
+        }
     }
-    
+
     /**
      * Returns full subject identifier (code + section)
      */
     public String getFullCode() {
-        return subjectCode.get() + "-" + subjectSection.get();
+        return getSubjectCode() + "-" + getSubjectSection();
     }
-    
+
     @Override
     public String toString() {
-        return subjectCode.get() + "-" + subjectSection.get() + " - " + subjectName.get();
+        return getSubjectCode() + "-" + getSubjectSection() + " - " + getSubjectName();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+/**
+ * Immutable subject row as stored in the subjects table
+ * courseId is 0 when the subject is not linked to a course
+ */
+public record SubjectRow(int subjectId, String subjectCode, String subjectName,
+                         String subjectSection, int credits, String description, int courseId) {
+}
@@ -6,6 +6,7 @@ package com.studentms.student.management.system;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,8 +15,9 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Controller for Subject Management
@@ -80,17 +82,9 @@ public class SubjectViewController {
     private void loadSubjectData() {
         subjectList.clear();
         
-        try (ResultSet rs = DatabaseManager.getAllSubjects()) {
-            while (rs.next()) {
-                Subject subject = new Subject(
-                    rs.getInt("subject_id"),
-                    rs.getString("subject_code"),
-                    rs.getString("subject_name"),
-                    rs.getString("subject_section"),
-                    rs.getInt("credits"),
-                    rs.getString("description")
-                );
-                subjectList.add(subject);
+        try {
+            for (SubjectRow row : DatabaseManager.getAllSubjectRows()) {
+                subjectList.add(new Subject(row));
             }
         } catch (SQLException e) {
             showError("Database Error", "Failed to load subjects: " + e.getMessage());
@@ -151,6 +145,7 @@ public class SubjectViewController {
         int credits = creditsSpinner.getValue();
         String description = descriptionArea.getText().trim();
         
+        boolean creditsChanged = credits != selectedSubject.getCredits();
         boolean success = DatabaseManager.updateSubject(
             selectedSubject.getSubjectId(), subjectCode, subjectName, section, credits, description
         );
@@ -166,11 +161,31 @@ public class SubjectViewController {
             
             showSuccess("Success", "Subject updated successfully!");
             updateStatusLabel("Subject updated");
+            if (creditsChanged) {
+                recomputeCGPAs(selectedSubject);
+            }
         } else {
             showError("Error", "Failed to update subject.");
         }
     }
     
+    /**
+     * Recomputes the stored GPAs of every student enrolled in a subject whose credits changed
+     */
+    private void recomputeCGPAs(Subject subject) {
+        Task<CgpaRecomputeJob.Result> task = new Task<>() {
+            @Override
+            protected CgpaRecomputeJob.Result call() throws SQLException {
+                return new CgpaRecomputeJob(new int[] {subject.getSubjectId()}).run();
+            }
+        };
+        task.setOnSucceeded(event -> updateStatusLabel("Subject updated - CGPA recomputed for "
+                + task.getValue().students() + " students"));
+        task.setOnFailed(event -> showError("Database Error",
+                "Failed to recompute CGPAs: " + task.getException().getMessage()));
+        ReportJobScheduler.getInstance().runInteractive(task);
+    }
+    
     @FXML
     private void handleDeleteSubject() {
         Subject selectedSubject = subjectTable.getSelectionModel().getSelectedItem();
@@ -213,6 +228,44 @@ public class SubjectViewController {
         updateStatusLabel("Form cleared");
     }
     
+    /**
+     * Exports the grade distribution of every section as a background report job
+     */
+    @FXML
+    private void handleExportGradeDistribution() {
+        String filename = "Section_Grades_" +
+                         LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+        
+        ReportJob job = ReportJobScheduler.getInstance().submit(
+            ReportJob.Type.SECTION_GRADES, "Section Grades", filename);
+        job.setOnSucceeded(event -> {
+            showSuccess("Export Successful",
+                "Grade distribution of all sections has been exported!\n\nFile: " + job.getOutput());
+            updateStatusLabel("Section grades written: " + job.getOutput());
+        });
+        job.setOnFailed(event -> showError("Export Error", "Failed to export section grades. " + job.getMessage()));
+        updateStatusLabel("Section grade export queued: " + filename);
+    }
+    
+    /**
+     * Exports the top students of every course and section as a background report job
+     */
+    @FXML
+    private void handleTopStudents() {
+        String filename = "Top_Students_" +
+                         LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+        
+        ReportJob job = ReportJobScheduler.getInstance().submit(
+            ReportJob.Type.TOP_STUDENTS, "Top Students", filename);
+        job.setOnSucceeded(event -> {
+            showSuccess("Export Successful",
+                "Top " + TopStudents.DEFAULT_N + " students of every course and section have been exported!\n\nFile: " + job.getOutput());
+            updateStatusLabel("Top students written: " + job.getOutput());
+        });
+        job.setOnFailed(event -> showError("Export Error", "Failed to export top students. " + job.getMessage()));
+        updateStatusLabel("Top students export queued: " + filename);
+    }
+    
     @FXML
     private void handleBackToStudents() {
         try {
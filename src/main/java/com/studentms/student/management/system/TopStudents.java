@@ -0,0 +1,380 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Top N active students of every course (by CGPA) and of every subject
+ * section (by the grade points earned in it)
+ *
+ * Graded enrollments are streamed once in student order from
+ * idx_enrollments_student_term, so each student's CGPA is complete when their
+ * last row goes by. The student is then offered to their course's heap, and
+ * each of their sections to that section's heap. Every group keeps a min-heap
+ * of at most N candidates with the weakest on top: a candidate that does not
+ * beat it is dropped after one comparison. Memory is N per group, whatever the
+ * number of students, and nothing is sorted but the N winners of each group.
+ * A window function (ROW_NUMBER() OVER (PARTITION BY ...)) would sort every
+ * student of every group inside SQLite instead.
+ *
+ * Equal scores are ordered by the chosen Tiebreak, then by student ID, so the
+ * ranking is the same on every run. Names are read afterwards for the winners only
+ *
+ * Usage: java ... TopStudents [--n=10] [--tiebreak=credits|cgpa|id] [--out=file.csv] [--db=path]
+ */
+public class TopStudents {
+
+    public static final int DEFAULT_N = 10;
+
+    /**
+     * How students with an equal score are ordered, before the lower student ID
+     */
+    public enum Tiebreak {
+        // More graded credits first
+        MORE_CREDITS,
+        // Higher CGPA first; within a course the score is the CGPA, so this falls through to the ID
+        HIGHER_CGPA,
+        // Lower student ID, i.e. earlier registration, first
+        LOWER_ID;
+
+        public static Tiebreak parse(String value) {
+            return switch (value.trim().toLowerCase()) {
+                case "credits" -> MORE_CREDITS;
+                case "cgpa" -> HIGHER_CGPA;
+                case "id" -> LOWER_ID;
+                default -> throw new IllegalArgumentException("Unknown tiebreak: " + value);
+            };
+        }
+    }
+
+    /**
+     * A student's place in a group; rank 1 is the best
+     */
+    public record Entry(int rank, int studentId, String studentCode, String fullName,
+                        double score, int gradedCredits, double cgpa) {
+    }
+
+    /**
+     * The top students of one course or section, best first
+     */
+    public record Group(int groupId, String label, List<Entry> entries) {
+    }
+
+    /**
+     * Top students of every course and every section with at least one graded student
+     */
+    public record Ranking(int n, Tiebreak tiebreak, List<Group> courses, List<Group> sections) {
+    }
+
+    private static final String STREAM_SQL = """
+        SELECT e.student_id, st.course_id, e.subject_id, e.grade, sub.credits
+        FROM enrollments e
+        JOIN students st ON st.student_id = e.student_id
+        JOIN subjects sub ON sub.subject_id = e.subject_id
+        WHERE st.status = 'Active' AND e.grade IS NOT NULL AND sub.credits > 0
+        ORDER BY e.student_id
+    """;
+
+    // Student IDs per name lookup, see DatabaseManager SET-BASED ROW QUERIES
+    private static final int NAME_BATCH = 500;
+
+    private TopStudents() {
+    }
+
+    /**
+     * A student offered to a group's heap
+     */
+    private record Candidate(int studentId, double score, int gradedCredits, double cgpa) {
+    }
+
+    /**
+     * Orders candidates best first: higher score, then the tiebreak, then lower ID
+     */
+    private static Comparator<Candidate> bestFirst(Tiebreak tiebreak) {
+        Comparator<Candidate> order = Comparator.comparingDouble(Candidate::score).reversed();
+        order = switch (tiebreak) {
+            case MORE_CREDITS -> order.thenComparing(Comparator.comparingInt(Candidate::gradedCredits).reversed());
+            case HIGHER_CGPA -> order.thenComparing(Comparator.comparingDouble(Candidate::cgpa).reversed());
+            case LOWER_ID -> order;
+        };
+        return order.thenComparingInt(Candidate::studentId);
+    }
+
+    /**
+     * At most n candidates, the weakest on top of the heap
+     */
+    private static final class BoundedHeap {
+
+        private final int n;
+        private final Comparator<Candidate> bestFirst;
+        private final PriorityQueue<Candidate> heap;
+
+        BoundedHeap(int n, Comparator<Candidate> bestFirst) {
+            this.n = n;
+            this.bestFirst = bestFirst;
+            // Reversed, so the head is the candidate every newcomer has to beat
+            this.heap = new PriorityQueue<>(n + 1, bestFirst.reversed());
+        }
+
+        void offer(Candidate candidate) {
+            if (heap.size() < n) {
+                heap.add(candidate);
+            } else if (bestFirst.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Candidate> best() {
+            Candidate[] sorted = heap.toArray(new Candidate[0]);
+            Arrays.sort(sorted, bestFirst);
+            return Arrays.asList(sorted);
+        }
+    }
+
+    // ==================== RANKING ====================
+
+    /**
+     * Finds the top n students of every course and section
+     */
+    public static Ranking load(int n, Tiebreak tiebreak) throws SQLException {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        Comparator<Candidate> bestFirst = bestFirst(tiebreak);
+        Map<Integer, BoundedHeap> courseHeaps = new HashMap<>();
+        Map<Integer, BoundedHeap> sectionHeaps = new HashMap<>();
+
+        // One student's graded rows, kept until their CGPA is known
+        int[] subjectIds = new int[64];
+        double[] points = new double[64];
+        boolean[] counts = new boolean[64];
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(STREAM_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            boolean hasRow = rs.next();
+            while (hasRow) {
+                int studentId = rs.getInt(1);
+                int courseId = rs.getInt(2);
+                GradeScale scale = GradingSchemes.forCourse(courseId);
+                GradeScale.Accumulator total = new GradeScale.Accumulator(scale);
+                int rows = 0;
+                do {
+                    int ordinal = scale.ordinal(rs.getString(4));
+                    if (ordinal != GradeScale.UNGRADED) {
+                        if (rows == subjectIds.length) {
+                            subjectIds = Arrays.copyOf(subjectIds, rows * 2);
+                            points = Arrays.copyOf(points, rows * 2);
+                            counts = Arrays.copyOf(counts, rows * 2);
+                        }
+                        subjectIds[rows] = rs.getInt(3);
+                        points[rows] = scale.points(ordinal);
+                        counts[rows] = scale.countsInGpa(ordinal);
+                        total.add(ordinal, rs.getInt(5));
+                        rows++;
+                    }
+                    hasRow = rs.next();
+                } while (hasRow && rs.getInt(1) == studentId);
+
+                if (!total.hasGrades()) {
+                    continue;
+                }
+                double cgpa = total.gpa();
+                int credits = total.getGradedCredits();
+                if (courseId > 0) {
+                    courseHeaps.computeIfAbsent(courseId, id -> new BoundedHeap(n, bestFirst))
+                               .offer(new Candidate(studentId, cgpa, credits, cgpa));
+                }
+                for (int row = 0; row < rows; row++) {
+                    // A retaken section is offered once, with its best attempt
+                    if (counts[row] && isBestAttempt(subjectIds, points, counts, rows, row)) {
+                        sectionHeaps.computeIfAbsent(subjectIds[row], id -> new BoundedHeap(n, bestFirst))
+                                    .offer(new Candidate(studentId, points[row], credits, cgpa));
+                    }
+                }
+            }
+        }
+
+        Map<Integer, String> courseLabels = new HashMap<>();
+        for (CourseRow course : DatabaseManager.getAllCourseRows()) {
+            courseLabels.put(course.courseId(), course.courseCode());
+        }
+        Map<Integer, String> sectionLabels = new HashMap<>();
+        for (SubjectRow subject : DatabaseManager.getAllSubjectRows()) {
+            sectionLabels.put(subject.subjectId(), subject.subjectCode() + " " + subject.subjectSection());
+        }
+        Map<Integer, StudentRow> students = loadStudents(courseHeaps, sectionHeaps);
+
+        return new Ranking(n, tiebreak, toGroups(courseHeaps, courseLabels, students),
+                           toGroups(sectionHeaps, sectionLabels, students));
+    }
+
+    /**
+     * True for the first of a subject's rows with its highest points
+     */
+    private static boolean isBestAttempt(int[] subjectIds, double[] points, boolean[] counts, int rows, int row) {
+        for (int other = 0; other < rows; other++) {
+            if (other != row && counts[other] && subjectIds[other] == subjectIds[row]
+                    && (points[other] > points[row] || (points[other] == points[row] && other < row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the winners of every group, a few hundred IDs per query
+     */
+    private static Map<Integer, StudentRow> loadStudents(Map<Integer, BoundedHeap> courseHeaps,
+                                                         Map<Integer, BoundedHeap> sectionHeaps) throws SQLException {
+        int[] ids = new int[256];
+        int count = 0;
+        for (Map<Integer, BoundedHeap> heaps : List.of(courseHeaps, sectionHeaps)) {
+            for (BoundedHeap heap : heaps.values()) {
+                for (Candidate candidate : heap.heap) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = candidate.studentId();
+                }
+            }
+        }
+        int[] unique = Arrays.stream(ids, 0, count).sorted().distinct().toArray();
+
+        Map<Integer, StudentRow> students = new HashMap<>(unique.length * 2);
+        for (int from = 0; from < unique.length; from += NAME_BATCH) {
+            int[] batch = Arrays.copyOfRange(unique, from, Math.min(unique.length, from + NAME_BATCH));
+            for (StudentRow student : DatabaseManager.getStudentRows(batch)) {
+                students.put(student.studentId(), student);
+            }
+        }
+        return students;
+    }
+
+    /**
+     * Turns heaps into groups ordered by label, each with its entries best first
+     */
+    private static List<Group> toGroups(Map<Integer, BoundedHeap> heaps, Map<Integer, String> labels,
+                                        Map<Integer, StudentRow> students) {
+        Map<String, Group> byLabel = new TreeMap<>();
+        for (Map.Entry<Integer, BoundedHeap> heap : heaps.entrySet()) {
+            List<Entry> entries = new ArrayList<>();
+            for (Candidate candidate : heap.getValue().best()) {
+                StudentRow student = students.get(candidate.studentId());
+                entries.add(new Entry(entries.size() + 1, candidate.studentId(),
+                                      student != null ? student.studentCode() : null,
+                                      student != null ? student.fullName() : null,
+                                      candidate.score(), candidate.gradedCredits(), candidate.cgpa()));
+            }
+            String label = labels.getOrDefault(heap.getKey(), "#" + heap.getKey());
+            byLabel.put(label + "\u0000" + heap.getKey(), new Group(heap.getKey(), label, entries));
+        }
+        return new ArrayList<>(byLabel.values());
+    }
+
+    // ==================== REPORT ====================
+
+    /**
+     * Writes the top students of every course and section as CSV; returns false on failure
+     */
+    public static boolean exportReport(String filename, int n, Tiebreak tiebreak) {
+        Ranking ranking;
+        try {
+            ranking = load(n, tiebreak);
+        } catch (SQLException e) {
+            System.err.println("Error ranking top students: " + e.getMessage());
+            return false;
+        }
+
+        try (ReportWriter writer = ReportWriter.open(filename)) {
+
+            writer.line("Group Type,Group,Rank,Student Code,Full Name,Score,Graded Credits,CGPA");
+            writeGroups(writer, "Course", ranking.courses());
+            writeGroups(writer, "Section", ranking.sections());
+            writer.commit();
+            return true;
+
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error writing top students report: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void writeGroups(ReportWriter writer, String type, List<Group> groups) {
+        for (Group group : groups) {
+            for (Entry entry : group.entries()) {
+                writer.append(type).append(',')
+                      .csvQuoted(group.label()).append(',')
+                      .append(entry.rank()).append(',')
+                      .csvQuoted(entry.studentCode()).append(',')
+                      .csvQuoted(entry.fullName()).append(',')
+                      .appendFixed(entry.score(), 2).append(',')
+                      .append(entry.gradedCredits()).append(',')
+                      .appendFixed(entry.cgpa(), 2)
+                      .newLine();
+            }
+        }
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    /**
+     * Prints the top students of every course, or writes courses and sections with --out
+     */
+    public static void main(String[] args) throws SQLException {
+        int n = DEFAULT_N;
+        Tiebreak tiebreak = Tiebreak.MORE_CREDITS;
+        String out = null;
+        for (String arg : args) {
+            if (arg.startsWith("--n=")) {
+                n = Integer.parseInt(arg.substring("--n=".length()));
+            } else if (arg.startsWith("--tiebreak=")) {
+                tiebreak = Tiebreak.parse(arg.substring("--tiebreak=".length()));
+            } else if (arg.startsWith("--out=")) {
+                out = arg.substring("--out=".length());
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            }
+        }
+
+        long start = System.nanoTime();
+        if (out != null) {
+            if (!exportReport(out, n, tiebreak)) {
+                System.exit(1);
+            }
+            System.out.println("Report written to " + out);
+        } else {
+            Ranking ranking = load(n, tiebreak);
+            for (Group course : ranking.courses()) {
+                System.out.println(course.label());
+                for (Entry entry : course.entries()) {
+                    System.out.printf("  %3d  %-10s %-30s CGPA %.2f  %4d credits%n", entry.rank(),
+                            entry.studentCode(), entry.fullName(), entry.score(), entry.gradedCredits());
+                }
+            }
+            System.out.printf("%d courses and %d sections ranked%n", ranking.courses().size(), ranking.sections().size());
+        }
+        System.out.printf("Done in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.studentms.student.management.system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates grade transcripts for a whole cohort in one run
+ *
+ * Students are processed in chunks: each chunk is fetched with two set-based
+ * queries (students, then all their enrollments), and its transcripts are
+ * rendered on virtual threads while the next chunk is being fetched. A
+ * semaphore bounds how many transcript files are open at once.
+ *
+ * Each transcript is written atomically through ReportWriter, so a file that
+ * exists is always complete. A run with resume enabled skips those files, which
+ * lets a failed or cancelled run pick up where it stopped
+ *
+ * If the output ends with .zip, all transcripts are bundled into that one
+ * archive instead of loose files. Transcripts are still rendered in parallel,
+ * each into its own buffer, and only compressing them into the archive is done
+ * one at a time; the archive only appears once every transcript is in it, so
+ * there is nothing to resume
+ *
+ * Usage: java ... TranscriptBatchJob [output dir or .zip] [--resume] [--max-open-files=N]
+ */
+public class TranscriptBatchJob {
+
+    // Students fetched per pair of queries (one bound parameter each)
+    private static final int CHUNK_SIZE = 500;
+    private static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    /**
+     * Snapshot of how far the job is
+     */
+    public record Progress(int total, int written, int skipped, int failed) {
+
+        public int done() {
+            return written + skipped + failed;
+        }
+
+        public double fraction() {
+            return total > 0 ? (double) done() / total : 1.0;
+        }
+    }
+
+    /**
+     * Receives progress updates, called from worker threads
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    /**
+     * Outcome of a run; failedStudents holds the codes of students whose transcript could not be written
+     */
+    public record Result(Progress progress, boolean cancelled, List<String> failedStudents, long elapsedMillis) {
+
+        public boolean isComplete() {
+            return !cancelled && progress.failed() == 0 && progress.done() == progress.total();
+        }
+    }
+
+    private final Path output;
+    private final boolean archiveOutput;
+    private final int[] studentIds;
+    private boolean resume;
+    private int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+    private ProgressListener listener = progress -> { };
+
+    private volatile boolean cancelled;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<String> failedStudents = Collections.synchronizedList(new ArrayList<>());
+    private int total;
+
+    /**
+     * Creates a job for the given students, or for every student if studentIds is null
+     * output is a directory, or a .zip archive to bundle all transcripts in
+     */
+    public TranscriptBatchJob(Path output, int[] studentIds) {
+        this.output = output;
+        this.archiveOutput = output.getFileName().toString().endsWith(".zip");
+        this.studentIds = studentIds != null ? studentIds.clone() : null;
+    }
+
+    /**
+     * Skips students whose transcript file already exists
+     */
+    public TranscriptBatchJob setResume(boolean resume) {
+        this.resume = resume;
+        return this;
+    }
+
+    public TranscriptBatchJob setMaxOpenFiles(int maxOpenFiles) {
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        return this;
+    }
+
+    public TranscriptBatchJob setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Asks a running job to stop; transcripts already being written are finished
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Transcript file of a student inside the output directory
+     */
+    public Path transcriptFile(String studentCode) {
+        return output.resolve(transcriptName(studentCode));
+    }
+
+    private static String transcriptName(String studentCode) {
+        return "Transcript_" + studentCode + ".txt";
+    }
+
+    // ==================== RUN ====================
+
+    /**
+     * Runs the job on the calling thread until all transcripts are handled or it is cancelled
+     * Throws SQLException if loading data fails; rerun with resume to continue
+     */
+    public Result run() throws IOException, SQLException {
+        if (archiveOutput && resume) {
+            throw new IllegalStateException("Resume needs an output directory, an archive is written as a whole");
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(archiveOutput ? output.toAbsolutePath().getParent() : output);
+
+        int[] ids = studentIds != null ? studentIds : DatabaseManager.getAllStudentIds();
+        total = ids.length;
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+
+        try (ReportArchive archive = archiveOutput ? ReportArchive.open(output.toString()) : null) {
+            runChunks(ids, archive, openFiles);
+            if (archive != null && !cancelled && failed.get() == 0) {
+                archive.commit();
+            }
+        }
+
+        Progress progress = snapshot();
+        listener.onProgress(progress);
+        return new Result(progress, cancelled, List.copyOf(failedStudents), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void runChunks(int[] ids, ReportArchive archive, Semaphore openFiles) throws IOException, SQLException {
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> previousChunk = List.of();
+
+            for (int from = 0; from < ids.length && !cancelled; from += CHUNK_SIZE) {
+                int[] chunkIds = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + CHUNK_SIZE));
+
+                // Fetching this chunk overlaps with rendering of the previous one
+                List<Transcript> transcripts = loadChunk(chunkIds);
+                awaitAll(previousChunk);
+
+                List<Future<?>> submitted = new ArrayList<>(transcripts.size());
+                for (Transcript transcript : transcripts) {
+                    submitted.add(workers.submit(() -> write(transcript, archive, openFiles)));
+                }
+                previousChunk = submitted;
+            }
+            awaitAll(previousChunk);
+        }
+    }
+
+    private record Transcript(StudentRow student, List<EnrollmentRow> enrollments) {
+    }
+
+    /**
+     * Loads a chunk of students with their enrollments in two queries
+     * Students that are already done (when resuming) are counted as skipped here
+     */
+    private List<Transcript> loadChunk(int[] chunkIds) throws SQLException {
+        List<StudentRow> students = DatabaseManager.getStudentRows(chunkIds);
+        // IDs that no longer exist are skipped
+        skipped.addAndGet(chunkIds.length - students.size());
+
+        List<StudentRow> pending = new ArrayList<>(students.size());
+        for (StudentRow student : students) {
+            if (resume && Files.exists(transcriptFile(student.studentCode()))) {
+                skipped.incrementAndGet();
+            } else {
+                pending.add(student);
+            }
+        }
+        if (pending.isEmpty()) {
+            listener.onProgress(snapshot());
+            return List.of();
+        }
+
+        int[] pendingIds = new int[pending.size()];
+        for (int i = 0; i < pendingIds.length; i++) {
+            pendingIds[i] = pending.get(i).studentId();
+        }
+
+        // Both lists are ordered by student ID, so enrollments are split off in one pass
+        List<EnrollmentRow> enrollments = DatabaseManager.getEnrollmentRows(pendingIds);
+        List<Transcript> transcripts = new ArrayList<>(pending.size());
+        int next = 0;
+        for (StudentRow student : pending) {
+            int end = next;
+            while (end < enrollments.size() && enrollments.get(end).studentId() == student.studentId()) {
+                end++;
+            }
+            transcripts.add(new Transcript(student, enrollments.subList(next, end)));
+            next = end;
+        }
+        return transcripts;
+    }
+
+    private void write(Transcript transcript, ReportArchive archive, Semaphore openFiles) {
+        if (cancelled) {
+            return;
+        }
+
+        GradeScale scale = GradingSchemes.forCourse(transcript.student().courseId());
+        List<StudentPortalViewController.GradeRecord> grades = new ArrayList<>(transcript.enrollments().size());
+        for (EnrollmentRow row : transcript.enrollments()) {
+            grades.add(StudentPortalViewController.toGradeRecord(row, scale));
+        }
+        double cgpa = StudentPortalViewController.calculateSemesterGPA(grades, scale);
+        String code = transcript.student().studentCode();
+        Student student = new Student(transcript.student());
+
+        boolean ok;
+        if (archive != null) {
+            try {
+                ok = archive.addEntry(transcriptName(code),
+                        writer -> ReportGenerator.writeStudentGradeReport(writer, student, grades, cgpa));
+            } catch (RuntimeException e) {
+                System.err.println("Error writing transcript for " + code + ": " + e.getMessage());
+                ok = false;
+            }
+            record(code, ok);
+            return;
+        }
+
+        try {
+            openFiles.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            ok = ReportGenerator.generateStudentGradeReport(transcriptFile(code).toString(),
+                    student, grades, cgpa);
+        } catch (RuntimeException e) {
+            System.err.println("Error writing transcript for " + code + ": " + e.getMessage());
+            ok = false;
+        } finally {
+            openFiles.release();
+        }
+        record(code, ok);
+    }
+
+    private void record(String code, boolean ok) {
+        if (ok) {
+            written.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+            failedStudents.add(code);
+        }
+        listener.onProgress(snapshot());
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws IOException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing transcripts", e);
+            } catch (ExecutionException e) {
+                // write() handles its own failures, so this is a programming error
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private Progress snapshot() {
+        return new Progress(total, written.get(), skipped.get(), failed.get());
+    }
+
+    /**
+     * Command line entry point for end-of-semester runs
+     */
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get("transcripts");
+        boolean resume = false;
+        int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+        for (String arg : args) {
+            if (arg.equals("--resume")) {
+                resume = true;
+            } else if (arg.startsWith("--max-open-files=")) {
+                maxOpenFiles = Integer.parseInt(arg.substring("--max-open-files=".length()));
+            } else if (arg.startsWith("--db=")) {
+                DatabaseManager.setDatabasePath(arg.substring("--db=".length()));
+            } else {
+                output = Paths.get(arg);
+            }
+        }
+
+        TranscriptBatchJob job = new TranscriptBatchJob(output, null)
+                .setResume(resume)
+                .setMaxOpenFiles(maxOpenFiles);
+
+        // Ctrl+C stops the job cleanly: transcripts in flight finish and no temp files are left
+        CountDownLatch finished = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            job.cancel();
+            try {
+                finished.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        int[] lastPercent = {-1};
+        job.setProgressListener(progress -> {
+            int percent = (int) (progress.fraction() * 100);
+            synchronized (lastPercent) {
+                if (percent / 10 > lastPercent[0] / 10) {
+                    lastPercent[0] = percent;
+                    System.out.printf("  %3d%%  %,d / %,d%n", percent, progress.done(), progress.total());
+                }
+            }
+        });
+
+        Result result;
+        try {
+            result = job.run();
+        } finally {
+            finished.countDown();
+        }
+        Progress p = result.progress();
+        System.out.printf("Transcripts: %,d written, %,d skipped, %,d failed in %.1f s -> %s%n",
+                p.written(), p.skipped(), p.failed(), result.elapsedMillis() / 1000.0, output);
+        if (!result.failedStudents().isEmpty()) {
+            System.out.println("Failed: " + String.join(", ", result.failedStudents()));
+        }
+        if (!result.isComplete()) {
+            System.out.println(job.archiveOutput
+                    ? "The archive was not written, run the job again"
+                    : "Run again with --resume to finish the remaining transcripts");
+            if (!result.cancelled()) {
+                // Exiting is not allowed while the shutdown hook that cancelled the job is running
+                System.exit(1);
+            }
+        }
+    }
+}